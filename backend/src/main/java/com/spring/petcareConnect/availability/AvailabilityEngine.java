@@ -0,0 +1,395 @@
+package com.spring.petcareConnect.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.petcareConnect.dtos.appointment.response.BookedIntervalDto;
+import com.spring.petcareConnect.dtos.specialist.response.SlotDto;
+import com.spring.petcareConnect.dtos.specialist.response.SpecialistSlotsResponseDto;
+import com.spring.petcareConnect.entities.Specialist;
+import com.spring.petcareConnect.enums.AvailableDay;
+import com.spring.petcareConnect.exceptions.ResourceNotFoundException;
+import com.spring.petcareConnect.repositories.jpa.AppointmentRepository;
+import com.spring.petcareConnect.repositories.jpa.SpecialistRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory slot bitmap per specialist and day.
+ * <p>
+ * A day is split into {@code slotDuration}-minute slots from {@code workingHoursStart} to
+ * {@code workingHoursEnd} (no slots on days outside {@code daysAvailable}); every active booking
+ * marks the slots it intersects. Bitmaps are built lazily from one indexed query the first time a
+ * day is touched, and dropped when the specialist profile changes or a booking leaves the day.
+ * <p>
+ * Booking reserves its slots with a CAS per bit before going to the database. The bitmap is only
+ * an admission hint: it is local to this node, so a booking cancelled or moved on another node
+ * can stay marked here until the TTL. Callers confirm a {@link Outcome#TAKEN} result with the
+ * overlap query before turning a request away, Postgres stays the source of truth, and the
+ * overlap query still runs before the insert. A reservation made inside a transaction is
+ * released if that transaction rolls back.
+ * <p>
+ * Only requests aligned to the slot grid are decided here (for those the bitmap is exact);
+ * anything else is reported {@link Outcome#UNTRACKED} and left to the database check.
+ * <p>
+ * Free-slot listings are computed separately from the bookings table and kept for a few seconds;
+ * any committed booking, cancellation or profile change for the specialist evicts them.
+ */
+@Component
+public class AvailabilityEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityEngine.class);
+    private static final String CACHE_NAME = "availability";
+    private static final String SLOTS_CACHE_NAME = "freeSlots";
+
+    public enum Outcome {
+        /** Slots reserved in the bitmap. */
+        RESERVED,
+        /** At least one slot is already booked. */
+        TAKEN,
+        /** The specialist does not work at that time. */
+        OUTSIDE_SCHEDULE,
+        /** Not on the slot grid (or no schedule configured); the bitmap cannot decide. */
+        UNTRACKED
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final SpecialistRepository specialistRepository;
+    private final Cache<DayKey, DaySchedule> schedules;
+    private final Cache<RangeKey, SpecialistSlotsResponseDto> freeSlots;
+    private final Counter reserved;
+    private final Counter taken;
+    private final Counter untracked;
+
+    public AvailabilityEngine(AppointmentRepository appointmentRepository,
+                              SpecialistRepository specialistRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.availability.cache.max-size:20000}") long maxSize,
+                              @Value("${app.availability.cache.ttl-seconds:300}") long ttlSeconds,
+                              @Value("${app.availability.slots.ttl-seconds:30}") long slotsTtlSeconds) {
+        this.appointmentRepository = appointmentRepository;
+        this.specialistRepository = specialistRepository;
+        // the TTL bounds how long bookings made on other nodes can stay invisible here
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, schedules, CACHE_NAME);
+        this.freeSlots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(slotsTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, freeSlots, SLOTS_CACHE_NAME);
+        this.reserved = meterRegistry.counter("availability.reservations", "outcome", "reserved");
+        this.taken = meterRegistry.counter("availability.reservations", "outcome", "taken");
+        this.untracked = meterRegistry.counter("availability.reservations", "outcome", "untracked");
+        logger.info("Availability engine initialised with maxSize={} ttlSeconds={} slotsTtlSeconds={}", maxSize, ttlSeconds, slotsTtlSeconds);
+    }
+
+    /**
+     * Tries to reserve {@code [start, end)} for the specialist. The returned reservation must be
+     * {@link Reservation#release() released} if the booking does not go through; inside a
+     * transaction that happens automatically on rollback.
+     */
+    public Reservation reserve(Specialist specialist, LocalDateTime start, LocalDateTime end) {
+        if (!start.toLocalDate().equals(end.minusNanos(1).toLocalDate())) {
+            untracked.increment();
+            return track(specialist, new Reservation(Outcome.UNTRACKED, null, 0, 0));
+        }
+        DaySchedule schedule = schedule(specialist, start.toLocalDate());
+        if (schedule == null) {
+            untracked.increment();
+            return track(specialist, new Reservation(Outcome.UNTRACKED, null, 0, 0));
+        }
+        if (schedule.slotCount == 0 || start.toLocalTime().isBefore(schedule.opensAt)) {
+            return new Reservation(Outcome.OUTSIDE_SCHEDULE, null, 0, 0);
+        }
+
+        long offset = Duration.between(schedule.opensAt, start.toLocalTime()).toMinutes();
+        long length = Duration.between(start, end).toMinutes();
+        if (offset % schedule.slotMinutes != 0 || length % schedule.slotMinutes != 0) {
+            untracked.increment();
+            return track(specialist, new Reservation(Outcome.UNTRACKED, null, 0, 0));
+        }
+        int from = (int) (offset / schedule.slotMinutes);
+        int to = from + (int) (length / schedule.slotMinutes);
+        if (to > schedule.slotCount) {
+            return new Reservation(Outcome.OUTSIDE_SCHEDULE, null, 0, 0);
+        }
+
+        if (!schedule.tryAcquire(from, to)) {
+            taken.increment();
+            return new Reservation(Outcome.TAKEN, null, 0, 0);
+        }
+        reserved.increment();
+        return track(specialist, new Reservation(Outcome.RESERVED, schedule, from, to));
+    }
+
+    /**
+     * Free slots of the specialist from {@code from} to {@code to} (inclusive), served from a
+     * short-TTL cache that is dropped whenever one of the specialist's bookings changes.
+     * A miss costs one indexed query for the bookings and one sweep over bookings and slots.
+     */
+    public SpecialistSlotsResponseDto freeSlots(Long specialistId, LocalDate from, LocalDate to) {
+        return freeSlots.get(new RangeKey(specialistId, from, to), key -> {
+            Specialist specialist = specialistRepository.findById(specialistId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Specialist", "Id", specialistId));
+            return computeFreeSlots(specialist, from, to, LocalDateTime.now());
+        });
+    }
+
+    /**
+     * First free slot from {@code now} within {@code horizonDays} days, or null. Not cached: it
+     * reads the bookings inside the caller's transaction, including its own unflushed changes.
+     */
+    public LocalDateTime nextFreeSlot(Specialist specialist, LocalDateTime now, int horizonDays) {
+        LocalDate today = now.toLocalDate();
+        List<SlotDto> slots = computeFreeSlots(specialist, today, today.plusDays(horizonDays - 1L), now).getFreeSlots();
+        return slots.isEmpty() ? null : slots.get(0).getStart();
+    }
+
+    SpecialistSlotsResponseDto computeFreeSlots(Specialist specialist, LocalDate from, LocalDate to, LocalDateTime now) {
+        SpecialistSlotsResponseDto response = new SpecialistSlotsResponseDto(
+                specialist.getSpecialistId(), specialist.getSlotDuration(), from, to, List.of());
+        if (!specialist.isAvailable() || specialist.getWorkingHoursStart() == null || specialist.getWorkingHoursEnd() == null
+                || specialist.getSlotDuration() == null || specialist.getSlotDuration() <= 0) {
+            return response;
+        }
+
+        LocalTime opensAt = specialist.getWorkingHoursStart();
+        int slotMinutes = specialist.getSlotDuration();
+        long openMinutes = Duration.between(opensAt, specialist.getWorkingHoursEnd()).toMinutes();
+        int slotsPerDay = openMinutes > 0 ? (int) (openMinutes / slotMinutes) : 0;
+        List<BookedIntervalDto> bookings = appointmentRepository.findBookedIntervals(
+                specialist.getSpecialistId(), from.atTime(opensAt), to.plusDays(1).atTime(opensAt));
+
+        // bookings arrive ordered by start; busyUntil is the latest end of every booking that
+        // starts before the current slot ends, so each slot is decided in O(1) amortised
+        List<SlotDto> free = new ArrayList<>();
+        int next = 0;
+        LocalDateTime busyUntil = LocalDateTime.MIN;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (!worksOn(specialist, day)) {
+                continue;
+            }
+            for (int slot = 0; slot < slotsPerDay; slot++) {
+                LocalDateTime slotStart = day.atTime(opensAt).plusMinutes((long) slot * slotMinutes);
+                LocalDateTime slotEnd = slotStart.plusMinutes(slotMinutes);
+                while (next < bookings.size() && bookings.get(next).start().isBefore(slotEnd)) {
+                    LocalDateTime end = bookings.get(next++).end();
+                    if (end != null && end.isAfter(busyUntil)) {
+                        busyUntil = end;
+                    }
+                }
+                if (!busyUntil.isAfter(slotStart) && !slotStart.isBefore(now)) {
+                    free.add(new SlotDto(slotStart, slotEnd));
+                }
+            }
+        }
+        response.setFreeSlots(List.copyOf(free));
+        return response;
+    }
+
+    private Reservation track(Specialist specialist, Reservation reservation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Long specialistId = specialist.getSpecialistId();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        evictFreeSlots(specialistId);
+                    } else {
+                        reservation.release();
+                    }
+                }
+            });
+        }
+        return reservation;
+    }
+
+    /**
+     * Drops the bitmap for one day right away, e.g. when the database reports a booking the
+     * bitmap did not know about (made on another node).
+     */
+    public void invalidate(Long specialistId, LocalDate day) {
+        schedules.invalidate(new DayKey(specialistId, day));
+        evictFreeSlots(specialistId);
+    }
+
+    /**
+     * Drops the bitmap for one day once the current transaction commits, e.g. after a booking on
+     * it was cancelled or moved away; it is rebuilt from the database on next use.
+     */
+    public void invalidateAfterCommit(Long specialistId, LocalDate day) {
+        DayKey key = new DayKey(specialistId, day);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            schedules.invalidate(key);
+            evictFreeSlots(specialistId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                schedules.invalidate(key);
+                evictFreeSlots(specialistId);
+            }
+        });
+    }
+
+    /**
+     * Drops every bitmap of the specialist; called when working hours, days or slot length change.
+     */
+    public void invalidate(Long specialistId) {
+        schedules.asMap().keySet().removeIf(key -> key.specialistId() == specialistId);
+        evictFreeSlots(specialistId);
+        logger.debug("Invalidated availability of specialist {}", specialistId);
+    }
+
+    private void evictFreeSlots(Long specialistId) {
+        freeSlots.asMap().keySet().removeIf(key -> key.specialistId() == specialistId);
+    }
+
+    private static boolean worksOn(Specialist specialist, LocalDate day) {
+        return specialist.getDaysAvailable() == null || specialist.getDaysAvailable().isEmpty()
+                || specialist.getDaysAvailable().contains(AvailableDay.valueOf(day.getDayOfWeek().name()));
+    }
+
+    private DaySchedule schedule(Specialist specialist, LocalDate day) {
+        if (specialist.getWorkingHoursStart() == null || specialist.getWorkingHoursEnd() == null
+                || specialist.getSlotDuration() == null || specialist.getSlotDuration() <= 0) {
+            return null;
+        }
+        return schedules.get(new DayKey(specialist.getSpecialistId(), day), key -> build(specialist, day));
+    }
+
+    private DaySchedule build(Specialist specialist, LocalDate day) {
+        LocalTime opensAt = specialist.getWorkingHoursStart();
+        int slotMinutes = specialist.getSlotDuration();
+        boolean workingDay = worksOn(specialist, day);
+        long openMinutes = Duration.between(opensAt, specialist.getWorkingHoursEnd()).toMinutes();
+        int slotCount = workingDay && openMinutes > 0 ? (int) (openMinutes / slotMinutes) : 0;
+
+        DaySchedule schedule = new DaySchedule(opensAt, slotMinutes, slotCount);
+        if (slotCount == 0) {
+            return schedule;
+        }
+
+        LocalDateTime dayOpen = day.atTime(opensAt);
+        LocalDateTime dayClose = dayOpen.plusMinutes((long) slotCount * slotMinutes);
+        for (BookedIntervalDto booking : appointmentRepository.findBookedIntervals(specialist.getSpecialistId(), dayOpen, dayClose)) {
+            // mark every slot the booking intersects, clipped to the working day
+            long startOffset = Math.max(0, Duration.between(dayOpen, booking.start()).toMinutes());
+            long endOffset = Math.min((long) slotCount * slotMinutes, Duration.between(dayOpen, booking.end()).toMinutes());
+            int first = (int) (startOffset / slotMinutes);
+            int last = (int) ((endOffset + slotMinutes - 1) / slotMinutes);
+            schedule.mark(first, last);
+        }
+        return schedule;
+    }
+
+    /**
+     * Handle to the slots taken by {@link #reserve}; releasing is idempotent.
+     */
+    public static final class Reservation {
+        private final Outcome outcome;
+        private final DaySchedule schedule;
+        private final int from;
+        private final int to;
+        private boolean released;
+
+        private Reservation(Outcome outcome, DaySchedule schedule, int from, int to) {
+            this.outcome = outcome;
+            this.schedule = schedule;
+            this.from = from;
+            this.to = to;
+        }
+
+        public Outcome outcome() {
+            return outcome;
+        }
+
+        public synchronized void release() {
+            if (schedule != null && !released) {
+                schedule.clear(from, to);
+                released = true;
+            }
+        }
+    }
+
+    private record DayKey(long specialistId, LocalDate day) {
+    }
+
+    private record RangeKey(long specialistId, LocalDate from, LocalDate to) {
+    }
+
+    private static final class DaySchedule {
+        private final LocalTime opensAt;
+        private final int slotMinutes;
+        private final int slotCount;
+        private final AtomicLongArray bits;
+
+        private DaySchedule(LocalTime opensAt, int slotMinutes, int slotCount) {
+            this.opensAt = opensAt;
+            this.slotMinutes = slotMinutes;
+            this.slotCount = slotCount;
+            this.bits = new AtomicLongArray(Math.max(1, (slotCount + 63) / 64));
+        }
+
+        /**
+         * Sets slots {@code [from, to)} only if all were free; undoes partial progress on conflict.
+         */
+        private boolean tryAcquire(int from, int to) {
+            for (int slot = from; slot < to; slot++) {
+                if (!trySet(slot)) {
+                    clear(from, slot);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean trySet(int slot) {
+            int word = slot >>> 6;
+            long mask = 1L << slot;
+            while (true) {
+                long current = bits.get(word);
+                if ((current & mask) != 0) {
+                    return false;
+                }
+                if (bits.compareAndSet(word, current, current | mask)) {
+                    return true;
+                }
+            }
+        }
+
+        private void mark(int from, int to) {
+            for (int slot = from; slot < to; slot++) {
+                long mask = 1L << slot;
+                bits.getAndUpdate(slot >>> 6, current -> current | mask);
+            }
+        }
+
+        private void clear(int from, int to) {
+            for (int slot = from; slot < to; slot++) {
+                long mask = 1L << slot;
+                bits.getAndUpdate(slot >>> 6, current -> current & ~mask);
+            }
+        }
+    }
+}
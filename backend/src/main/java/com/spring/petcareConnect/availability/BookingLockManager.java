@@ -0,0 +1,113 @@
+package com.spring.petcareConnect.availability;
+
+import com.spring.petcareConnect.exceptions.ConflictException;
+import com.spring.petcareConnect.repositories.jpa.AppointmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes bookings per specialist so the overlap check and the insert cannot interleave
+ * with another booking for the same calendar, while bookings for different specialists run
+ * in parallel.
+ * <p>
+ * {@code app.appointments.booking-lock.mode} selects how:
+ * <ul>
+ *     <li>{@code ADVISORY} (default): {@code pg_advisory_xact_lock} keyed by specialist; works
+ *     across instances and is released by Postgres when the transaction ends.</li>
+ *     <li>{@code STRIPED}: in-process {@link ReentrantLock} stripes, released after completion;
+ *     only safe with a single application instance.</li>
+ *     <li>{@code NONE}: no locking, e.g. when the exclusion constraint alone guards overlaps.</li>
+ * </ul>
+ * Must be called inside the booking transaction, before the overlap query.
+ */
+@Component
+public class BookingLockManager {
+
+    public enum Mode { NONE, STRIPED, ADVISORY }
+
+    // 'APPT', keeps our advisory keys apart from any other pg_advisory_lock user
+    static final int ADVISORY_LOCK_NAMESPACE = 0x41505054;
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingLockManager.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final Mode mode;
+    private final ReentrantLock[] stripes;
+    private final long timeoutMs;
+    private final Timer lockWait;
+
+    public BookingLockManager(AppointmentRepository appointmentRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.appointments.booking-lock.mode:ADVISORY}") Mode mode,
+                              @Value("${app.appointments.booking-lock.stripes:1024}") int stripeCount,
+                              @Value("${app.appointments.booking-lock.timeout-ms:5000}") long timeoutMs) {
+        this.appointmentRepository = appointmentRepository;
+        this.mode = mode;
+        this.timeoutMs = timeoutMs;
+        this.stripes = new ReentrantLock[mode == Mode.STRIPED ? Math.max(1, stripeCount) : 0];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.lockWait = Timer.builder("appointments.booking.lock.wait")
+                .tag("mode", mode.name().toLowerCase())
+                .register(meterRegistry);
+        logger.info("Booking lock initialised with mode={} stripes={} timeoutMs={}", mode, stripes.length, timeoutMs);
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * Holds the specialist's booking lock until the surrounding transaction completes.
+     *
+     * @throws ConflictException if the striped lock is not free within the timeout
+     */
+    public void lockSpecialist(Long specialistId) {
+        if (mode == Mode.NONE) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Booking lock requires an active transaction");
+        }
+        long started = System.nanoTime();
+        if (mode == Mode.ADVISORY) {
+            appointmentRepository.acquireSpecialistLock(ADVISORY_LOCK_NAMESPACE, specialistId);
+        } else {
+            lockStripe(stripes[stripeIndex(specialistId)]);
+        }
+        lockWait.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    private void lockStripe(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new ConflictException("The specialist's calendar is busy, please try again.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Booking was interrupted, please try again.", ex);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private int stripeIndex(long specialistId) {
+        // spread sequential ids before reducing to a stripe
+        long mixed = specialistId * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(mixed ^ (mixed >>> 32), (long) stripes.length);
+    }
+}
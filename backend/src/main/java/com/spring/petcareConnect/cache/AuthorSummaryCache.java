@@ -0,0 +1,87 @@
+package com.spring.petcareConnect.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.petcareConnect.dtos.profile.response.AuthorSummaryDto;
+import com.spring.petcareConnect.repositories.jpa.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Process-local cache of {@link AuthorSummaryDto} keyed by userId.
+ * <p>
+ * List endpoints (forums, comments, appointments) only need a user's name/email/avatar,
+ * so they resolve authors through this cache and fall back to a single batched projection
+ * query for the misses. Entries are bounded by size and expire after a TTL; profile
+ * mutations must call {@link #invalidate(Long)}.
+ * <p>
+ * Hit/miss/eviction counts are published as {@code cache.*} meters with {@code cache=authorSummary}.
+ */
+@Component
+public class AuthorSummaryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorSummaryCache.class);
+    private static final String CACHE_NAME = "authorSummary";
+
+    private final UserRepository userRepository;
+    private final Cache<Long, AuthorSummaryDto> cache;
+
+    public AuthorSummaryCache(UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.cache.author-summary.max-size:10000}") long maxSize,
+                              @Value("${app.cache.author-summary.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        logger.info("Author summary cache initialised with maxSize={} ttlSeconds={}", maxSize, ttlSeconds);
+    }
+
+    public Optional<AuthorSummaryDto> get(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(getAll(List.of(userId)).get(userId));
+    }
+
+    /**
+     * Resolves all given user ids, loading every miss with one projection query.
+     * Ids that do not exist are simply absent from the returned map.
+     */
+    public Map<Long, AuthorSummaryDto> getAll(Collection<Long> userIds) {
+        Set<Long> ids = userIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return cache.getAll(ids, this::loadAll);
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+            logger.debug("Invalidated author summary for userId={}", userId);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private Map<Long, AuthorSummaryDto> loadAll(Set<? extends Long> missingIds) {
+        logger.debug("Loading {} author summaries from database", missingIds.size());
+        return userRepository.findAuthorSummariesByUserIdIn(new ArrayList<>(missingIds)).stream()
+                .collect(Collectors.toMap(AuthorSummaryDto::userId, Function.identity()));
+    }
+}
@@ -0,0 +1,138 @@
+package com.spring.petcareConnect.cache;
+
+import com.spring.petcareConnect.repositories.mongo.ForumCounterOperations.CounterDelta;
+import com.spring.petcareConnect.repositories.mongo.ForumRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for forum view and comment counters.
+ * <p>
+ * Hot paths only bump a {@link LongAdder} per forumId; a scheduled flusher coalesces the
+ * pending deltas into one unordered Mongo {@code bulkWrite} of {@code $inc} updates every
+ * {@code app.forum.counters.flush-interval-ms}. On a crash at most one interval of deltas
+ * is lost; on a clean shutdown the buffer is drained. A failed flush puts its deltas back.
+ * <p>
+ * Like counts are not buffered: they move together with {@code liked_by_users} in a
+ * single conditional update (see {@code ForumCounterOperations}).
+ */
+@Component
+public class ForumCounterBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForumCounterBuffer.class);
+
+    private final ForumRepository forumRepository;
+    private final Map<String, PendingCounters> pending = new ConcurrentHashMap<>();
+    // guarded by this; idle entries removed by the previous flush
+    private final List<PendingCounters> retired = new ArrayList<>();
+    private final Counter flushedUpdates;
+    private final Counter failedFlushes;
+
+    public ForumCounterBuffer(ForumRepository forumRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.forum.counters.flush-interval-ms:2000}") long flushIntervalMs) {
+        this.forumRepository = forumRepository;
+        this.flushedUpdates = meterRegistry.counter("forum.counters.flushed.updates");
+        this.failedFlushes = meterRegistry.counter("forum.counters.flush.failures");
+        meterRegistry.gaugeMapSize("forum.counters.pending.forums", List.of(), pending);
+        logger.info("Forum counter buffer initialised with flushIntervalMs={}", flushIntervalMs);
+    }
+
+    public void recordView(String forumId) {
+        counters(forumId).views.increment();
+    }
+
+    public void recordCommentDelta(String forumId, int delta) {
+        counters(forumId).comments.add(delta);
+    }
+
+    /**
+     * Deltas not yet flushed for the forum, so a read can reflect the caller's own write.
+     */
+    public CounterDelta pendingFor(String forumId) {
+        PendingCounters counters = pending.get(forumId);
+        if (counters == null) {
+            return new CounterDelta(forumId, 0, 0);
+        }
+        return new CounterDelta(forumId, counters.views.sum(), counters.comments.sum());
+    }
+
+    @Scheduled(fixedDelayString = "${app.forum.counters.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        List<CounterDelta> deltas = new ArrayList<>();
+
+        // entries dropped last time may still have caught an increment from a writer holding the old reference
+        retired.forEach(counters -> addIfNotEmpty(deltas, counters));
+        retired.clear();
+
+        pending.forEach((forumId, counters) -> {
+            // sumThenReset swaps each cell atomically, so concurrent increments land in this flush or the next
+            if (!addIfNotEmpty(deltas, counters) && pending.remove(forumId, counters)) {
+                // idle since the last flush; drop the entry so the map tracks only hot forums
+                retired.add(counters);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            int matched = forumRepository.applyCounterDeltas(deltas);
+            flushedUpdates.increment(deltas.size());
+            logger.debug("Flushed counters for {} forums ({} matched)", deltas.size(), matched);
+        } catch (RuntimeException ex) {
+            failedFlushes.increment();
+            logger.error("Failed to flush forum counters for {} forums, re-queueing: {}", deltas.size(), ex.getMessage());
+            deltas.forEach(this::requeue);
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        logger.info("Draining forum counter buffer ({} forums pending)", pending.size());
+        flush();
+        // second pass picks up anything that raced into entries retired by the first
+        flush();
+    }
+
+    private void requeue(CounterDelta delta) {
+        PendingCounters counters = counters(delta.forumId());
+        counters.views.add(delta.viewDelta());
+        counters.comments.add(delta.commentDelta());
+    }
+
+    private PendingCounters counters(String forumId) {
+        return pending.computeIfAbsent(forumId, PendingCounters::new);
+    }
+
+    private static boolean addIfNotEmpty(List<CounterDelta> deltas, PendingCounters counters) {
+        CounterDelta delta = new CounterDelta(counters.forumId, counters.views.sumThenReset(), counters.comments.sumThenReset());
+        if (delta.isEmpty()) {
+            return false;
+        }
+        deltas.add(delta);
+        return true;
+    }
+
+    private static final class PendingCounters {
+        private final String forumId;
+        private final LongAdder views = new LongAdder();
+        private final LongAdder comments = new LongAdder();
+
+        private PendingCounters(String forumId) {
+            this.forumId = forumId;
+        }
+    }
+}
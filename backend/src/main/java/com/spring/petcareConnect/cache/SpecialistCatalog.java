@@ -0,0 +1,316 @@
+package com.spring.petcareConnect.cache;
+
+import com.spring.petcareConnect.dtos.specialist.response.SpecialistListResponseDto;
+import com.spring.petcareConnect.dtos.specialist.response.SpecialistResponseDto;
+import com.spring.petcareConnect.entities.Specialist;
+import com.spring.petcareConnect.repositories.jpa.SpecialistRepository;
+import com.spring.petcareConnect.repositories.jpa.SpecialistRepository.CatalogStamp;
+import com.spring.petcareConnect.services.ServiceMappingSupport;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Immutable in-memory copy of the public specialist catalog behind {@code GET /specialists}
+ * and {@code GET /specialists/{id}}.
+ * <p>
+ * Specialist mutations call {@link #invalidateAfterCommit()}, which bumps a version once the
+ * change is committed and starts a rebuild on a background thread. The rebuild loads the whole
+ * catalog in a single query and swaps the new snapshot in atomically (copy-on-write); until then
+ * readers keep getting the previous one, so they never wait on or observe a half-built catalog.
+ * Only the very first read, with nothing to serve yet, builds in the caller.
+ * <p>
+ * Changes that do not go through those hooks, such as another node's writes, are found by a
+ * probe every {@code app.specialists.catalog.refresh-ms}: a count and the latest
+ * {@code updated_at} of specialists and their users, compared with the values read before the
+ * current snapshot was loaded. The catalog is only reloaded when they differ.
+ * <p>
+ * Every snapshot and entry carries an ETag derived from its content, so the tags are the same
+ * on every node and survive restarts and rebuilds that change nothing. They tag the data, not
+ * the response envelope around it, and are sent as weak validators.
+ */
+@Component
+public class SpecialistCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpecialistCatalog.class);
+
+    // Specialist attributes a catalog page can be sorted by; anything else is left to the database
+    private static final Map<String, Function<Entry, Comparable<?>>> SORT_KEYS = Map.of(
+            "specialistId", entry -> entry.specialist().getSpecialistId(),
+            "createdAt", Entry::createdAt,
+            "available", entry -> entry.specialist().isAvailable(),
+            "slotDuration", entry -> entry.specialist().getSlotDuration(),
+            "specialization", entry -> entry.specialist().getSpecialization(),
+            "experienceYears", entry -> entry.specialist().getExperienceYears(),
+            "rating", entry -> entry.specialist().getRating(),
+            "consultationFee", entry -> entry.specialist().getConsultationFee(),
+            "location", entry -> entry.specialist().getLocation());
+
+    private final SpecialistRepository specialistRepository;
+    private final ServiceMappingSupport mappingSupport;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final Executor rebuilder;
+    private final Timer rebuildTimer;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public SpecialistCatalog(SpecialistRepository specialistRepository,
+                             ServiceMappingSupport mappingSupport,
+                             MeterRegistry meterRegistry) {
+        this(specialistRepository, mappingSupport, meterRegistry, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "specialist-catalog");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    SpecialistCatalog(SpecialistRepository specialistRepository,
+                      ServiceMappingSupport mappingSupport,
+                      MeterRegistry meterRegistry,
+                      Executor rebuilder) {
+        this.specialistRepository = specialistRepository;
+        this.mappingSupport = mappingSupport;
+        this.rebuilder = rebuilder;
+        this.rebuildTimer = meterRegistry.timer("specialists.catalog.rebuild");
+        Gauge.builder("specialists.catalog.size", this, catalog -> {
+            Snapshot current = catalog.snapshot;
+            return current != null ? current.entries().size() : 0;
+        }).register(meterRegistry);
+    }
+
+    public static boolean canSort(Sort sort) {
+        return sort.stream().allMatch(order -> SORT_KEYS.containsKey(order.getProperty()));
+    }
+
+    /**
+     * The current snapshot. If a mutation has committed since it was taken, a rebuild is under
+     * way and this is still the previous snapshot.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return rebuild();
+        }
+        if (current.version() != version.get()) {
+            scheduleRebuild();
+        }
+        return current;
+    }
+
+    /** Marks the catalog stale once the current transaction commits, or at once outside one. */
+    public void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate();
+            }
+        });
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+        if (snapshot != null) {
+            scheduleRebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.specialists.catalog.refresh-ms:10000}",
+            initialDelayString = "${app.specialists.catalog.refresh-ms:10000}")
+    void refresh() {
+        Snapshot current = snapshot;
+        if (current != null && !current.stamp().equals(stamp())) {
+            logger.debug("Specialist catalog changed outside this node, rebuilding");
+            invalidate();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (rebuilder instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    // at most one rebuild queued or running; one that finishes behind the version queues another
+    private void scheduleRebuild() {
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuilder.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    logger.warn("Could not rebuild specialist catalog, still serving version {}: {}",
+                            snapshot.version(), e.getMessage());
+                } finally {
+                    rebuildPending.set(false);
+                }
+                if (snapshot.version() != version.get()) {
+                    scheduleRebuild();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildPending.set(false);
+        }
+    }
+
+    private synchronized Snapshot rebuild() {
+        long target = version.get();
+        Snapshot current = snapshot;
+        if (current != null && current.version() == target) {
+            return current;
+        }
+        // tagged with the version and stamp read before loading: a change committed meanwhile
+        // bumps the version again or fails the next probe, and the catalog is rebuilt
+        Snapshot rebuilt = rebuildTimer.record(() -> build(target));
+        snapshot = rebuilt;
+        logger.debug("Rebuilt specialist catalog version {} with {} specialists, etag {}",
+                target, rebuilt.entries().size(), rebuilt.eTag());
+        return rebuilt;
+    }
+
+    private Snapshot build(long target) {
+        Stamp stamp = stamp();
+        List<Entry> entries = new ArrayList<>();
+        for (Specialist specialist : specialistRepository.findAllByOrderBySpecialistIdAsc()) {
+            SpecialistResponseDto dto = mappingSupport.mapToDto(specialist, SpecialistResponseDto.class);
+            if (dto.getDaysAvailable() != null) {
+                dto.setDaysAvailable(Collections.unmodifiableSet(dto.getDaysAvailable()));
+            }
+            entries.add(new Entry(dto, specialist.getCreatedAt(), digest(dto + "|" + specialist.getCreatedAt())));
+        }
+        StringBuilder catalog = new StringBuilder();
+        entries.forEach(entry -> catalog.append(entry.eTag()));
+        return new Snapshot(target, stamp, List.copyOf(entries), digest(catalog.toString()));
+    }
+
+    private Stamp stamp() {
+        CatalogStamp stamp = specialistRepository.findCatalogStamp();
+        return new Stamp(stamp.getSpecialists(), stamp.getSpecialistsUpdatedAt(), stamp.getUsersUpdatedAt());
+    }
+
+    private static String digest(String content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * One specialist as served by the catalog. The DTO is shared by every response built from the
+     * snapshot and must not be modified.
+     */
+    public record Entry(SpecialistResponseDto specialist, LocalDateTime createdAt, String eTag) {
+    }
+
+    /** What the change probe compares: the specialist count and the latest updates. */
+    record Stamp(Long specialists, LocalDateTime specialistsUpdatedAt, LocalDateTime usersUpdatedAt) {
+    }
+
+    /**
+     * The catalog as of one version: entries in id order, with the orderings pages were asked
+     * for memoized alongside.
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final Stamp stamp;
+        private final List<Entry> entries;
+        private final Map<Long, Entry> byId;
+        private final String eTag;
+        private final Map<Sort, List<Entry>> sorted = new ConcurrentHashMap<>();
+
+        Snapshot(long version, Stamp stamp, List<Entry> entries, String eTag) {
+            this.version = version;
+            this.stamp = stamp;
+            this.entries = entries;
+            Map<Long, Entry> index = new HashMap<>();
+            entries.forEach(entry -> index.put(entry.specialist().getSpecialistId(), entry));
+            this.byId = Map.copyOf(index);
+            this.eTag = eTag;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        Stamp stamp() {
+            return stamp;
+        }
+
+        public List<Entry> entries() {
+            return entries;
+        }
+
+        public String eTag() {
+            return eTag;
+        }
+
+        public Optional<Entry> find(Long specialistId) {
+            return Optional.ofNullable(byId.get(specialistId));
+        }
+
+        /**
+         * One page in the given order, ties broken by id. Nulls sort as the largest value, as
+         * PostgreSQL does. The sort must satisfy {@link #canSort(Sort)}.
+         */
+        public SpecialistListResponseDto page(Pageable pageable) {
+            List<Entry> ordered = sorted.computeIfAbsent(pageable.getSort(), this::sort);
+            int from = (int) Math.min(pageable.getOffset(), ordered.size());
+            int to = Math.min(from + pageable.getPageSize(), ordered.size());
+            int totalPages = (ordered.size() + pageable.getPageSize() - 1) / pageable.getPageSize();
+            List<SpecialistResponseDto> content = ordered.subList(from, to).stream()
+                    .map(Entry::specialist)
+                    .toList();
+            return new SpecialistListResponseDto(content, pageable.getPageNumber(), pageable.getPageSize(),
+                    (long) ordered.size(), totalPages, pageable.getPageNumber() + 1 >= totalPages);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private List<Entry> sort(Sort sort) {
+            Comparator<Entry> comparator = null;
+            for (Sort.Order order : sort) {
+                Function<Entry, Comparable> key = (Function) SORT_KEYS.get(order.getProperty());
+                Comparator<Entry> byKey = Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()));
+                byKey = order.isAscending() ? byKey : byKey.reversed();
+                comparator = comparator == null ? byKey : comparator.thenComparing(byKey);
+            }
+            Comparator<Entry> byId = Comparator.comparing(entry -> entry.specialist().getSpecialistId());
+            return entries.stream()
+                    .sorted(comparator == null ? byId : comparator.thenComparing(byId))
+                    .toList();
+        }
+    }
+}
@@ -9,10 +9,12 @@ public class AppConstants {
     public static final String SORT_SPECIALISTS_BY = "specialistId";
     public static final String SORT_APPOINTMENTS_BY = "appointmentId";
     public static final String SORT_FORUM_BY = "forumId";
+    public static final String SORT_COMMENTS_BY = "commentId";
     public static final String SORT_ORDER = "asc";
 
     // File validation constants
     public static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
+    public static final int MAX_SLOT_RANGE_DAYS = 31;
     public static final List<String> ALLOWED_FILE_FORMATS = List.of(
             "image/jpeg",
             "image/png",
@@ -33,6 +35,11 @@ public class AppConstants {
     public static final String TOKEN_PURPOSE_RESET_PASSWORD = "RESET_PASSWORD";
     public static final String TEMP_TOKEN_PURPOSE_PROFILE_COMPLETION = "PROFILE_COMPLETION";
 
+    // JWT login token claims
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_SECURITY_VERSION = "ver";
+
 
     // Security
     public static final int SECURE_BYTES = 32; // default length for secure token generation
@@ -3,12 +3,20 @@ package com.spring.petcareConnect.config;
 import com.spring.petcareConnect.entities.*;
 import com.spring.petcareConnect.enums.AvailableDay;
 import com.spring.petcareConnect.enums.RoleName;
+import com.spring.petcareConnect.repositories.jpa.AppointmentRepository;
 import com.spring.petcareConnect.repositories.jpa.BreedRepository;
+import com.spring.petcareConnect.repositories.jpa.OutboxNotificationRepository;
 import com.spring.petcareConnect.repositories.jpa.RoleRepository;
 import com.spring.petcareConnect.repositories.jpa.SpeciesRepository;
 import com.spring.petcareConnect.repositories.jpa.UserRepository;
 import com.spring.petcareConnect.repositories.jpa.SpecialistRepository;
+import com.spring.petcareConnect.reminders.AppointmentReminderQueue;
+import com.spring.petcareConnect.services.SpecialistStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -17,30 +25,51 @@ import java.time.LocalTime;
 import java.util.*;
 
 /**
- * Initializes roles, example users (user/admin/specialist) and species+breeds.
+ * Initializes roles, example users (user/admin/specialist) and species+breeds,
+ * backfills derived appointment columns and pending reminders, rebuilds the specialist stats rollup, optionally adds the booking exclusion constraint and adds the specialist search trigram indexes.
  */
 @Component
 public class DataInitializer implements CommandLineRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final SpeciesRepository speciesRepository;
     private final BreedRepository breedRepository;
     private final RoleRepository roleRepository;
     private final SpecialistRepository specialistRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final SpecialistStatsService specialistStatsService;
+    private final AppointmentReminderQueue appointmentReminderQueue;
+    private final OutboxNotificationRepository outboxNotificationRepository;
+    private final boolean exclusionConstraintEnabled;
+    private final boolean trigramIndexesEnabled;
 
     public DataInitializer(UserRepository userRepository,
                            PasswordEncoder passwordEncoder,
                            SpeciesRepository speciesRepository,
                            BreedRepository breedRepository,
                            RoleRepository roleRepository,
-                           SpecialistRepository specialistRepository) {
+                           SpecialistRepository specialistRepository,
+                           AppointmentRepository appointmentRepository,
+                           SpecialistStatsService specialistStatsService,
+                           AppointmentReminderQueue appointmentReminderQueue,
+                           OutboxNotificationRepository outboxNotificationRepository,
+                           @Value("${app.appointments.exclusion-constraint.enabled:false}") boolean exclusionConstraintEnabled,
+                           @Value("${app.specialists.search.trigram-indexes.enabled:true}") boolean trigramIndexesEnabled) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.speciesRepository = speciesRepository;
         this.breedRepository = breedRepository;
         this.roleRepository = roleRepository;
         this.specialistRepository = specialistRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.specialistStatsService = specialistStatsService;
+        this.appointmentReminderQueue = appointmentReminderQueue;
+        this.outboxNotificationRepository = outboxNotificationRepository;
+        this.exclusionConstraintEnabled = exclusionConstraintEnabled;
+        this.trigramIndexesEnabled = trigramIndexesEnabled;
     }
 
     @Override
@@ -55,6 +84,59 @@ public class DataInitializer implements CommandLineRunner {
 
         // Initialize species and breeds
         initializeSpeciesAndBreeds();
+
+        // Derive end_time for appointments stored before the column existed
+        appointmentRepository.backfillEndTimes();
+
+        // Queue reminders for appointments booked before reminders were tracked
+        appointmentReminderQueue.backfill();
+
+        // Rebuild the specialist stats rollup (also creates rows for specialists added above)
+        specialistStatsService.reconcile();
+
+        // Let notification_outbox accept statuses and email types added since it was created
+        ensureOutboxEnumCheckConstraints();
+
+        // needs end_time on every row, so it runs after the backfill
+        if (exclusionConstraintEnabled) {
+            ensureNoOverlapConstraint();
+        }
+
+        if (trigramIndexesEnabled) {
+            ensureSearchTrigramIndexes();
+        }
+    }
+
+    private void ensureSearchTrigramIndexes() {
+        try {
+            specialistRepository.createTrigramExtension();
+            specialistRepository.createSpecializationTrigramIndex();
+            specialistRepository.createLocationTrigramIndex();
+            logger.info("Specialist search trigram indexes are in place");
+        } catch (DataAccessException ex) {
+            // missing pg_trgm privileges; text filters still work, as sequential scans
+            logger.warn("Could not add specialist search trigram indexes: {}", ex.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void ensureOutboxEnumCheckConstraints() {
+        try {
+            outboxNotificationRepository.replaceEnumCheckConstraints();
+        } catch (DataAccessException ex) {
+            // rows with statuses or email types added since the table was created stay rejected
+            logger.warn("Could not update notification outbox check constraints: {}", ex.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void ensureNoOverlapConstraint() {
+        try {
+            appointmentRepository.createBtreeGistExtension();
+            appointmentRepository.addNoOverlapConstraint();
+            logger.info("Appointment exclusion constraint {} is in place", Appointment.NO_OVERLAP_CONSTRAINT);
+        } catch (DataAccessException ex) {
+            // missing btree_gist privileges or existing overlaps; bookings stay guarded by the lock and overlap query
+            logger.warn("Could not add appointment exclusion constraint: {}", ex.getMostSpecificCause().getMessage());
+        }
     }
 
     private Role ensureRole(RoleName name) {
@@ -112,7 +194,6 @@ public class DataInitializer implements CommandLineRunner {
             specialist.setSlotDuration(30); // 30-minute slots
             specialist.setSpecialization("Veterinary Medicine");
             specialist.setExperienceYears(10);
-            specialist.setRating(4.8);
             specialist.setConsultationFee(new BigDecimal("500.00")); // INR 500
             specialist.setWorkingHoursStart(LocalTime.of(9, 0)); // 9:00 AM
             specialist.setWorkingHoursEnd(LocalTime.of(17, 0)); // 5:00 PM
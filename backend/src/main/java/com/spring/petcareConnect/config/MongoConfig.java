@@ -1,9 +1,110 @@
 package com.spring.petcareConnect.config;
 
+import com.spring.petcareConnect.entities.Comment;
+import com.spring.petcareConnect.entities.Forum;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Configuration
 @EnableMongoAuditing
 public class MongoConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoConfig.class);
+    private static final String LEGACY_LIKES_COLLECTION = "likes";
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoConfig(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Auto index creation is off, but forum search needs the weighted text index declared
+     * with {@code @TextIndexed} on {@link Forum}. Resolve it from the mapping metadata so the
+     * annotations stay the single source of truth; creating an existing index is a no-op.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureForumTextIndex() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        resolver.resolveIndexFor(Forum.class).forEach(index -> {
+            // text indexes are keyed on the synthetic _fts field
+            if (index.getIndexKeys().containsKey("_fts")) {
+                String name = mongoTemplate.indexOps(Forum.class).createIndex(index);
+                logger.info("Ensured forum text index {}", name);
+            }
+        });
+    }
+
+    /**
+     * Compound indexes named {@code idx_keyset_*} back the cursor (keyset) listings: equality
+     * prefix, then the sort key, then {@code _id} as the tiebreaker the seek predicate relies on.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureKeysetIndexes() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> type : List.of(Forum.class, Comment.class)) {
+            resolver.resolveIndexFor(type).forEach(index -> {
+                Object name = index.getIndexOptions().get("name");
+                if (name != null && name.toString().startsWith("idx_keyset_")) {
+                    mongoTemplate.indexOps(type).createIndex(index);
+                    logger.info("Ensured keyset index {} on {}", name, type.getSimpleName());
+                }
+            });
+        }
+    }
+
+    /**
+     * Forum likes used to be rows in a separate {@code likes} collection and now live in
+     * {@code liked_by_users} on the forum. Folds the remaining active rows into their forums,
+     * recounts {@code like_count} from the set and drops the collection, so this runs once.
+     * Both updates are idempotent, so an interrupted run is simply repeated on the next start.
+     * Comment likes always lived on the comment; their legacy rows carry nothing to migrate.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyForumLikes() {
+        if (!mongoTemplate.collectionExists(LEGACY_LIKES_COLLECTION)) {
+            return;
+        }
+        Map<String, Set<Long>> likersByForum = new HashMap<>();
+        Query activeForumLikes = new Query(Criteria.where("forum_id").ne(null).and("is_active").ne(false));
+        try (Stream<Document> likes = mongoTemplate.stream(activeForumLikes, Document.class, LEGACY_LIKES_COLLECTION)) {
+            likes.filter(like -> like.get("user_id") instanceof Number)
+                    .forEach(like -> likersByForum
+                            .computeIfAbsent(like.getString("forum_id"), forumId -> new LinkedHashSet<>())
+                            .add(((Number) like.get("user_id")).longValue()));
+        }
+
+        likersByForum.forEach((forumId, likers) -> {
+            Query forum = new Query(Criteria.where("forumId").is(forumId));
+            if (mongoTemplate.updateFirst(forum, new Update().addToSet("likedByUsers").each(likers.toArray()), Forum.class)
+                    .getMatchedCount() > 0) {
+                mongoTemplate.updateFirst(forum, AggregationUpdate.update()
+                        .set("like_count").toValue(ArrayOperators.Size.lengthOfArray("liked_by_users")), Forum.class);
+            }
+        });
+        mongoTemplate.dropCollection(LEGACY_LIKES_COLLECTION);
+        logger.info("Migrated legacy likes of {} forums into liked_by_users and dropped the likes collection",
+                likersByForum.size());
+    }
 }
@@ -44,6 +44,7 @@ public final class ResponseMessages {
     public static final String APPOINTMENTS_FETCHED = "All appointments retrieved successfully.";
     public static final String APPOINTMENT_FETCHED = "Appointment retrieved successfully.";
     public static final String APPOINTMENT_RESCHEDULED = "Appointment rescheduled successfully.";
+    public static final String APPOINTMENT_RATED = "Appointment rated successfully.";
 
     // Forum
     public static final String FORUMS_FETCHED = "All forums retrieved successfully.";
@@ -52,6 +53,8 @@ public final class ResponseMessages {
     public static final String FORUM_UPDATED = "Forum updated successfully.";
     public static final String FORUM_DELETED = "Forum deleted successfully.";
     public static final String FEATURED_FORUMS_FETCHED = "Top featured forums fetched successfully";
+    public static final String FORUM_SEARCH_INDEX_STATS_FETCHED = "Forum search index statistics retrieved successfully.";
+    public static final String FORUM_SEARCH_INDEX_REBUILT = "Forum search index rebuilt successfully.";
 
     // Comment
     public static final String COMMENT_CREATED = "Comment has been added successfully.";
@@ -68,8 +71,10 @@ public final class ResponseMessages {
 
     // Specialist
     public static final String ALL_SPECIALISTS_FETCHED = "All Specialists retrieved successfully.";
+    public static final String SPECIALISTS_SEARCHED = "Specialists matching the filters retrieved successfully.";
     public static final String SPECIALIST_FETCHED = "Specialist retrieved successfully.";
     public static final String SPECIALIST_UPDATED = "Specialist updated successfully.";
     public static final String SPECIALIST_DASHBOARD_FETCHED = "Specialist dashboard retrieved successfully.";
+    public static final String SPECIALIST_SLOTS_FETCHED = "Specialist free slots retrieved successfully.";
 }
 
@@ -3,6 +3,8 @@ package com.spring.petcareConnect.controllers;
 import com.spring.petcareConnect.config.AppConstants;
 import com.spring.petcareConnect.config.ResponseMessages;
 import com.spring.petcareConnect.dtos.CustomApiResponse;
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
+import com.spring.petcareConnect.dtos.appointment.request.AppointmentRatingRequestDto;
 import com.spring.petcareConnect.dtos.appointment.request.AppointmentRequestDto;
 import com.spring.petcareConnect.dtos.appointment.request.AppointmentRescheduleRequestDto;
 import com.spring.petcareConnect.dtos.appointment.request.AppointmentUpdateRequestDto;
@@ -55,6 +57,18 @@ public class AppointmentController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<CustomApiResponse<CursorPageResponseDto<AppointmentResponseDto>>> getAllAppointmentsForUserByCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_APPOINTMENTS_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder
+    ) {
+        CursorPageResponseDto<AppointmentResponseDto> page = appointmentService.getAllAppointmentsForUserByCursor(cursor, pageSize, sortBy, sortOrder);
+        CustomApiResponse<CursorPageResponseDto<AppointmentResponseDto>> response = new CustomApiResponse<>(true, ResponseMessages.APPOINTMENTS_FETCHED, page);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @GetMapping("/{appointmentId}")
     public ResponseEntity<CustomApiResponse<AppointmentResponseDto>> getAppointmentOfUserById(@PathVariable Long appointmentId) {
         AppointmentResponseDto appointmentResponseDto = appointmentService.getAppointmentOfUserById(appointmentId);
@@ -68,4 +82,11 @@ public class AppointmentController {
         CustomApiResponse<AppointmentResponseDto> response = new CustomApiResponse<>(true, ResponseMessages.APPOINTMENT_RESCHEDULED, responseDto);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
+
+    @PatchMapping("/{appointmentId}/rating")
+    public ResponseEntity<CustomApiResponse<AppointmentResponseDto>> rateAppointment(@PathVariable Long appointmentId, @RequestBody @Valid AppointmentRatingRequestDto appointmentRatingRequestDto) {
+        AppointmentResponseDto responseDto = appointmentService.rateAppointment(appointmentId, appointmentRatingRequestDto);
+        CustomApiResponse<AppointmentResponseDto> response = new CustomApiResponse<>(true, ResponseMessages.APPOINTMENT_RATED, responseDto);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
 }
@@ -3,6 +3,7 @@ package com.spring.petcareConnect.controllers;
 import com.spring.petcareConnect.config.AppConstants;
 import com.spring.petcareConnect.config.ResponseMessages;
 import com.spring.petcareConnect.dtos.CustomApiResponse;
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
 import com.spring.petcareConnect.dtos.forum.request.CommentCreateRequestDto;
 import com.spring.petcareConnect.dtos.forum.request.CommentUpdateRequestDto;
 import com.spring.petcareConnect.dtos.forum.response.CommentListResponseDto;
@@ -53,6 +54,19 @@ public class CommentController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<CustomApiResponse<CursorPageResponseDto<CommentResponseDto>>> getCommentsByForumByCursor(
+            @PathVariable String forumId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_COMMENTS_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder
+    ) {
+        CursorPageResponseDto<CommentResponseDto> page = commentService.getCommentsByForumByCursor(forumId, cursor, pageSize, sortBy, sortOrder);
+        CustomApiResponse<CursorPageResponseDto<CommentResponseDto>> response = new CustomApiResponse<>(true, ResponseMessages.COMMENTS_FETCHED, page);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @DeleteMapping("/{commentId}")
     public ResponseEntity<CustomApiResponse<String>> deleteComment(@PathVariable String commentId) {
         commentService.deleteCommentForUser(commentId);
@@ -4,6 +4,7 @@ package com.spring.petcareConnect.controllers;
 import com.spring.petcareConnect.config.AppConstants;
 import com.spring.petcareConnect.config.ResponseMessages;
 import com.spring.petcareConnect.dtos.CustomApiResponse;
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
 import com.spring.petcareConnect.dtos.forum.request.ForumCreateRequestDto;
 import com.spring.petcareConnect.dtos.forum.request.ForumUpdateRequestDto;
 import com.spring.petcareConnect.dtos.forum.response.ForumListResponseDto;
@@ -52,6 +53,30 @@ public class ForumController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @GetMapping("my-forums/cursor")
+    public ResponseEntity<CustomApiResponse<CursorPageResponseDto<ForumResponseDto>>> getAllForumsOfUserByCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_FORUM_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder
+    ) {
+        CursorPageResponseDto<ForumResponseDto> page = forumService.getAllForumsOfUserByCursor(cursor, pageSize, sortBy, sortOrder);
+        CustomApiResponse<CursorPageResponseDto<ForumResponseDto>> response = new CustomApiResponse<>(true, ResponseMessages.FORUMS_FETCHED, page);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<CustomApiResponse<CursorPageResponseDto<ForumResponseDto>>> getAllForumsByCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_FORUM_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder
+    ) {
+        CursorPageResponseDto<ForumResponseDto> page = forumService.getAllForumsByCursor(cursor, pageSize, sortBy, sortOrder);
+        CustomApiResponse<CursorPageResponseDto<ForumResponseDto>> response = new CustomApiResponse<>(true, ResponseMessages.FORUMS_FETCHED, page);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @GetMapping("/{forumId}")
     public ResponseEntity<CustomApiResponse<ForumResponseDto>> getForumById(@PathVariable String forumId) {
         ForumResponseDto forumResponseDto = forumService.getForumById(forumId);
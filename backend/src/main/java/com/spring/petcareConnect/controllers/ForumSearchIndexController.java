@@ -0,0 +1,38 @@
+package com.spring.petcareConnect.controllers;
+
+import com.spring.petcareConnect.config.ResponseMessages;
+import com.spring.petcareConnect.dtos.CustomApiResponse;
+import com.spring.petcareConnect.dtos.forum.response.ForumSearchIndexStatsDto;
+import com.spring.petcareConnect.exceptions.APIException;
+import com.spring.petcareConnect.search.ForumSearchIndex;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/forums/search-index")
+public class ForumSearchIndexController {
+
+    private final ForumSearchIndex forumSearchIndex;
+
+    public ForumSearchIndexController(ForumSearchIndex forumSearchIndex) {
+        this.forumSearchIndex = forumSearchIndex;
+    }
+
+    @GetMapping
+    public ResponseEntity<CustomApiResponse<ForumSearchIndexStatsDto>> getSearchIndexStats() {
+        ForumSearchIndexStatsDto stats = forumSearchIndex.stats();
+        CustomApiResponse<ForumSearchIndexStatsDto> response = new CustomApiResponse<>(true, ResponseMessages.FORUM_SEARCH_INDEX_STATS_FETCHED, stats);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<CustomApiResponse<ForumSearchIndexStatsDto>> rebuildSearchIndex() {
+        if (!forumSearchIndex.isEnabled()) {
+            throw new APIException("Forum search index is disabled; set app.forum.search.mode=INDEX to enable it");
+        }
+        ForumSearchIndexStatsDto stats = forumSearchIndex.rebuild();
+        CustomApiResponse<ForumSearchIndexStatsDto> response = new CustomApiResponse<>(true, ResponseMessages.FORUM_SEARCH_INDEX_REBUILT, stats);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
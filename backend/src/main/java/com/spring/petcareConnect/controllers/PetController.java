@@ -3,6 +3,7 @@ package com.spring.petcareConnect.controllers;
 import com.spring.petcareConnect.config.AppConstants;
 import com.spring.petcareConnect.config.ResponseMessages;
 import com.spring.petcareConnect.dtos.CustomApiResponse;
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
 import com.spring.petcareConnect.dtos.pet.request.PetRequestDto;
 import com.spring.petcareConnect.dtos.pet.response.PetListResponseDto;
 import com.spring.petcareConnect.dtos.pet.response.PetResponseDto;
@@ -54,6 +55,18 @@ public class PetController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<CustomApiResponse<CursorPageResponseDto<PetResponseDto>>> getAllPetsForUserByCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PETS_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder
+    ) {
+        CursorPageResponseDto<PetResponseDto> page = petService.getAllPetsForUserByCursor(cursor, pageSize, sortBy, sortOrder);
+        CustomApiResponse<CursorPageResponseDto<PetResponseDto>> response = new CustomApiResponse<>(true, ResponseMessages.ALL_PETS_FETCHED, page);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @GetMapping("/{petId}")
     public ResponseEntity<CustomApiResponse<PetResponseDto>> getPetOfUserById(@PathVariable Long petId) {
             PetResponseDto petResponseDto = petService.getPetOfUserById(petId);
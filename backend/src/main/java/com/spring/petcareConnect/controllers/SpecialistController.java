@@ -2,18 +2,26 @@ package com.spring.petcareConnect.controllers;
 
 import com.spring.petcareConnect.config.AppConstants;
 import com.spring.petcareConnect.config.ResponseMessages;
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
 import com.spring.petcareConnect.dtos.CustomApiResponse;
+import com.spring.petcareConnect.dtos.ETagged;
 import com.spring.petcareConnect.dtos.specialist.request.AdminSpecialistUpdateRequest;
 import com.spring.petcareConnect.dtos.specialist.request.SpecialistProfileUpdateRequestDto;
+import com.spring.petcareConnect.dtos.specialist.request.SpecialistSearchRequestDto;
 import com.spring.petcareConnect.dtos.specialist.response.SpecialistDashboardDto;
 import com.spring.petcareConnect.dtos.specialist.response.SpecialistListResponseDto;
 import com.spring.petcareConnect.dtos.specialist.response.SpecialistResponseDto;
+import com.spring.petcareConnect.dtos.specialist.response.SpecialistSlotsResponseDto;
 import com.spring.petcareConnect.services.SpecialistService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/specialists")
 public class SpecialistController {
@@ -29,21 +37,44 @@ public class SpecialistController {
                                                                                        @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
                                                                                        @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_SPECIALISTS_BY, required = false) String sortBy,
                                                                                        @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder) {
-        SpecialistListResponseDto specialistListResponseDto = specialistService.getSpecialists(pageNumber, pageSize, sortBy, sortOrder);
-        CustomApiResponse<SpecialistListResponseDto> response = new CustomApiResponse<>(true, ResponseMessages.ALL_SPECIALISTS_FETCHED, specialistListResponseDto);
+        ETagged<SpecialistListResponseDto> specialists = specialistService.getSpecialists(pageNumber, pageSize, sortBy, sortOrder);
+        CustomApiResponse<SpecialistListResponseDto> response = new CustomApiResponse<>(true, ResponseMessages.ALL_SPECIALISTS_FETCHED, specialists.body());
+        return tagged(response, specialists.eTag());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CustomApiResponse<CursorPageResponseDto<SpecialistResponseDto>>> searchSpecialists(
+            @Valid @ModelAttribute SpecialistSearchRequestDto filters,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_SPECIALISTS_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder
+    ) {
+        CursorPageResponseDto<SpecialistResponseDto> page = specialistService.searchSpecialists(filters, cursor, pageSize, sortBy, sortOrder);
+        CustomApiResponse<CursorPageResponseDto<SpecialistResponseDto>> response = new CustomApiResponse<>(true, ResponseMessages.SPECIALISTS_SEARCHED, page);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     @GetMapping("/{specialistId}")
     public ResponseEntity<CustomApiResponse<SpecialistResponseDto>> getSpecialistById(@PathVariable Long specialistId) {
-        SpecialistResponseDto specialistResponseDto = specialistService.getSpecialistById(specialistId);
-        CustomApiResponse<SpecialistResponseDto> response = new CustomApiResponse<>(true, ResponseMessages.SPECIALIST_FETCHED, specialistResponseDto);
+        ETagged<SpecialistResponseDto> specialist = specialistService.getSpecialistById(specialistId);
+        CustomApiResponse<SpecialistResponseDto> response = new CustomApiResponse<>(true, ResponseMessages.SPECIALIST_FETCHED, specialist.body());
+        return tagged(response, specialist.eTag());
+    }
+
+    @GetMapping("/{specialistId}/slots")
+    public ResponseEntity<CustomApiResponse<SpecialistSlotsResponseDto>> getFreeSlots(@PathVariable Long specialistId,
+                                                                                      @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                                      @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        SpecialistSlotsResponseDto slots = specialistService.getFreeSlots(specialistId, from, to);
+        CustomApiResponse<SpecialistSlotsResponseDto> response = new CustomApiResponse<>(true, ResponseMessages.SPECIALIST_SLOTS_FETCHED, slots);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     @GetMapping("/dashboard")
-    public ResponseEntity<CustomApiResponse<SpecialistDashboardDto>> getSpecialistDashboard() {
-        SpecialistDashboardDto specialistDashboardDto = specialistService.getSpecialistDashboard();
+    public ResponseEntity<CustomApiResponse<SpecialistDashboardDto>> getSpecialistDashboard(@RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                                          @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        SpecialistDashboardDto specialistDashboardDto = specialistService.getSpecialistDashboard(from, to);
         CustomApiResponse<SpecialistDashboardDto> response = new CustomApiResponse<>(true, ResponseMessages.SPECIALIST_DASHBOARD_FETCHED, specialistDashboardDto);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
@@ -62,4 +93,17 @@ public class SpecialistController {
         CustomApiResponse<SpecialistResponseDto> response = new CustomApiResponse<>(true, ResponseMessages.SPECIALIST_UPDATED, specialistResponseDto);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
+
+    // Spring answers a matching If-None-Match with 304 Not Modified and no body; no-cache makes
+    // browsers revalidate every time instead of Spring Security's no-store discarding the copy
+    private static <T> ResponseEntity<T> tagged(T body, String eTag) {
+        if (eTag == null) {
+            return new ResponseEntity<>(body, HttpStatus.OK);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                // weak: the tag covers the data, not the envelope's timestamp
+                .eTag("W/\"" + eTag + "\"")
+                .body(body);
+    }
 }
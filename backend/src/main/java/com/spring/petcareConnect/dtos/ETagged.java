@@ -0,0 +1,8 @@
+package com.spring.petcareConnect.dtos;
+
+/**
+ * A response body with the entity tag of the data it was built from, or a null tag when the
+ * body is not versioned.
+ */
+public record ETagged<T>(T body, String eTag) {
+}
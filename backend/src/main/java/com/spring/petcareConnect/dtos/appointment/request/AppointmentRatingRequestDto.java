@@ -0,0 +1,18 @@
+package com.spring.petcareConnect.dtos.appointment.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentRatingRequestDto {
+    @NotNull(message = "Rating is required")
+    @Min(value = 1, message = "Rating must be at least 1 star")
+    @Max(value = 5, message = "Rating cannot exceed 5 stars")
+    private Integer rating;
+}
@@ -0,0 +1,11 @@
+package com.spring.petcareConnect.dtos.appointment.response;
+
+/**
+ * Result of the combined overlap check for a requested slot: whether the specialist,
+ * the pet, or both already hold an active appointment that intersects it.
+ */
+public record AppointmentConflictDto(
+        boolean specialistBusy,
+        boolean petBusy
+) {
+}
@@ -21,6 +21,7 @@ public class AppointmentResponseDto {
     private AppointmentStatus appointmentStatus;
     private String notes;
     private Integer duration;
+    private Integer rating;
     private Long petOwnerId;
     private String petOwnerFirstName;
     private String petOwnerLastName;
@@ -0,0 +1,12 @@
+package com.spring.petcareConnect.dtos.appointment.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * Start and end of an active booking, without the appointment row and its associations.
+ */
+public record BookedIntervalDto(
+        LocalDateTime start,
+        LocalDateTime end
+) {
+}
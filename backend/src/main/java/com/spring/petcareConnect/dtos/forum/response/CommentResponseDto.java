@@ -11,6 +11,8 @@ public class CommentResponseDto {
     private String commentId;
     private String forumId;
     private Long userId;
+    private String firstName;
+    private String lastName;
     private String text;
     private String parentId;
 
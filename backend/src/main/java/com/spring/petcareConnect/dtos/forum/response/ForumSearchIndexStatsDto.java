@@ -0,0 +1,22 @@
+package com.spring.petcareConnect.dtos.forum.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForumSearchIndexStatsDto {
+    private Boolean enabled;
+    private Boolean ready;
+    private Integer liveDocuments;
+    private Integer deadDocuments;
+    private Integer terms;
+    private Long postings;
+    private Long estimatedBytes;
+    private Long lastBuildMillis;
+    private Instant lastBuiltAt;
+}
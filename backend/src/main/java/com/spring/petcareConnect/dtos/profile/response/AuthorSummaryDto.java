@@ -0,0 +1,14 @@
+package com.spring.petcareConnect.dtos.profile.response;
+
+/**
+ * Read-only slice of a {@code User} row used to decorate list items (forums, comments, appointments)
+ * with author details without loading the full entity and its eager associations.
+ */
+public record AuthorSummaryDto(
+        Long userId,
+        String firstName,
+        String lastName,
+        String email,
+        String avatarUrl
+) {
+}
@@ -0,0 +1,47 @@
+package com.spring.petcareConnect.dtos.specialist.request;
+
+import com.spring.petcareConnect.enums.AvailableDay;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Filters of {@code GET /specialists/search}; every field is optional and the ones given must
+ * all match. Text filters match anywhere in the value, ignoring case.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpecialistSearchRequestDto {
+
+    @Size(min = 3, max = 100, message = "Specialization filter must be between 3 and 100 characters")
+    private String specialization;
+
+    @Size(min = 3, max = 200, message = "Location filter must be between 3 and 200 characters")
+    private String location;
+
+    @DecimalMin(value = "0.0", message = "Minimum fee cannot be negative")
+    private BigDecimal minFee;
+
+    @DecimalMin(value = "0.0", message = "Maximum fee cannot be negative")
+    private BigDecimal maxFee;
+
+    // available on at least one of these days
+    private Set<AvailableDay> days;
+
+    @Min(value = 0, message = "Minimum experience cannot be negative")
+    private Integer minExperience;
+
+    @DecimalMin(value = "0.0", message = "Minimum rating cannot be negative")
+    @DecimalMax(value = "5.0", message = "Minimum rating cannot exceed 5")
+    private Double minRating;
+
+    private Boolean available;
+}
@@ -0,0 +1,15 @@
+package com.spring.petcareConnect.dtos.specialist.response;
+
+import com.spring.petcareConnect.enums.AppointmentStatus;
+
+/**
+ * Appointment count and rating totals of a specialist for one status. Ratings are kept as
+ * sum and count so rows can be merged into an overall average.
+ */
+public record AppointmentStatusStatsDto(
+        AppointmentStatus status,
+        Long count,
+        Long ratingSum,
+        Long ratingCount
+) {
+}
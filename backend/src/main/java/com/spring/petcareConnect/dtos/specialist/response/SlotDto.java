@@ -0,0 +1,15 @@
+package com.spring.petcareConnect.dtos.specialist.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,4 +15,7 @@ public class SpecialistDashboardDto {
     private long completedAppointments;
     private long cancelledAppointments;
     private double averageRating;
+    // requested range, null when the dashboard covers all appointments
+    private LocalDate from;
+    private LocalDate to;
 }
@@ -0,0 +1,19 @@
+package com.spring.petcareConnect.dtos.specialist.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpecialistSlotsResponseDto {
+    private Long specialistId;
+    private Integer slotDuration;
+    private LocalDate from;
+    private LocalDate to;
+    private List<SlotDto> freeSlots;
+}
@@ -20,10 +20,19 @@ import java.time.LocalDateTime;
 @Table(name = "appointments", indexes = {
         @Index(name = "idx_appointment_pet_owner", columnList = "pet_owner"),
         @Index(name = "idx_appointment_specialist", columnList = "specialist_id"),
-        @Index(name = "idx_appointment_date", columnList = "appointment_date")
+        @Index(name = "idx_appointment_date", columnList = "appointment_date"),
+        @Index(name = "idx_appointment_owner_date", columnList = "pet_owner, appointment_date, appointment_id"),
+        @Index(name = "idx_appointment_owner_created", columnList = "pet_owner, created_at, appointment_id"),
+        @Index(name = "idx_appointment_specialist_slot", columnList = "specialist_id, appointment_status, appointment_date, end_time"),
+        @Index(name = "idx_appointment_pet_slot", columnList = "pet_id, appointment_status, appointment_date, end_time"),
+        @Index(name = "idx_appointment_reminder_due", columnList = "reminder_due_at")
 })
 public class Appointment {
 
+    public static final int MAX_DURATION_MINUTES = 480;
+    // optional GiST exclusion constraint on active bookings, see AppointmentRepository#addNoOverlapConstraint
+    public static final String NO_OVERLAP_CONSTRAINT = "appointments_specialist_no_overlap";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "appointment_id")
@@ -65,10 +74,21 @@ public class Appointment {
 
     @NotNull(message = "Duration is required")
     @Min(value = 15, message = "Duration must be at least 15 minutes")
-    @Max(value = 480, message = "Duration cannot exceed 480 minutes")
+    @Max(value = MAX_DURATION_MINUTES, message = "Duration cannot exceed 480 minutes")
     @Column(nullable = false)
     private Integer duration; // Duration in minutes (15-480 mins)
 
+    // appointmentDate + duration, stored so overlap checks can range-scan an index
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+    // next reminder to send, null when none is pending; set by AppointmentReminderQueue
+    @Column(name = "reminder_due_at")
+    private LocalDateTime reminderDueAt;
+
+    @Column(name = "reminder_sent_at")
+    private LocalDateTime reminderSentAt;
+
     @Size(max = 1000, message = "Feedback cannot exceed 1000 characters")
     @Column(length = 1000)
     private String feedback;
@@ -88,4 +108,10 @@ public class Appointment {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void syncEndTime() {
+        endTime = appointmentDate != null && duration != null ? appointmentDate.plusMinutes(duration) : null;
+    }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -15,6 +16,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Document(collection = "comments")
+@CompoundIndex(name = "idx_keyset_forum_created", def = "{'forum_id': 1, 'created_at': 1, '_id': 1}")
 @Getter
 @Setter
 @NoArgsConstructor
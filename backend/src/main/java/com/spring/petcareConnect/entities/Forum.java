@@ -10,8 +10,10 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.time.Instant;
 import java.util.*;
@@ -27,7 +29,9 @@ import java.util.stream.Collectors;
 @CompoundIndexes({
         @CompoundIndex(name = "idx_user_published", def = "{'user_id': 1, 'published': 1}"),
         @CompoundIndex(name = "idx_published_date", def = "{'published': 1, 'created_at': -1}"),
-        @CompoundIndex(name = "idx_tags", def = "{'tags': 1}")
+        @CompoundIndex(name = "idx_tags", def = "{'tags': 1}"),
+        @CompoundIndex(name = "idx_keyset_created", def = "{'created_at': -1, '_id': -1}"),
+        @CompoundIndex(name = "idx_keyset_user_created", def = "{'user_id': 1, 'created_at': -1, '_id': -1}")
 })
 public class Forum {
     @EqualsAndHashCode.Include
@@ -43,16 +47,26 @@ public class Forum {
     @NotBlank(message = "Title is required")
     @Size(min = 5, max = 200, message = "Title must be between 5 and 200 characters")
     @Indexed
+    @TextIndexed(weight = 10)
     private String title;
 
     @NotBlank(message = "Content is required")
     @Size(min = 20, max = 5000, message = "Content must be between 20 and 5000 characters")
+    @TextIndexed
     private String content;
 
     @Size(min = 1, max = 10, message = "You must provide between 1 and 10 tags")
     @Field("tags")
+    @TextIndexed(weight = 5)
     private Set<String> tags = new HashSet<>();
 
+    /**
+     * Relevance of the last text search; populated only by text queries, never persisted
+     */
+    @TextScore
+    @JsonIgnore
+    private Float score;
+
     @Field("published")
     private Boolean published = true;
 
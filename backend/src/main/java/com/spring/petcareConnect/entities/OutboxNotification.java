@@ -0,0 +1,76 @@
+package com.spring.petcareConnect.entities;
+
+import com.spring.petcareConnect.enums.EmailType;
+import com.spring.petcareConnect.enums.NotificationChannel;
+import com.spring.petcareConnect.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification written in the same transaction as the change it announces and delivered
+ * afterwards by NotificationDispatcher. Emails store the recipient user and the email type and
+ * are rendered at send time; SMS store the final recipient and text. Appointment notifications
+ * also carry the appointment, which is what NotificationOutbox coalesces them on.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_notification_outbox_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_notification_outbox_user", columnList = "user_id, status")
+})
+public class OutboxNotification {
+
+    public static final int MAX_ERROR_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "notification_id")
+    private Long notificationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", nullable = false, length = 10)
+    private NotificationChannel channel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "email_type", length = 30)
+    private EmailType emailType;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "appointment_id")
+    private Long appointmentId;
+
+    @Column(name = "recipient", length = 32)
+    private String recipient;
+
+    @Column(name = "body", length = 1600)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 @Entity
 @EntityListeners(PetEntityListener.class)
 @Table(name = "pets", indexes = {
-        @Index(name = "idx_pet_owner", columnList = "pet_owner")
+        @Index(name = "idx_pet_owner", columnList = "pet_owner"),
+        @Index(name = "idx_pet_owner_created", columnList = "pet_owner, created_at, pet_id")
 })
 public class Pet {
     @Id
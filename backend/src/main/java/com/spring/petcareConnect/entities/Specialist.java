@@ -7,6 +7,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -24,7 +25,12 @@ import java.util.Set;
 @EqualsAndHashCode(exclude = {"appointments"})
 @Entity
 @Table(name = "specialists", indexes = {
-        @Index(name = "idx_specialist_user", columnList = "user_id", unique = true)
+        @Index(name = "idx_specialist_user", columnList = "user_id", unique = true),
+        // GET /specialists/search: each range filter, and the default keyset order, behind the availability flag
+        @Index(name = "idx_specialist_available_created", columnList = "available, created_at, specialist_id"),
+        @Index(name = "idx_specialist_available_fee", columnList = "available, consultation_fee, specialist_id"),
+        @Index(name = "idx_specialist_available_experience", columnList = "available, experience_years, specialist_id"),
+        @Index(name = "idx_specialist_available_rating", columnList = "available, rating, specialist_id")
 })
 public class Specialist {
     @Id
@@ -67,8 +73,11 @@ public class Specialist {
     @Column(name = "working_hours_end")
     private LocalTime workingHoursEnd;
 
-    @ElementCollection(targetClass = AvailableDay.class, fetch = FetchType.EAGER)
-    @CollectionTable(name = "specialist_days_available", joinColumns = @JoinColumn(name = "specialist_id"))
+    // a page of specialists (at most 100) loads its days in one statement
+    @ElementCollection(targetClass = AvailableDay.class, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @CollectionTable(name = "specialist_days_available", joinColumns = @JoinColumn(name = "specialist_id"),
+            indexes = @Index(name = "idx_specialist_days_day", columnList = "day_of_week, specialist_id"))
     @Column(name = "day_of_week", nullable = false)
     @Enumerated(EnumType.STRING)
     private Set<AvailableDay> daysAvailable;
@@ -0,0 +1,63 @@
+package com.spring.petcareConnect.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rollup of a specialist's appointments, kept in step by AppointmentServiceImpl through
+ * delta upserts and recomputed nightly by the reconciliation job, which also creates the row of
+ * any specialist still missing one. Ranked specialist listings read it through the
+ * (metric, specialist_id) indexes.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Entity
+@Table(name = "specialist_stats", indexes = {
+        @Index(name = "idx_specialist_stats_rating", columnList = "average_rating, specialist_id"),
+        @Index(name = "idx_specialist_stats_popularity", columnList = "total_count, specialist_id")
+})
+public class SpecialistStats {
+    @Id
+    @Column(name = "specialist_id")
+    private Long specialistId;
+
+    @ToString.Exclude
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "specialist_id")
+    private Specialist specialist;
+
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+
+    // SCHEDULED or RESCHEDULED
+    @Column(name = "upcoming_count", nullable = false)
+    private long upcomingCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    // rating_sum / rating_count, stored so it can be indexed; 0 without ratings
+    @Column(name = "average_rating", nullable = false)
+    private double averageRating;
+
+    @Column(name = "next_free_slot")
+    private LocalDateTime nextFreeSlot;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -8,6 +8,8 @@ import com.spring.petcareConnect.listeners.UserEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -108,7 +110,9 @@ public class User {
 
     @Getter
     @Setter
-    @ManyToMany(fetch = FetchType.EAGER)
+    // loaded with the user only by the lookups that build credentials (see UserRepository)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JoinTable(name = "user_role", joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles = new HashSet<>();
 
@@ -121,6 +125,12 @@ public class User {
     @Column(name = "account_locked", nullable = false)
     private boolean accountLocked = false;
 
+    // Bumped on role/lock changes so cached principals and issued tokens can be rejected
+    @Column(name = "security_version", nullable = false)
+    @ColumnDefault("0")
+    @JsonIgnore
+    private long securityVersion = 0L;
+
     @ToString.Exclude
     @OneToMany(mappedBy = "petOwner", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JsonManagedReference
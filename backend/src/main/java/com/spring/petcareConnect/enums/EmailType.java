@@ -7,5 +7,7 @@ public enum EmailType {
         APPOINTMENT_UPDATED,
         APPOINTMENT_RESCHEDULED,
         APPOINTMENT_CANCELLED,
-        APPOINTMENT_REMINDER
+        APPOINTMENT_REMINDER,
+        // several appointment notifications to one user, sent as one
+        APPOINTMENT_DIGEST
 }
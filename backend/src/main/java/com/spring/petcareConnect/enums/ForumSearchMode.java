@@ -0,0 +1,13 @@
+package com.spring.petcareConnect.enums;
+
+/**
+ * Backend used by forum search, selected with {@code app.forum.search.mode}.
+ */
+public enum ForumSearchMode {
+        // case-insensitive regex over title/content; no index support
+        REGEX,
+        // weighted Mongo text index on title/content/tags, ordered by relevance
+        TEXT,
+        // in-process inverted index (ForumSearchIndex); documents fetched by id
+        INDEX
+}
@@ -0,0 +1,6 @@
+package com.spring.petcareConnect.enums;
+
+public enum NotificationChannel {
+    EMAIL,
+    SMS
+}
@@ -0,0 +1,12 @@
+package com.spring.petcareConnect.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    // claimed by a dispatcher until next_attempt_at (the lease) passes
+    SENDING,
+    SENT,
+    // folded into a later notification for the same appointment before it went out
+    SUPERSEDED,
+    // gave up after app.notifications.outbox.max-attempts, kept for inspection
+    DEAD
+}
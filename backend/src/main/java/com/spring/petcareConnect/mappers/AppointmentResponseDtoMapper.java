@@ -0,0 +1,58 @@
+package com.spring.petcareConnect.mappers;
+
+import com.spring.petcareConnect.dtos.appointment.response.AppointmentResponseDto;
+import com.spring.petcareConnect.entities.Appointment;
+import com.spring.petcareConnect.entities.Pet;
+import com.spring.petcareConnect.entities.User;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AppointmentResponseDtoMapper implements DtoMapper<Appointment, AppointmentResponseDto> {
+
+    @Override
+    public Class<Appointment> sourceType() {
+        return Appointment.class;
+    }
+
+    @Override
+    public Class<AppointmentResponseDto> targetType() {
+        return AppointmentResponseDto.class;
+    }
+
+    /**
+     * Association ids are read straight from the proxies. Specialist names are always set by
+     * AppointmentServiceImpl, and owner names are only copied when the owner is already loaded,
+     * so mapping never triggers a lazy load of the specialist or owner.
+     */
+    @Override
+    public AppointmentResponseDto map(Appointment appointment) {
+        AppointmentResponseDto dto = new AppointmentResponseDto();
+        dto.setAppointmentId(appointment.getAppointmentId());
+        dto.setAppointmentDate(appointment.getAppointmentDate());
+        dto.setAppointmentStatus(appointment.getAppointmentStatus());
+        dto.setNotes(appointment.getNotes());
+        dto.setDuration(appointment.getDuration());
+        dto.setRating(appointment.getRating());
+
+        Pet pet = appointment.getPet();
+        if (pet != null) {
+            dto.setPetId(pet.getPetId());
+            dto.setPetName(pet.getPetName());
+        }
+
+        if (appointment.getSpecialist() != null) {
+            dto.setSpecialistId(appointment.getSpecialist().getSpecialistId());
+        }
+
+        User owner = appointment.getPetOwner();
+        if (owner != null) {
+            dto.setPetOwnerId(owner.getUserId());
+            if (Hibernate.isInitialized(owner)) {
+                dto.setPetOwnerFirstName(owner.getFirstName());
+                dto.setPetOwnerLastName(owner.getLastName());
+            }
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,36 @@
+package com.spring.petcareConnect.mappers;
+
+import com.spring.petcareConnect.dtos.forum.response.CommentResponseDto;
+import com.spring.petcareConnect.entities.Comment;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CommentResponseDtoMapper implements DtoMapper<Comment, CommentResponseDto> {
+
+    @Override
+    public Class<Comment> sourceType() {
+        return Comment.class;
+    }
+
+    @Override
+    public Class<CommentResponseDto> targetType() {
+        return CommentResponseDto.class;
+    }
+
+    // Author fields are filled in by CommentServiceImpl
+    @Override
+    public CommentResponseDto map(Comment comment) {
+        CommentResponseDto dto = new CommentResponseDto();
+        dto.setCommentId(comment.getCommentId());
+        dto.setForumId(comment.getForumId());
+        dto.setUserId(comment.getUserId());
+        dto.setText(comment.getText());
+        dto.setParentId(comment.getParentId());
+        dto.setChildCount(comment.getChildCount());
+        dto.setLikeCount(comment.getLikeCount());
+        dto.setIsEdited(comment.getIsEdited());
+        dto.setCreatedAt(comment.getCreatedAt());
+        dto.setUpdatedAt(comment.getUpdatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,15 @@
+package com.spring.petcareConnect.mappers;
+
+/**
+ * Hand-written, reflection-free mapping from one entity type to one DTO type.
+ * Implementations are registered as beans and picked up by
+ * {@link com.spring.petcareConnect.services.ServiceMappingSupport} at startup.
+ */
+public interface DtoMapper<S, D> {
+
+    Class<S> sourceType();
+
+    Class<D> targetType();
+
+    D map(S source);
+}
@@ -0,0 +1,45 @@
+package com.spring.petcareConnect.mappers;
+
+import com.spring.petcareConnect.dtos.forum.response.ForumResponseDto;
+import com.spring.petcareConnect.entities.Forum;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+
+@Component
+public class ForumResponseDtoMapper implements DtoMapper<Forum, ForumResponseDto> {
+
+    @Override
+    public Class<Forum> sourceType() {
+        return Forum.class;
+    }
+
+    @Override
+    public Class<ForumResponseDto> targetType() {
+        return ForumResponseDto.class;
+    }
+
+    // Author fields and likedByCurrentUser are filled in by ForumServiceImpl
+    @Override
+    public ForumResponseDto map(Forum forum) {
+        ForumResponseDto dto = new ForumResponseDto();
+        dto.setForumId(forum.getForumId());
+        dto.setUserId(forum.getUserId());
+        dto.setTitle(forum.getTitle());
+        dto.setContent(forum.getContent());
+        dto.setTags(forum.getTags() != null ? new HashSet<>(forum.getTags()) : null);
+        dto.setPublished(forum.getPublished());
+        dto.setIsDeleted(forum.getIsDeleted());
+        dto.setDeletionReason(forum.getDeletionReason());
+        dto.setCommentCount(forum.getCommentCount());
+        dto.setLikeCount(forum.getLikeCount());
+        dto.setIsPinned(forum.getIsPinned());
+        dto.setIsClosed(forum.getIsClosed());
+        dto.setCategory(forum.getCategory());
+        dto.setViewCount(forum.getViewCount());
+        dto.setIsLocked(forum.getIsLocked());
+        dto.setVisible(forum.isVisible());
+        dto.setIsFeatured(forum.getIsFeatured());
+        return dto;
+    }
+}
@@ -0,0 +1,51 @@
+package com.spring.petcareConnect.mappers;
+
+import com.spring.petcareConnect.dtos.pet.response.BreedResponseDto;
+import com.spring.petcareConnect.dtos.pet.response.PetResponseDto;
+import com.spring.petcareConnect.dtos.pet.response.SpeciesResponseDto;
+import com.spring.petcareConnect.entities.Breed;
+import com.spring.petcareConnect.entities.Pet;
+import com.spring.petcareConnect.entities.Species;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PetResponseDtoMapper implements DtoMapper<Pet, PetResponseDto> {
+
+    @Override
+    public Class<Pet> sourceType() {
+        return Pet.class;
+    }
+
+    @Override
+    public Class<PetResponseDto> targetType() {
+        return PetResponseDto.class;
+    }
+
+    @Override
+    public PetResponseDto map(Pet pet) {
+        PetResponseDto dto = new PetResponseDto();
+        dto.setPetId(pet.getPetId());
+        dto.setPetName(pet.getPetName());
+        dto.setAge(pet.getAge());
+        dto.setWeight(pet.getWeight());
+        dto.setAvatarUrl(pet.getAvatarUrl());
+        dto.setAvatarPublicId(pet.getAvatarPublicId());
+        dto.setGender(pet.getGender());
+        dto.setBreed(mapBreed(pet.getBreed()));
+        return dto;
+    }
+
+    private BreedResponseDto mapBreed(Breed breed) {
+        if (breed == null) {
+            return null;
+        }
+        return new BreedResponseDto(breed.getBreedId(), breed.getBreedName(), mapSpecies(breed.getSpecies()));
+    }
+
+    private SpeciesResponseDto mapSpecies(Species species) {
+        if (species == null) {
+            return null;
+        }
+        return new SpeciesResponseDto(species.getSpeciesId(), species.getSpeciesName());
+    }
+}
@@ -0,0 +1,51 @@
+package com.spring.petcareConnect.mappers;
+
+import com.spring.petcareConnect.dtos.specialist.response.SpecialistResponseDto;
+import com.spring.petcareConnect.entities.Specialist;
+import com.spring.petcareConnect.enums.AvailableDay;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@Component
+public class SpecialistResponseDtoMapper implements DtoMapper<Specialist, SpecialistResponseDto> {
+
+    @Override
+    public Class<Specialist> sourceType() {
+        return Specialist.class;
+    }
+
+    @Override
+    public Class<SpecialistResponseDto> targetType() {
+        return SpecialistResponseDto.class;
+    }
+
+    @Override
+    public SpecialistResponseDto map(Specialist specialist) {
+        SpecialistResponseDto dto = new SpecialistResponseDto();
+        dto.setSpecialistId(specialist.getSpecialistId());
+        dto.setUserId(specialist.getUser() != null ? specialist.getUser().getUserId() : null);
+        dto.setFirstName(specialist.getUser() != null ? specialist.getUser().getFirstName() : null);
+        dto.setLastName(specialist.getUser() != null ? specialist.getUser().getLastName() : null);
+        dto.setAbout(specialist.getAbout());
+        dto.setAvailable(specialist.isAvailable());
+        dto.setSlotDuration(specialist.getSlotDuration());
+        dto.setSpecialization(specialist.getSpecialization());
+        dto.setExperienceYears(specialist.getExperienceYears());
+        dto.setRating(specialist.getRating());
+        dto.setConsultationFee(specialist.getConsultationFee());
+        dto.setWorkingHoursStart(specialist.getWorkingHoursStart());
+        dto.setWorkingHoursEnd(specialist.getWorkingHoursEnd());
+        // copied so the lazy collection is loaded here, batched with the rest of the page,
+        // and into an EnumSet so the days always come out in week order
+        dto.setDaysAvailable(specialist.getDaysAvailable() != null ? copyOf(specialist.getDaysAvailable()) : null);
+        dto.setLocation(specialist.getLocation());
+        dto.setVerified(specialist.getUser() != null && specialist.getUser().isVerified());
+        return dto;
+    }
+
+    private static Set<AvailableDay> copyOf(Set<AvailableDay> days) {
+        return days.isEmpty() ? EnumSet.noneOf(AvailableDay.class) : EnumSet.copyOf(days);
+    }
+}
@@ -0,0 +1,14 @@
+package com.spring.petcareConnect.notifications;
+
+import java.util.Map;
+
+/**
+ * Outcome of a batch send: how many messages the SMTP server accepted and, keyed by their index
+ * in the request list, the ones it did not.
+ */
+public record EmailBatchResult(int sent, Map<Integer, Exception> failures) {
+
+    public boolean failed(int index) {
+        return failures.containsKey(index);
+    }
+}
@@ -0,0 +1,8 @@
+package com.spring.petcareConnect.notifications;
+
+import com.spring.petcareConnect.entities.User;
+import com.spring.petcareConnect.enums.EmailType;
+
+/** One recipient/template pair of a batch send. */
+public record EmailRequest(User user, EmailType type) {
+}
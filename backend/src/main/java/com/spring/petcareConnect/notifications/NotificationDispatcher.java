@@ -0,0 +1,348 @@
+package com.spring.petcareConnect.notifications;
+
+import com.spring.petcareConnect.entities.OutboxNotification;
+import com.spring.petcareConnect.entities.User;
+import com.spring.petcareConnect.enums.EmailType;
+import com.spring.petcareConnect.enums.NotificationChannel;
+import com.spring.petcareConnect.enums.OutboxStatus;
+import com.spring.petcareConnect.repositories.jpa.OutboxNotificationRepository;
+import com.spring.petcareConnect.repositories.jpa.UserRepository;
+import com.spring.petcareConnect.services.EmailService;
+import com.spring.petcareConnect.sms.SmsDispatcher;
+import com.spring.petcareConnect.sms.SmsPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers the notification outbox.
+ * <p>
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED} and leased (status SENDING,
+ * {@code next_attempt_at} pushed forward), then committed, so other nodes skip it and a node that
+ * dies mid-batch only delays delivery until the lease runs out. A user's appointment
+ * notifications in the batch are merged into one email and one SMS. Sends run on virtual
+ * threads, at most {@code app.notifications.outbox.max-concurrency} SMS at a time plus the
+ * batch's emails as one EmailService batch, with no database connection held while SMTP or
+ * Twilio is slow. Results are written back in one transaction per batch: failures are retried
+ * with exponential backoff and dead-lettered (status DEAD, last error kept) after
+ * {@code max-attempts}.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+    // Twilio's limit for a (multi-segment) message body
+    static final int MAX_SMS_LENGTH = 1600;
+
+    private final OutboxNotificationRepository outboxNotificationRepository;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final SmsDispatcher smsDispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore sendPermits;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final int retentionDays;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Timer sendTimer;
+
+    public NotificationDispatcher(OutboxNotificationRepository outboxNotificationRepository,
+                                  UserRepository userRepository,
+                                  EmailService emailService,
+                                  SmsDispatcher smsDispatcher,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.notifications.outbox.batch-size:100}") int batchSize,
+                                  @Value("${app.notifications.outbox.max-batches-per-run:20}") int maxBatchesPerRun,
+                                  @Value("${app.notifications.outbox.max-concurrency:16}") int maxConcurrency,
+                                  @Value("${app.notifications.outbox.max-attempts:8}") int maxAttempts,
+                                  @Value("${app.notifications.outbox.initial-backoff-seconds:30}") long initialBackoffSeconds,
+                                  @Value("${app.notifications.outbox.max-backoff-seconds:3600}") long maxBackoffSeconds,
+                                  @Value("${app.notifications.outbox.lease-seconds:300}") long leaseSeconds,
+                                  @Value("${app.notifications.outbox.retention-days:7}") int retentionDays) {
+        this.outboxNotificationRepository = outboxNotificationRepository;
+        this.userRepository = userRepository;
+        this.emailService = emailService;
+        this.smsDispatcher = smsDispatcher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sendPermits = new Semaphore(maxConcurrency);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retentionDays = retentionDays;
+        this.sent = meterRegistry.counter("notifications.outbox.sent");
+        this.retried = meterRegistry.counter("notifications.outbox.retried");
+        this.deadLettered = meterRegistry.counter("notifications.outbox.dead");
+        this.sendTimer = meterRegistry.timer("notifications.outbox.send");
+        logger.info("Notification dispatcher initialised with batchSize={} maxConcurrency={} maxAttempts={}",
+                batchSize, maxConcurrency, maxAttempts);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.outbox.poll-interval-ms:1000}")
+    public void drain() {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Delivery> claimed = claimBatch();
+            if (claimed.isEmpty()) {
+                return;
+            }
+            List<Outcome> outcomes = deliverAll(claimed);
+            transactionTemplate.executeWithoutResult(status -> record(outcomes));
+            if (claimed.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.notifications.outbox.purge-cron:0 0 4 * * *}")
+    public void purgeFinished() {
+        int purged = outboxNotificationRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(retentionDays));
+        logger.info("Purged {} sent, superseded or dead notifications older than {} days", purged, retentionDays);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.close();
+    }
+
+    /** Delay before the given (1-based) retry: initial backoff doubled per attempt, capped. */
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private List<Delivery> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = outboxNotificationRepository.claimDue(now, batchSize);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            List<OutboxNotification> notifications = new ArrayList<>(outboxNotificationRepository.findAllById(ids));
+            notifications.sort(Comparator.comparing(OutboxNotification::getNotificationId));
+            List<Long> userIds = notifications.stream()
+                    .filter(notification -> notification.getChannel() == NotificationChannel.EMAIL)
+                    .map(OutboxNotification::getUserId).distinct().toList();
+            Map<Long, User> users = userIds.isEmpty() ? Map.of() : userRepository.findAllById(userIds).stream()
+                    .collect(Collectors.toMap(User::getUserId, Function.identity()));
+
+            for (OutboxNotification notification : notifications) {
+                notification.setStatus(OutboxStatus.SENDING);
+                notification.setNextAttemptAt(now.plus(lease));
+            }
+            return digest(notifications, users);
+        });
+    }
+
+    /**
+     * Turns claimed notifications into messages: a user's appointment emails become one email
+     * (a digest when their types differ) and their appointment SMS to the same number one text,
+     * split only where it would exceed {@link #MAX_SMS_LENGTH}. Everything else goes out as is.
+     */
+    static List<Delivery> digest(List<OutboxNotification> notifications, Map<Long, User> users) {
+        List<Delivery> deliveries = new ArrayList<>();
+        Map<Long, List<OutboxNotification>> emailsByUser = new LinkedHashMap<>();
+        Map<String, List<OutboxNotification>> smsByRecipient = new LinkedHashMap<>();
+        for (OutboxNotification notification : notifications) {
+            if (notification.getAppointmentId() == null) {
+                deliveries.add(Delivery.of(List.of(notification), users.get(notification.getUserId()),
+                        notification.getEmailType(), notification.getBody()));
+            } else if (notification.getChannel() == NotificationChannel.EMAIL) {
+                emailsByUser.computeIfAbsent(notification.getUserId(), id -> new ArrayList<>()).add(notification);
+            } else {
+                smsByRecipient.computeIfAbsent(notification.getUserId() + ":" + notification.getRecipient(),
+                        key -> new ArrayList<>()).add(notification);
+            }
+        }
+
+        emailsByUser.forEach((userId, group) -> {
+            List<EmailType> types = group.stream().map(OutboxNotification::getEmailType).distinct().toList();
+            EmailType type = types.size() == 1 ? types.getFirst() : EmailType.APPOINTMENT_DIGEST;
+            deliveries.add(Delivery.of(group, users.get(userId), type, null));
+        });
+
+        for (List<OutboxNotification> group : smsByRecipient.values()) {
+            List<OutboxNotification> part = new ArrayList<>();
+            StringBuilder text = new StringBuilder();
+            for (OutboxNotification notification : group) {
+                if (!part.isEmpty() && text.length() + 1 + notification.getBody().length() > MAX_SMS_LENGTH) {
+                    deliveries.add(Delivery.of(part, null, null, text.toString()));
+                    part = new ArrayList<>();
+                    text.setLength(0);
+                }
+                if (!part.isEmpty()) {
+                    text.append('\n');
+                }
+                part.add(notification);
+                text.append(notification.getBody());
+            }
+            deliveries.add(Delivery.of(part, null, null, text.toString()));
+        }
+        return deliveries;
+    }
+
+    private List<Outcome> deliverAll(List<Delivery> deliveries) {
+        List<Delivery> emails = new ArrayList<>();
+        List<Callable<List<Outcome>>> tasks = new ArrayList<>();
+        for (Delivery delivery : deliveries) {
+            if (delivery.channel() == NotificationChannel.EMAIL && delivery.user() != null) {
+                emails.add(delivery);
+            } else {
+                tasks.add(() -> List.of(deliver(delivery)));
+            }
+        }
+        if (!emails.isEmpty()) {
+            tasks.add(() -> deliverEmails(emails));
+        }
+
+        List<Outcome> outcomes = new ArrayList<>(deliveries.size());
+        try {
+            for (Future<List<Outcome>> future : executor.invokeAll(tasks)) {
+                outcomes.addAll(future.get());
+            }
+        } catch (InterruptedException ex) {
+            // unrecorded deliveries are picked up again once their lease expires
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Notification delivery task failed", ex.getCause());
+        }
+        return outcomes;
+    }
+
+    // one batch call, so the email service can reuse SMTP connections across messages
+    private List<Outcome> deliverEmails(List<Delivery> emails) {
+        List<EmailRequest> requests = emails.stream()
+                .map(delivery -> new EmailRequest(delivery.user(), delivery.emailType()))
+                .toList();
+        EmailBatchResult result;
+        try {
+            result = emailService.sendEmails(requests);
+        } catch (RuntimeException ex) {
+            return emails.stream().map(delivery -> new Outcome(delivery.notifications(), ex)).toList();
+        }
+        List<Outcome> outcomes = new ArrayList<>(emails.size());
+        for (int i = 0; i < emails.size(); i++) {
+            outcomes.add(new Outcome(emails.get(i).notifications(), result.failures().get(i)));
+        }
+        return outcomes;
+    }
+
+    private Outcome deliver(Delivery delivery) {
+        try {
+            sendPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new Outcome(delivery.notifications(), ex);
+        }
+        try {
+            sendTimer.record(() -> send(delivery));
+            return new Outcome(delivery.notifications(), null);
+        } catch (RuntimeException ex) {
+            return new Outcome(delivery.notifications(), ex);
+        } finally {
+            sendPermits.release();
+        }
+    }
+
+    private void send(Delivery delivery) {
+        switch (delivery.channel()) {
+            case EMAIL -> {
+                if (delivery.user() == null) {
+                    throw new IllegalStateException("User " + delivery.notifications().getFirst().getUserId()
+                            + " no longer exists");
+                }
+                emailService.sendEmail(delivery.user(), delivery.emailType());
+            }
+            case SMS -> smsDispatcher.submit(SmsPriority.NOTIFICATION, delivery.recipient(), delivery.body()).join();
+        }
+    }
+
+    private void record(List<Outcome> outcomes) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> delivered = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            if (outcome.error() == null) {
+                outcome.notifications().forEach(notification -> delivered.add(notification.getNotificationId()));
+                continue;
+            }
+            String error = describe(outcome.error());
+            for (OutboxNotification notification : outcome.notifications()) {
+                recordFailure(notification, error, now);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            outboxNotificationRepository.markSent(delivered, now);
+            sent.increment(delivered.size());
+        }
+    }
+
+    private void recordFailure(OutboxNotification notification, String error, LocalDateTime now) {
+        int attempts = notification.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            deadLettered.increment();
+            logger.error("Giving up on {} notificationId={} after {} attempts: {}",
+                    notification.getChannel(), notification.getNotificationId(), attempts, error);
+            outboxNotificationRepository.markFailed(notification.getNotificationId(), OutboxStatus.DEAD,
+                    attempts, now, error);
+        } else {
+            retried.increment();
+            logger.warn("Failed to send {} notificationId={} (attempt {}), retrying: {}",
+                    notification.getChannel(), notification.getNotificationId(), attempts, error);
+            outboxNotificationRepository.markFailed(notification.getNotificationId(), OutboxStatus.PENDING,
+                    attempts, now.plus(backoff(attempts)), error);
+        }
+    }
+
+    private static String describe(Exception error) {
+        String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(error).getMessage());
+        return message.length() > OutboxNotification.MAX_ERROR_LENGTH
+                ? message.substring(0, OutboxNotification.MAX_ERROR_LENGTH) : message;
+    }
+
+    record Delivery(List<OutboxNotification> notifications, NotificationChannel channel, User user,
+                    EmailType emailType, String recipient, String body) {
+
+        static Delivery of(List<OutboxNotification> notifications, User user, EmailType emailType, String body) {
+            OutboxNotification first = notifications.getFirst();
+            return new Delivery(notifications, first.getChannel(), user, emailType, first.getRecipient(), body);
+        }
+    }
+
+    private record Outcome(List<OutboxNotification> notifications, Exception error) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.spring.petcareConnect.notifications;
+
+import com.spring.petcareConnect.entities.OutboxNotification;
+import com.spring.petcareConnect.entities.User;
+import com.spring.petcareConnect.enums.EmailType;
+import com.spring.petcareConnect.enums.NotificationChannel;
+import com.spring.petcareConnect.enums.OutboxStatus;
+import com.spring.petcareConnect.repositories.jpa.OutboxNotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Queues notifications in {@code notification_outbox}. Called inside the caller's transaction,
+ * so a notification is stored exactly when the change it announces commits; delivery happens
+ * later in NotificationDispatcher, off the request thread and without holding its connection.
+ * <p>
+ * Appointment changes are held for {@code app.notifications.digest.window-seconds}. A change to
+ * an appointment that still has a held notification replaces it (created then rescheduled is
+ * one "scheduled for" message, created then cancelled is nothing), and all held notifications of
+ * a user fall due together, so the dispatcher can send them as a single email and SMS.
+ */
+@Component
+public class NotificationOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutbox.class);
+
+    private final OutboxNotificationRepository outboxNotificationRepository;
+    private final Duration digestWindow;
+
+    public NotificationOutbox(OutboxNotificationRepository outboxNotificationRepository,
+                              @Value("${app.notifications.digest.window-seconds:120}") long digestWindowSeconds) {
+        this.outboxNotificationRepository = outboxNotificationRepository;
+        this.digestWindow = Duration.ofSeconds(Math.max(digestWindowSeconds, 0));
+    }
+
+    public void enqueueEmail(User user, EmailType type) {
+        OutboxNotification notification = newNotification(NotificationChannel.EMAIL, user.getUserId(), null,
+                LocalDateTime.now());
+        notification.setEmailType(type);
+        outboxNotificationRepository.save(notification);
+    }
+
+    /**
+     * Queues the email and SMS for a change to an appointment, folding it into the owner's held
+     * notifications for the same appointment. {@code smsBody} renders the text for the type that
+     * is finally sent.
+     */
+    public void enqueueAppointmentChange(User owner, Long appointmentId, EmailType event,
+                                        String smsRecipient, Function<EmailType, String> smsBody) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dueAt = now.plus(digestWindow);
+        EmailType type = event;
+        if (!digestWindow.isZero()) {
+            for (OutboxNotification held : outboxNotificationRepository.findHeldForUser(owner.getUserId(), now)) {
+                // the owner's digest closes when their first held notification falls due
+                if (held.getNextAttemptAt().isBefore(dueAt)) {
+                    dueAt = held.getNextAttemptAt();
+                }
+                if (appointmentId.equals(held.getAppointmentId())) {
+                    if (held.getChannel() == NotificationChannel.EMAIL) {
+                        type = coalesce(held.getEmailType(), event);
+                    }
+                    held.setStatus(OutboxStatus.SUPERSEDED);
+                }
+            }
+        }
+        if (type == null) {
+            logger.debug("Appointment {} notifications cancelled each other out", appointmentId);
+            return;
+        }
+        enqueueAppointment(owner, appointmentId, type, smsRecipient, smsBody.apply(type), dueAt);
+    }
+
+    /** Queues a reminder for immediate delivery; reminders are never held or superseded. */
+    public void enqueueAppointmentReminder(User owner, Long appointmentId, String smsRecipient, String smsBody) {
+        enqueueAppointment(owner, appointmentId, EmailType.APPOINTMENT_REMINDER, smsRecipient, smsBody,
+                LocalDateTime.now());
+    }
+
+    /**
+     * The notification left after {@code next} follows a still-held {@code previous} for the same
+     * appointment, or null when there is nothing left to tell.
+     */
+    static EmailType coalesce(EmailType previous, EmailType next) {
+        if (previous == null || previous == next) {
+            return next;
+        }
+        return switch (next) {
+            // the owner never heard about the booking
+            case APPOINTMENT_CANCELLED -> previous == EmailType.APPOINTMENT_CREATED ? null : next;
+            case APPOINTMENT_UPDATED -> previous == EmailType.APPOINTMENT_CREATED
+                    || previous == EmailType.APPOINTMENT_RESCHEDULED ? previous : next;
+            case APPOINTMENT_RESCHEDULED -> previous == EmailType.APPOINTMENT_CREATED ? previous : next;
+            default -> next;
+        };
+    }
+
+    private void enqueueAppointment(User owner, Long appointmentId, EmailType type,
+                                    String smsRecipient, String smsBody, LocalDateTime dueAt) {
+        OutboxNotification email = newNotification(NotificationChannel.EMAIL, owner.getUserId(), appointmentId, dueAt);
+        email.setEmailType(type);
+        outboxNotificationRepository.save(email);
+
+        if (smsRecipient == null || smsRecipient.isBlank()) {
+            logger.warn("No SMS recipient for appointment {}, skipping SMS", appointmentId);
+            return;
+        }
+        OutboxNotification sms = newNotification(NotificationChannel.SMS, owner.getUserId(), appointmentId, dueAt);
+        sms.setRecipient(smsRecipient);
+        sms.setBody(smsBody);
+        outboxNotificationRepository.save(sms);
+    }
+
+    private static OutboxNotification newNotification(NotificationChannel channel, Long userId, Long appointmentId,
+                                                      LocalDateTime dueAt) {
+        OutboxNotification notification = new OutboxNotification();
+        notification.setChannel(channel);
+        notification.setUserId(userId);
+        notification.setAppointmentId(appointmentId);
+        notification.setNextAttemptAt(dueAt);
+        return notification;
+    }
+}
@@ -0,0 +1,138 @@
+package com.spring.petcareConnect.reminders;
+
+import com.spring.petcareConnect.entities.Appointment;
+import com.spring.petcareConnect.enums.AppointmentStatus;
+import com.spring.petcareConnect.repositories.jpa.AppointmentRepository;
+import com.spring.petcareConnect.services.NotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Appointment reminders as a due-queue on the appointments table.
+ * <p>
+ * Every active appointment carries {@code reminder_due_at}: the next point at which one of the
+ * configured offsets before the appointment ({@code app.reminders.offsets-minutes}, e.g. 24h and
+ * 1h) is reached. Offsets already behind us when the appointment is booked are skipped.
+ * <p>
+ * Workers claim due rows with {@code FOR UPDATE SKIP LOCKED} in batches, load them with their
+ * owner, pet and specialist in one join fetch, queue the reminders in the notification outbox and
+ * move {@code reminder_due_at} on to the next offset in the same transaction. Several nodes can
+ * drain the queue side by side without queueing a reminder twice; delivery and its retries are
+ * left to NotificationDispatcher.
+ */
+@Component
+public class AppointmentReminderQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentReminderQueue.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    // descending, so due times come out ascending
+    private final long[] offsetsMinutes;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter queued;
+    private final Timer claimTimer;
+
+    public AppointmentReminderQueue(AppointmentRepository appointmentRepository,
+                                    NotificationService notificationService,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.reminders.offsets-minutes:1440,60}") long[] offsetsMinutes,
+                                    @Value("${app.reminders.batch-size:200}") int batchSize,
+                                    @Value("${app.reminders.max-batches-per-run:50}") int maxBatchesPerRun) {
+        this.appointmentRepository = appointmentRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.offsetsMinutes = Arrays.stream(offsetsMinutes).filter(offset -> offset > 0)
+                .boxed().sorted((a, b) -> Long.compare(b, a)).mapToLong(Long::longValue).toArray();
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.queued = meterRegistry.counter("reminders.queued");
+        this.claimTimer = meterRegistry.timer("reminders.claim");
+        logger.info("Reminder queue initialised with offsetsMinutes={} batchSize={} maxBatchesPerRun={}",
+                Arrays.toString(this.offsetsMinutes), batchSize, maxBatchesPerRun);
+    }
+
+    /**
+     * Sets the first reminder of a new or moved appointment; clears it once the appointment is
+     * no longer active.
+     */
+    public void schedule(Appointment appointment) {
+        boolean active = appointment.getAppointmentStatus() == AppointmentStatus.SCHEDULED
+                || appointment.getAppointmentStatus() == AppointmentStatus.RESCHEDULED;
+        appointment.setReminderDueAt(active ? nextDueAt(appointment.getAppointmentDate(), LocalDateTime.now()) : null);
+    }
+
+    /**
+     * Queues reminders for active appointments stored before reminders were tracked, one
+     * set-based update per offset (largest first, so each row gets its earliest future offset).
+     */
+    public int backfill() {
+        int queued = 0;
+        for (long offset : offsetsMinutes) {
+            queued += appointmentRepository.backfillReminderDueAt(offset);
+        }
+        return queued;
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminders.poll-interval-ms:30000}")
+    public void drain() {
+        int missed = appointmentRepository.clearMissedReminders(LocalDateTime.now());
+        if (missed > 0) {
+            logger.warn("Dropped {} reminders of appointments that started before they were sent", missed);
+        }
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int claimed = claimTimer.record(this::claimBatch);
+            total += claimed;
+            if (claimed < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            queued.increment(total);
+            logger.info("Queued {} appointment reminders", total);
+        }
+    }
+
+    LocalDateTime nextDueAt(LocalDateTime appointmentDate, LocalDateTime after) {
+        for (long offset : offsetsMinutes) {
+            LocalDateTime dueAt = appointmentDate.minusMinutes(offset);
+            if (dueAt.isAfter(after)) {
+                return dueAt;
+            }
+        }
+        return null;
+    }
+
+    private int claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = appointmentRepository.claimDueReminders(now, batchSize);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            List<Appointment> appointments = appointmentRepository.findWithParticipantsByIdIn(ids);
+            for (Appointment appointment : appointments) {
+                notificationService.sendReminder(appointment);
+                appointment.setReminderSentAt(now);
+                appointment.setReminderDueAt(nextDueAt(appointment.getAppointmentDate(), now));
+            }
+            return ids.size();
+        });
+    }
+}
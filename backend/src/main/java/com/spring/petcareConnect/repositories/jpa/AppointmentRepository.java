@@ -1,46 +1,172 @@
 package com.spring.petcareConnect.repositories.jpa;
 
+import com.spring.petcareConnect.dtos.appointment.response.AppointmentConflictDto;
+import com.spring.petcareConnect.dtos.appointment.response.BookedIntervalDto;
+import com.spring.petcareConnect.dtos.specialist.response.AppointmentStatusStatsDto;
 import com.spring.petcareConnect.entities.Appointment;
 import com.spring.petcareConnect.entities.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
-    // 1. Check if the SPECIALIST has an overlapping appointment
-    @Query("SELECT COUNT(a) > 0 FROM Appointment a WHERE a.specialist.specialistId = :specialistId " +
-            "AND a.appointmentStatus = 'SCHEDULED' " +
-            "AND :start < FUNCTION('TIMESTAMPADD', MINUTE, a.duration, a.appointmentDate) " +
-            "AND :end > a.appointmentDate")
-    boolean isSpecialistBusy(@Param("specialistId") Long specialistId,
-                             @Param("start") LocalDateTime start,
-                             @Param("end") LocalDateTime end);
-
-    // 2. Check if the PET has an overlapping appointment
-    @Query("SELECT COUNT(a) > 0 FROM Appointment a WHERE a.pet.petId = :petId " +
-            "AND a.appointmentStatus = 'SCHEDULED' " +
-            "AND :start < FUNCTION('TIMESTAMPADD', MINUTE, a.duration, a.appointmentDate) " +
-            "AND :end > a.appointmentDate")
-    boolean isPetBusy(@Param("petId") Long petId,
-                      @Param("start") LocalDateTime start,
-                      @Param("end") LocalDateTime end);
+    /**
+     * Checks the specialist and the pet for overlapping active (SCHEDULED or RESCHEDULED)
+     * appointments in one round trip. Both bounds are plain column ranges so the
+     * (specialist|pet, status, appointment_date, end_time) indexes are used: since no booking
+     * is longer than {@link Appointment#MAX_DURATION_MINUTES}, an overlapping one must start
+     * after {@code earliestStart} and before {@code end}, and must end after {@code start}.
+     */
+    @Query("SELECT new com.spring.petcareConnect.dtos.appointment.response.AppointmentConflictDto(" +
+            "COUNT(CASE WHEN a.specialist.specialistId = :specialistId THEN 1 END) > 0, " +
+            "COUNT(CASE WHEN a.pet.petId = :petId THEN 1 END) > 0) " +
+            "FROM Appointment a " +
+            "WHERE (a.specialist.specialistId = :specialistId OR a.pet.petId = :petId) " +
+            "AND a.appointmentStatus IN ('SCHEDULED', 'RESCHEDULED') " +
+            "AND a.appointmentDate > :earliestStart AND a.appointmentDate < :end " +
+            "AND a.endTime > :start " +
+            "AND a.appointmentId <> :excludeAppointmentId")
+    AppointmentConflictDto findConflicts(@Param("specialistId") Long specialistId,
+                                         @Param("petId") Long petId,
+                                         @Param("earliestStart") LocalDateTime earliestStart,
+                                         @Param("start") LocalDateTime start,
+                                         @Param("end") LocalDateTime end,
+                                         @Param("excludeAppointmentId") Long excludeAppointmentId);
 
+    default AppointmentConflictDto findConflicts(Long specialistId, Long petId, LocalDateTime start, LocalDateTime end,
+                                                 Long excludeAppointmentId) {
+        return findConflicts(specialistId, petId, start.minusMinutes(Appointment.MAX_DURATION_MINUTES), start, end,
+                excludeAppointmentId != null ? excludeAppointmentId : 0L);
+    }
+
+    /**
+     * Active bookings of a specialist intersecting {@code [from, to)}, ordered by start;
+     * bounded the same way as {@link #findConflicts} so it stays a range scan on the slot index.
+     */
+    @Query("SELECT new com.spring.petcareConnect.dtos.appointment.response.BookedIntervalDto(a.appointmentDate, a.endTime) " +
+            "FROM Appointment a " +
+            "WHERE a.specialist.specialistId = :specialistId " +
+            "AND a.appointmentStatus IN ('SCHEDULED', 'RESCHEDULED') " +
+            "AND a.appointmentDate > :earliestStart AND a.appointmentDate < :to " +
+            "AND a.endTime > :from " +
+            "ORDER BY a.appointmentDate")
+    List<BookedIntervalDto> findBookedIntervals(@Param("specialistId") Long specialistId,
+                                                @Param("earliestStart") LocalDateTime earliestStart,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+
+    default List<BookedIntervalDto> findBookedIntervals(Long specialistId, LocalDateTime from, LocalDateTime to) {
+        return findBookedIntervals(specialistId, from.minusMinutes(Appointment.MAX_DURATION_MINUTES), from, to);
+    }
+
+    /**
+     * Blocks until this transaction holds the booking lock of the specialist; Postgres releases
+     * it on commit or rollback. Bookings of other specialists are not affected.
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(:namespace, " +
+            "CAST(MOD(:specialistId, 2147483647) AS INTEGER))) AS booking_lock", nativeQuery = true)
+    long acquireSpecialistLock(@Param("namespace") int namespace, @Param("specialistId") long specialistId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "CREATE EXTENSION IF NOT EXISTS btree_gist", nativeQuery = true)
+    void createBtreeGistExtension();
+
+    // Lets Postgres reject overlapping active bookings of a specialist on insert/update
+    @Modifying
+    @Transactional
+    @Query(value = "DO $$ BEGIN " +
+            "IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = '" + Appointment.NO_OVERLAP_CONSTRAINT + "' " +
+            "AND conrelid = CAST('appointments' AS regclass)) THEN " +
+            "ALTER TABLE appointments ADD CONSTRAINT " + Appointment.NO_OVERLAP_CONSTRAINT + " EXCLUDE USING gist " +
+            "(specialist_id WITH =, tsrange(appointment_date, end_time, '[)') WITH &&) " +
+            "WHERE (appointment_status IN ('SCHEDULED', 'RESCHEDULED')); " +
+            "END IF; END $$", nativeQuery = true)
+    void addNoOverlapConstraint();
+
+    // Rows created before end_time existed; their end is derived once from date + duration
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE appointments SET end_time = appointment_date + duration * INTERVAL '1 minute' " +
+            "WHERE end_time IS NULL", nativeQuery = true)
+    int backfillEndTimes();
+
+    // the pet is mapped into the response; specialist and owner names come from AuthorSummaryCache
+    @EntityGraph(attributePaths = "pet")
     Optional<Appointment> findByAppointmentIdAndPetOwner(Long appointmentId, User petOwner);
 
-    @Query("SELECT a FROM Appointment a WHERE a.appointmentDate BETWEEN :start AND :end AND a.appointmentStatus = 'SCHEDULED'")
-    List<Appointment> findAppointmentsBetween(@Param("start") LocalDateTime start,
-                                              @Param("end") LocalDateTime end);
+    /**
+     * Locks up to {@code limit} active, still upcoming appointments whose reminder is due. Rows
+     * locked by another worker are skipped rather than waited on, so several nodes can drain the
+     * queue at once.
+     */
+    @Query(value = "SELECT a.appointment_id FROM appointments a " +
+            "WHERE a.reminder_due_at <= :now AND a.appointment_date > :now " +
+            "AND a.appointment_status IN ('SCHEDULED', 'RESCHEDULED') " +
+            "ORDER BY a.reminder_due_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> claimDueReminders(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Reminders that fell due but were not sent before the appointment started, e.g. while the
+    // workers were down; they are dropped instead of going out late
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE appointments SET reminder_due_at = NULL " +
+            "WHERE reminder_due_at <= :now AND appointment_date <= :now", nativeQuery = true)
+    int clearMissedReminders(@Param("now") LocalDateTime now);
+
+    // Everything a reminder touches, in one query
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.petOwner JOIN FETCH a.pet " +
+            "JOIN FETCH a.specialist s JOIN FETCH s.user WHERE a.appointmentId IN :appointmentIds")
+    List<Appointment> findWithParticipantsByIdIn(@Param("appointmentIds") Collection<Long> appointmentIds);
 
+    // Queues the reminder at the given offset for active appointments that have none yet and are far enough out
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE appointments SET reminder_due_at = appointment_date - :offsetMinutes * INTERVAL '1 minute' " +
+            "WHERE reminder_due_at IS NULL AND reminder_sent_at IS NULL " +
+            "AND appointment_status IN ('SCHEDULED', 'RESCHEDULED') " +
+            "AND appointment_date - :offsetMinutes * INTERVAL '1 minute' > now()", nativeQuery = true)
+    int backfillReminderDueAt(@Param("offsetMinutes") long offsetMinutes);
+
+    @EntityGraph(attributePaths = "pet")
     Page<Appointment> findAllByPetOwner(User user, Pageable pageable);
 
-    List<Appointment> findBySpecialistSpecialistId(Long specialistId);
+    @EntityGraph(attributePaths = "pet")
+    Window<Appointment> findAllByPetOwner(User user, ScrollPosition position, Limit limit, Sort sort);
+
+    /**
+     * Per-status appointment counts and rating totals of a specialist, aggregated in the database.
+     */
+    @Query("SELECT new com.spring.petcareConnect.dtos.specialist.response.AppointmentStatusStatsDto(" +
+            "a.appointmentStatus, COUNT(a), SUM(a.rating), COUNT(a.rating)) " +
+            "FROM Appointment a WHERE a.specialist.specialistId = :specialistId " +
+            "GROUP BY a.appointmentStatus")
+    List<AppointmentStatusStatsDto> aggregateByStatus(@Param("specialistId") Long specialistId);
+
+    // Same, limited to appointments starting in [from, to)
+    @Query("SELECT new com.spring.petcareConnect.dtos.specialist.response.AppointmentStatusStatsDto(" +
+            "a.appointmentStatus, COUNT(a), SUM(a.rating), COUNT(a.rating)) " +
+            "FROM Appointment a WHERE a.specialist.specialistId = :specialistId " +
+            "AND a.appointmentDate >= :from AND a.appointmentDate < :to " +
+            "GROUP BY a.appointmentStatus")
+    List<AppointmentStatusStatsDto> aggregateByStatusBetween(@Param("specialistId") Long specialistId,
+                                                             @Param("from") LocalDateTime from,
+                                                             @Param("to") LocalDateTime to);
 }
\ No newline at end of file
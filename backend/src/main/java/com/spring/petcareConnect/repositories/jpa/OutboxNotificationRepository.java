@@ -0,0 +1,82 @@
+package com.spring.petcareConnect.repositories.jpa;
+
+import com.spring.petcareConnect.entities.OutboxNotification;
+import com.spring.petcareConnect.enums.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxNotificationRepository extends JpaRepository<OutboxNotification, Long> {
+
+    // Due notifications and expired leases not locked by another dispatcher; must run inside the claiming transaction
+    @Query(value = "SELECT o.notification_id FROM notification_outbox o " +
+            "WHERE o.status IN ('PENDING', 'SENDING') AND o.next_attempt_at <= :now " +
+            "ORDER BY o.next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * A user's appointment notifications still inside their digest window (never attempted, not
+     * yet due), locked so a dispatcher claiming them at the same moment is waited for.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OutboxNotification o WHERE o.userId = :userId " +
+            "AND o.status = com.spring.petcareConnect.enums.OutboxStatus.PENDING AND o.attempts = 0 " +
+            "AND o.appointmentId IS NOT NULL AND o.nextAttemptAt > :now")
+    List<OutboxNotification> findHeldForUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxNotification o SET o.status = com.spring.petcareConnect.enums.OutboxStatus.SENT, " +
+            "o.sentAt = :sentAt, o.attempts = o.attempts + 1, o.lastError = NULL " +
+            "WHERE o.notificationId IN :notificationIds")
+    int markSent(@Param("notificationIds") Collection<Long> notificationIds, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxNotification o SET o.status = :status, o.attempts = :attempts, " +
+            "o.nextAttemptAt = :nextAttemptAt, o.lastError = :lastError WHERE o.notificationId = :notificationId")
+    int markFailed(@Param("notificationId") Long notificationId,
+                   @Param("status") OutboxStatus status,
+                   @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("lastError") String lastError);
+
+    // rows that will never be sent again: delivered, folded into a later one, or dead-lettered
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxNotification o WHERE o.status IN (" +
+            "com.spring.petcareConnect.enums.OutboxStatus.SENT, " +
+            "com.spring.petcareConnect.enums.OutboxStatus.SUPERSEDED, " +
+            "com.spring.petcareConnect.enums.OutboxStatus.DEAD) AND o.createdAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * Hibernate created the table with CHECK constraints listing the enum values of the time, and
+     * ddl-auto=update never widens them, so SENDING, SUPERSEDED and APPOINTMENT_DIGEST rows would be
+     * rejected. Replaces both with the current values; keep them in step with OutboxStatus and EmailType.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "ALTER TABLE notification_outbox " +
+            "DROP CONSTRAINT IF EXISTS notification_outbox_status_check, " +
+            "DROP CONSTRAINT IF EXISTS notification_outbox_email_type_check, " +
+            "ADD CONSTRAINT notification_outbox_status_check " +
+            "CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'SUPERSEDED', 'DEAD')), " +
+            "ADD CONSTRAINT notification_outbox_email_type_check " +
+            "CHECK (email_type IN ('VERIFICATION', 'RESET', 'APPOINTMENT_CREATED', 'APPOINTMENT_UPDATED', " +
+            "'APPOINTMENT_RESCHEDULED', 'APPOINTMENT_CANCELLED', 'APPOINTMENT_REMINDER', 'APPOINTMENT_DIGEST'))",
+            nativeQuery = true)
+    void replaceEnumCheckConstraints();
+
+    long countByStatus(OutboxStatus status);
+}
@@ -2,8 +2,13 @@ package com.spring.petcareConnect.repositories.jpa;
 
 import com.spring.petcareConnect.entities.Pet;
 import com.spring.petcareConnect.entities.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,8 +17,14 @@ import java.util.Optional;
 
 @Repository
 public interface PetRepository extends JpaRepository<Pet,Long> {
+    // breed and species are part of every PetResponseDto
+    @EntityGraph(attributePaths = {"breed", "breed.species"})
     Page<Pet> findAllByPetOwner(User user, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"breed", "breed.species"})
+    Window<Pet> findAllByPetOwner(User user, ScrollPosition position, Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = {"breed", "breed.species"})
     Optional<Pet> findByPetIdAndPetOwner(Long petId, User petOwner);
 
     boolean existsByPetOwnerAndPetName(User petOwner, String name);
@@ -1,12 +1,78 @@
 package com.spring.petcareConnect.repositories.jpa;
 
 import com.spring.petcareConnect.entities.Specialist;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SpecialistRepository extends JpaRepository<Specialist, Long> {
+public interface SpecialistRepository extends JpaRepository<Specialist, Long>, JpaSpecificationExecutor<Specialist> {
+    // The specialist DTO reads the user's name; days are batch-loaded for the whole page
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Page<Specialist> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"user", "daysAvailable"})
+    Optional<Specialist> findById(Long specialistId);
+
+    // Everything the public catalog shows, in one query; see SpecialistCatalog
+    @EntityGraph(attributePaths = {"user", "daysAvailable"})
+    List<Specialist> findAllByOrderBySpecialistIdAsc();
+
+    // Cheap change probe for the catalog: any insert, delete or update moves one of the values
+    // (SpecialistServiceImpl touches updated_at itself, as an edit of daysAvailable alone would not)
+    @Query("SELECT COUNT(s) AS specialists, MAX(s.updatedAt) AS specialistsUpdatedAt, MAX(u.updatedAt) AS usersUpdatedAt " +
+            "FROM Specialist s JOIN s.user u")
+    CatalogStamp findCatalogStamp();
+
     Optional<Specialist> findByUserUserId(Long userId);
+
+    // specialistId -> userId without initializing the Specialist/User entities
+    @Query("SELECT s.specialistId AS specialistId, s.user.userId AS userId FROM Specialist s WHERE s.specialistId IN :specialistIds")
+    List<SpecialistUserRef> findUserRefsBySpecialistIdIn(@Param("specialistIds") Collection<Long> specialistIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "CREATE EXTENSION IF NOT EXISTS pg_trgm", nativeQuery = true)
+    void createTrigramExtension();
+
+    // Let Postgres answer the search's lower(column) LIKE '%term%' filters from an index; see SpecialistSpecifications
+    @Modifying
+    @Transactional
+    @Query(value = "CREATE INDEX IF NOT EXISTS idx_specialist_specialization_trgm ON specialists " +
+            "USING gin (lower(specialization) gin_trgm_ops)", nativeQuery = true)
+    void createSpecializationTrigramIndex();
+
+    @Modifying
+    @Transactional
+    @Query(value = "CREATE INDEX IF NOT EXISTS idx_specialist_location_trgm ON specialists " +
+            "USING gin (lower(location) gin_trgm_ops)", nativeQuery = true)
+    void createLocationTrigramIndex();
+
+    interface SpecialistUserRef {
+        Long getSpecialistId();
+
+        Long getUserId();
+    }
+
+    interface CatalogStamp {
+        Long getSpecialists();
+
+        LocalDateTime getSpecialistsUpdatedAt();
+
+        LocalDateTime getUsersUpdatedAt();
+    }
 }
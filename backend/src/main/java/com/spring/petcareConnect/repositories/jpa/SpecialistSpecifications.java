@@ -0,0 +1,116 @@
+package com.spring.petcareConnect.repositories.jpa;
+
+import com.spring.petcareConnect.dtos.specialist.request.SpecialistSearchRequestDto;
+import com.spring.petcareConnect.entities.Specialist;
+import com.spring.petcareConnect.enums.AvailableDay;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Criteria predicates behind {@code GET /specialists/search}, each written to hit an index:
+ * the text filters use {@code lower(column) LIKE '%term%'}, which the pg_trgm GIN indexes on
+ * {@code lower(specialization)} and {@code lower(location)} answer, and the range filters line
+ * up with the composite indexes declared on {@link Specialist}.
+ */
+public final class SpecialistSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private SpecialistSpecifications() {
+        // Utility class - prevent instantiation
+    }
+
+    public static Specification<Specialist> matching(SpecialistSearchRequestDto filters) {
+        List<Specification<Specialist>> specifications = new ArrayList<>();
+        if (StringUtils.hasText(filters.getSpecialization())) {
+            specifications.add(contains("specialization", filters.getSpecialization()));
+        }
+        if (StringUtils.hasText(filters.getLocation())) {
+            specifications.add(contains("location", filters.getLocation()));
+        }
+        if (filters.getAvailable() != null) {
+            specifications.add(available(filters.getAvailable()));
+        }
+        if (filters.getMinFee() != null) {
+            specifications.add(feeAtLeast(filters.getMinFee()));
+        }
+        if (filters.getMaxFee() != null) {
+            specifications.add(feeAtMost(filters.getMaxFee()));
+        }
+        if (filters.getMinExperience() != null) {
+            specifications.add(experienceAtLeast(filters.getMinExperience()));
+        }
+        if (filters.getMinRating() != null) {
+            specifications.add(ratingAtLeast(filters.getMinRating()));
+        }
+        if (filters.getDays() != null && !filters.getDays().isEmpty()) {
+            specifications.add(availableOnAnyOf(filters.getDays()));
+        }
+        return Specification.allOf(specifications);
+    }
+
+    /**
+     * Fetches the user with the specialists, for the name in every result. Spring Data applies no
+     * fetch graph to scrolled queries, and count queries must not fetch, so it is left out there.
+     */
+    public static Specification<Specialist> fetchingUser() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("user");
+            }
+            return null;
+        };
+    }
+
+    public static Specification<Specialist> contains(String attribute, String term) {
+        String pattern = "%" + escapeLike(term.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get(attribute)), pattern, LIKE_ESCAPE);
+    }
+
+    public static Specification<Specialist> available(boolean available) {
+        return (root, query, cb) -> cb.equal(root.get("available"), available);
+    }
+
+    public static Specification<Specialist> feeAtLeast(BigDecimal minFee) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("consultationFee"), minFee);
+    }
+
+    public static Specification<Specialist> feeAtMost(BigDecimal maxFee) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("consultationFee"), maxFee);
+    }
+
+    public static Specification<Specialist> experienceAtLeast(int years) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("experienceYears"), years);
+    }
+
+    public static Specification<Specialist> ratingAtLeast(double rating) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("rating"), rating);
+    }
+
+    /**
+     * An EXISTS over the days table rather than a join, so a specialist available on several of
+     * the days is still returned once and the keyset order is not disturbed.
+     */
+    public static Specification<Specialist> availableOnAnyOf(Collection<AvailableDay> days) {
+        return (root, query, cb) -> {
+            Subquery<Long> match = query.subquery(Long.class);
+            Root<Specialist> specialist = match.correlate(root);
+            Join<Specialist, AvailableDay> day = specialist.join("daysAvailable");
+            match.select(cb.literal(1L)).where(day.in(days));
+            return cb.exists(match);
+        };
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,102 @@
+package com.spring.petcareConnect.repositories.jpa;
+
+import com.spring.petcareConnect.entities.Specialist;
+import com.spring.petcareConnect.entities.SpecialistStats;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SpecialistStatsRepository extends JpaRepository<SpecialistStats, Long> {
+
+    // Specialists ordered by a rollup column of st, read through the (metric, specialist_id)
+    // indexes. Every specialist has a row: it is created with the specialist and backfilled by
+    // the reconciliation at startup
+    @Query(value = "SELECT s FROM SpecialistStats st JOIN st.specialist s JOIN FETCH s.user",
+            countQuery = "SELECT COUNT(st) FROM SpecialistStats st")
+    Page<Specialist> findRankedSpecialists(Pageable pageable);
+
+    /**
+     * Adds the deltas to the specialist's row in one statement (creating it if missing), so
+     * concurrent bookings never overwrite each other's counts.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO specialist_stats AS st (specialist_id, total_count, upcoming_count, completed_count, " +
+            "cancelled_count, rating_sum, rating_count, average_rating, updated_at) " +
+            "VALUES (:specialistId, :total, :upcoming, :completed, :cancelled, :ratingSum, :ratingCount, " +
+            "CASE WHEN :ratingCount > 0 THEN CAST(:ratingSum AS DOUBLE PRECISION) / :ratingCount ELSE 0 END, now()) " +
+            "ON CONFLICT (specialist_id) DO UPDATE SET " +
+            "total_count = st.total_count + EXCLUDED.total_count, " +
+            "upcoming_count = st.upcoming_count + EXCLUDED.upcoming_count, " +
+            "completed_count = st.completed_count + EXCLUDED.completed_count, " +
+            "cancelled_count = st.cancelled_count + EXCLUDED.cancelled_count, " +
+            "rating_sum = st.rating_sum + EXCLUDED.rating_sum, " +
+            "rating_count = st.rating_count + EXCLUDED.rating_count, " +
+            "average_rating = CASE WHEN st.rating_count + EXCLUDED.rating_count > 0 " +
+            "THEN CAST(st.rating_sum + EXCLUDED.rating_sum AS DOUBLE PRECISION) / (st.rating_count + EXCLUDED.rating_count) " +
+            "ELSE 0 END, " +
+            "updated_at = now()", nativeQuery = true)
+    int applyDelta(@Param("specialistId") Long specialistId,
+                   @Param("total") long total,
+                   @Param("upcoming") long upcoming,
+                   @Param("completed") long completed,
+                   @Param("cancelled") long cancelled,
+                   @Param("ratingSum") long ratingSum,
+                   @Param("ratingCount") long ratingCount);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SpecialistStats st SET st.nextFreeSlot = :nextFreeSlot WHERE st.specialistId = :specialistId")
+    int updateNextFreeSlot(@Param("specialistId") Long specialistId, @Param("nextFreeSlot") LocalDateTime nextFreeSlot);
+
+    /**
+     * Recomputes every specialist's counts from the appointments table in one set-based
+     * statement; only rows that drifted are written. Returns the number of rows corrected.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO specialist_stats AS st (specialist_id, total_count, upcoming_count, completed_count, " +
+            "cancelled_count, rating_sum, rating_count, average_rating, updated_at) " +
+            "SELECT s.specialist_id, COUNT(a.appointment_id), " +
+            "COUNT(a.appointment_id) FILTER (WHERE a.appointment_status IN ('SCHEDULED', 'RESCHEDULED')), " +
+            "COUNT(a.appointment_id) FILTER (WHERE a.appointment_status = 'COMPLETED'), " +
+            "COUNT(a.appointment_id) FILTER (WHERE a.appointment_status = 'CANCELLED'), " +
+            "COALESCE(SUM(a.rating), 0), COUNT(a.rating), COALESCE(AVG(a.rating), 0), now() " +
+            "FROM specialists s LEFT JOIN appointments a ON a.specialist_id = s.specialist_id " +
+            "GROUP BY s.specialist_id " +
+            "ON CONFLICT (specialist_id) DO UPDATE SET " +
+            "total_count = EXCLUDED.total_count, upcoming_count = EXCLUDED.upcoming_count, " +
+            "completed_count = EXCLUDED.completed_count, cancelled_count = EXCLUDED.cancelled_count, " +
+            "rating_sum = EXCLUDED.rating_sum, rating_count = EXCLUDED.rating_count, " +
+            "average_rating = EXCLUDED.average_rating, updated_at = now() " +
+            "WHERE (st.total_count, st.upcoming_count, st.completed_count, st.cancelled_count, st.rating_sum, st.rating_count) " +
+            "IS DISTINCT FROM (EXCLUDED.total_count, EXCLUDED.upcoming_count, EXCLUDED.completed_count, " +
+            "EXCLUDED.cancelled_count, EXCLUDED.rating_sum, EXCLUDED.rating_count)", nativeQuery = true)
+    int reconcileCounts();
+
+    // Specialist.rating mirrors the rollup average (null until the first rating); touching
+    // updated_at lets the SpecialistCatalog probe on other nodes see the change
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE specialists s SET rating = CASE WHEN st.rating_count > 0 THEN st.average_rating END, " +
+            "updated_at = LOCALTIMESTAMP " +
+            "FROM specialist_stats st WHERE st.specialist_id = s.specialist_id " +
+            "AND s.rating IS DISTINCT FROM CASE WHEN st.rating_count > 0 THEN st.average_rating END", nativeQuery = true)
+    int syncSpecialistRatings();
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE specialists s SET rating = CASE WHEN st.rating_count > 0 THEN st.average_rating END, " +
+            "updated_at = LOCALTIMESTAMP " +
+            "FROM specialist_stats st WHERE st.specialist_id = s.specialist_id AND s.specialist_id = :specialistId",
+            nativeQuery = true)
+    int syncSpecialistRating(@Param("specialistId") Long specialistId);
+}
@@ -1,20 +1,45 @@
 package com.spring.petcareConnect.repositories.jpa;
 
+import com.spring.petcareConnect.dtos.profile.response.AuthorSummaryDto;
 import com.spring.petcareConnect.entities.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Credential lookups: the roles go into the authorities and the JWT, so fetch them in the same query
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByEmail(String email);
 
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByRefreshToken(String refreshToken);
 
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByMobileNumber(String normalizedPhone);
 
     int countByVerified(boolean b);
 
     boolean existsByEmail(String email);
+
+    // Author projections: single round trip, no roles/address joins
+    @Query("SELECT new com.spring.petcareConnect.dtos.profile.response.AuthorSummaryDto(" +
+            "u.userId, u.firstName, u.lastName, u.email, u.avatarUrl) FROM User u WHERE u.userId IN :userIds")
+    List<AuthorSummaryDto> findAuthorSummariesByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // What request authentication checks a token against; see UserSecurityVersions
+    @Query("SELECT u.securityVersion AS securityVersion, u.accountLocked AS accountLocked FROM User u WHERE u.userId = :userId")
+    Optional<UserSecurityState> findSecurityStateByUserId(@Param("userId") Long userId);
+
+    interface UserSecurityState {
+        Long getSecurityVersion();
+
+        Boolean getAccountLocked();
+    }
 }
@@ -2,16 +2,21 @@ package com.spring.petcareConnect.repositories.mongo;
 
 import com.spring.petcareConnect.entities.Comment;
 import com.spring.petcareConnect.entities.Forum;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface CommentRepository extends MongoRepository<Comment, String> {
+public interface CommentRepository extends MongoRepository<Comment, String>, ForumCounterOperations {
     Page<Comment> findAllByForumId(String forumId, Pageable pageable);
+    Window<Comment> findAllByForumId(String forumId, ScrollPosition position, Limit limit, Sort sort);
     void deleteAllByForumId(String forumId);
     List<Comment> findAllByUserId(Long userId);
 }
\ No newline at end of file
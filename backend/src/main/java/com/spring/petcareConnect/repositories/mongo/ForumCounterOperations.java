@@ -0,0 +1,40 @@
+package com.spring.petcareConnect.repositories.mongo;
+
+import java.util.Collection;
+
+/**
+ * Single round-trip counter updates for forum and comment documents.
+ * <p>
+ * Every method is one conditional {@code updateFirst}; the filter guarantees the
+ * membership set and its counter move together, so concurrent likers never lose
+ * updates and the document is never rewritten as a whole. A {@code false} result
+ * means nothing matched: the document does not exist or the user was already in
+ * (or absent from) the set.
+ */
+public interface ForumCounterOperations {
+
+    /**
+     * Net counter change for one forum, as coalesced by the write-behind buffer.
+     */
+    record CounterDelta(String forumId, long viewDelta, long commentDelta) {
+        public boolean isEmpty() {
+            return viewDelta == 0 && commentDelta == 0;
+        }
+    }
+
+    boolean addForumLike(String forumId, Long userId);
+
+    boolean removeForumLike(String forumId, Long userId);
+
+    boolean addCommentLike(String commentId, Long userId);
+
+    boolean removeCommentLike(String commentId, Long userId);
+
+    /**
+     * Applies all deltas as one unordered {@code bulkWrite} of {@code $inc} updates; a net
+     * comment decrement never drives {@code commentCount} below zero.
+     *
+     * @return number of forum documents matched
+     */
+    int applyCounterDeltas(Collection<CounterDelta> deltas);
+}
@@ -0,0 +1,97 @@
+package com.spring.petcareConnect.repositories.mongo;
+
+import com.spring.petcareConnect.entities.Comment;
+import com.spring.petcareConnect.entities.Forum;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+
+import java.util.Collection;
+import java.util.List;
+
+public class ForumCounterOperationsImpl implements ForumCounterOperations {
+
+    private static final String LIKED_BY_USERS = "likedByUsers";
+    private static final String LIKE_COUNT = "likeCount";
+
+    private final MongoTemplate mongoTemplate;
+
+    public ForumCounterOperationsImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean addForumLike(String forumId, Long userId) {
+        return addLike(Forum.class, "forumId", forumId, userId);
+    }
+
+    @Override
+    public boolean removeForumLike(String forumId, Long userId) {
+        return removeLike(Forum.class, "forumId", forumId, userId);
+    }
+
+    @Override
+    public boolean addCommentLike(String commentId, Long userId) {
+        return addLike(Comment.class, "commentId", commentId, userId);
+    }
+
+    @Override
+    public boolean removeCommentLike(String commentId, Long userId) {
+        return removeLike(Comment.class, "commentId", commentId, userId);
+    }
+
+    @Override
+    public int applyCounterDeltas(Collection<CounterDelta> deltas) {
+        List<Pair<Query, UpdateDefinition>> updates = deltas.stream()
+                .filter(delta -> !delta.isEmpty())
+                .map(delta -> Pair.of(new Query(Criteria.where("forumId").is(delta.forumId())), counterUpdate(delta)))
+                .toList();
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Forum.class)
+                .updateOne(updates)
+                .execute()
+                .getMatchedCount();
+    }
+
+    private static UpdateDefinition counterUpdate(CounterDelta delta) {
+        if (delta.commentDelta() >= 0) {
+            Update update = new Update();
+            if (delta.viewDelta() != 0) update.inc("viewCount", delta.viewDelta());
+            if (delta.commentDelta() != 0) update.inc("commentCount", delta.commentDelta());
+            return update;
+        }
+        // a net decrement goes through a pipeline so the comment count is floored at zero
+        return AggregationUpdate.update()
+                .set("view_count").toValue(added("view_count", delta.viewDelta()))
+                .set("comment_count").toValue(atLeastZero(added("comment_count", delta.commentDelta())));
+    }
+
+    private static AggregationExpression atLeastZero(AggregationExpression value) {
+        return context -> new Document("$max", List.of(0, value.toDocument(context)));
+    }
+
+    private static AggregationExpression added(String field, long delta) {
+        return context -> new Document("$add", List.of(new Document("$ifNull", List.of("$" + field, 0)), delta));
+    }
+
+    private boolean addLike(Class<?> type, String idProperty, String id, Long userId) {
+        Query query = new Query(Criteria.where(idProperty).is(id).and(LIKED_BY_USERS).ne(userId));
+        Update update = new Update().addToSet(LIKED_BY_USERS, userId).inc(LIKE_COUNT, 1);
+        return mongoTemplate.updateFirst(query, update, type).getModifiedCount() > 0;
+    }
+
+    private boolean removeLike(Class<?> type, String idProperty, String id, Long userId) {
+        Query query = new Query(Criteria.where(idProperty).is(id).and(LIKED_BY_USERS).is(userId));
+        Update update = new Update().pull(LIKED_BY_USERS, userId).inc(LIKE_COUNT, -1);
+        return mongoTemplate.updateFirst(query, update, type).getModifiedCount() > 0;
+    }
+}
@@ -1,8 +1,12 @@
 package com.spring.petcareConnect.repositories.mongo;
 
 import com.spring.petcareConnect.entities.Forum;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,19 +14,18 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ForumRepository extends MongoRepository<Forum, String> {
+public interface ForumRepository extends MongoRepository<Forum, String>, ForumCounterOperations, ForumSearchOperations {
 
     Page<Forum> findAllByUserId(Long userId, Pageable pageable);
 
+    // keyset variants: no count query, seek on the sort keys from the previous window
+    Window<Forum> findAllByUserId(Long userId, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Forum> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+
     Page<Forum> findByIsFeaturedTrue(Pageable pageable);
 
     Optional<Forum> findByForumIdAndUserId(String forumId, Long userId);
 
-    Page<Forum> findByTitleContainingIgnoreCaseOrContentContainingIgnoreCase(
-            String titleKeyword, String contentKeyword, Pageable pageable);
-
     Page<Forum> findByTagsIn(List<String> tags, Pageable pageable);
-
-    Page<Forum> findByTitleContainingIgnoreCaseOrContentContainingIgnoreCaseAndTagsIn(
-            String titleKeyword, String contentKeyword, List<String> tags, Pageable pageable);
 }
\ No newline at end of file
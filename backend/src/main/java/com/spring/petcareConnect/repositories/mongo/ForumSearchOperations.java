@@ -0,0 +1,25 @@
+package com.spring.petcareConnect.repositories.mongo;
+
+import com.spring.petcareConnect.entities.Forum;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+
+/**
+ * Forum search queries. In both variants the keyword match and the tag filter are
+ * combined as {@code keyword AND tags} in a single query; an empty tag collection
+ * means no tag filter.
+ */
+public interface ForumSearchOperations {
+
+    /**
+     * Full-text search over the weighted text index, ordered by text score and then by the pageable's sort.
+     */
+    Page<Forum> searchByText(String keyword, Collection<String> tags, Pageable pageable);
+
+    /**
+     * Case-insensitive substring match on title or content. Scans the collection; kept for comparison.
+     */
+    Page<Forum> searchByRegex(String keyword, Collection<String> tags, Pageable pageable);
+}
@@ -0,0 +1,58 @@
+package com.spring.petcareConnect.repositories.mongo;
+
+import com.spring.petcareConnect.entities.Forum;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class ForumSearchOperationsImpl implements ForumSearchOperations {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ForumSearchOperationsImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Page<Forum> searchByText(String keyword, Collection<String> tags, Pageable pageable) {
+        TextCriteria textCriteria = TextCriteria.forDefaultLanguage().matching(keyword);
+
+        Query query = TextQuery.queryText(textCriteria).sortByScore();
+        Query countQuery = TextQuery.queryText(textCriteria);
+        if (tags != null && !tags.isEmpty()) {
+            query.addCriteria(Criteria.where("tags").in(tags));
+            countQuery.addCriteria(Criteria.where("tags").in(tags));
+        }
+        query.with(pageable);
+
+        List<Forum> content = mongoTemplate.find(query, Forum.class);
+        return PageableExecutionUtils.getPage(content, pageable, () -> mongoTemplate.count(countQuery, Forum.class));
+    }
+
+    @Override
+    public Page<Forum> searchByRegex(String keyword, Collection<String> tags, Pageable pageable) {
+        Pattern pattern = Pattern.compile(Pattern.quote(keyword), Pattern.CASE_INSENSITIVE);
+        Criteria criteria = new Criteria().orOperator(
+                Criteria.where("title").regex(pattern),
+                Criteria.where("content").regex(pattern));
+        if (tags != null && !tags.isEmpty()) {
+            // explicit AND: the old derived query bound this as title OR (content AND tags)
+            criteria = new Criteria().andOperator(criteria, Criteria.where("tags").in(tags));
+        }
+
+        Query countQuery = new Query(criteria);
+        Query query = new Query(criteria).with(pageable);
+
+        List<Forum> content = mongoTemplate.find(query, Forum.class);
+        return PageableExecutionUtils.getPage(content, pageable, () -> mongoTemplate.count(countQuery, Forum.class));
+    }
+}
@@ -0,0 +1,421 @@
+package com.spring.petcareConnect.search;
+
+import com.spring.petcareConnect.dtos.forum.response.ForumSearchIndexStatsDto;
+import com.spring.petcareConnect.entities.Forum;
+import com.spring.petcareConnect.enums.ForumSearchMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over forum title, content, tags and category.
+ * <p>
+ * Each forum gets a dense int docId; every term maps to a primitive posting list of
+ * (docId, weight) pairs kept in ascending docId order. Field weights mirror the Mongo
+ * text index (title 10, tags/category 5, content 1). Tags are additionally indexed as
+ * exact {@code tag:<name>} terms for filtering. Updates re-add the forum under a fresh
+ * docId and tombstone the old one; tombstones are reclaimed by {@link #rebuild()}.
+ * <p>
+ * Only active when {@code app.forum.search.mode=INDEX}. The index is built after startup
+ * by streaming the {@code forums} collection and kept current by ForumServiceImpl.
+ */
+@Component
+public class ForumSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForumSearchIndex.class);
+
+    private static final int TITLE_WEIGHT = 10;
+    private static final int TAG_WEIGHT = 5;
+    private static final int CONTENT_WEIGHT = 1;
+    private static final String TAG_PREFIX = "tag:";
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "to", "was", "with");
+
+    public record SearchResult(List<String> forumIds, long total) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+
+    // guarded by lock
+    private IndexState state = new IndexState();
+    // writes seen while a rebuild streams, replayed in order onto the fresh state
+    private List<Consumer<IndexState>> pendingWrites;
+    private volatile boolean ready;
+    private volatile long lastBuildMillis;
+    private volatile Instant lastBuiltAt;
+
+    public ForumSearchIndex(MongoTemplate mongoTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.forum.search.mode:TEXT}") ForumSearchMode searchMode) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = searchMode == ForumSearchMode.INDEX;
+        if (enabled) {
+            meterRegistry.gauge("forum.search.index.documents", this, index -> index.stats().getLiveDocuments());
+            meterRegistry.gauge("forum.search.index.terms", this, index -> index.stats().getTerms());
+            meterRegistry.gauge("forum.search.index.estimated.bytes", this, index -> index.stats().getEstimatedBytes());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * False until the first build finishes; callers should fall back to another search path.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the forums collection without blocking searches. Writes that
+     * arrive while the build is streaming are replayed onto the new index before it is swapped in.
+     */
+    public ForumSearchIndexStatsDto rebuild() {
+        synchronized (rebuildMonitor) {
+            long started = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                pendingWrites = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            IndexState fresh = new IndexState();
+            Query query = new Query().with(Sort.by(Sort.Direction.ASC, "createdAt"));
+            query.fields().include("title", "content", "tags", "category", "createdAt");
+            try (Stream<Forum> forums = mongoTemplate.stream(query, Forum.class)) {
+                forums.forEach(fresh::add);
+            } catch (RuntimeException ex) {
+                lock.writeLock().lock();
+                try {
+                    pendingWrites = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw ex;
+            }
+
+            lock.writeLock().lock();
+            try {
+                pendingWrites.forEach(write -> write.accept(fresh));
+                pendingWrites = null;
+                state = fresh;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            lastBuildMillis = System.currentTimeMillis() - started;
+            lastBuiltAt = Instant.now();
+            ForumSearchIndexStatsDto stats = stats();
+            logger.info("Forum search index built in {} ms: {} documents, {} terms, ~{} bytes",
+                    lastBuildMillis, stats.getLiveDocuments(), stats.getTerms(), stats.getEstimatedBytes());
+            return stats;
+        }
+    }
+
+    public void index(Forum forum) {
+        if (!enabled || forum == null || forum.getForumId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            state.add(forum);
+            if (pendingWrites != null) {
+                pendingWrites.add(pending -> pending.add(forum));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String forumId) {
+        if (!enabled || forumId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            state.remove(forumId);
+            if (pendingWrites != null) {
+                pendingWrites.add(pending -> pending.remove(forumId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forums matching every keyword token and, if given, at least one of the tags, ordered
+     * by weighted term score then newest first.
+     */
+    public SearchResult search(String keyword, Collection<String> tags, int offset, int limit) {
+        List<String> terms = tokenize(keyword);
+        if (terms.isEmpty() || limit <= 0) {
+            return new SearchResult(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            return state.search(terms, tags, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ForumSearchIndexStatsDto stats() {
+        lock.readLock().lock();
+        try {
+            return new ForumSearchIndexStatsDto(enabled, ready, state.liveCount, state.nextDocId - state.liveCount,
+                    state.postings.size(), state.postingCount(), state.estimateBytes(), lastBuildMillis, lastBuiltAt);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (token.length() >= MIN_TOKEN_LENGTH && !STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static final class IndexState {
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final Map<String, Integer> docIdsByForumId = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private String[] forumIds = new String[1024];
+        private long[] createdAt = new long[1024];
+        private int nextDocId;
+        private int liveCount;
+
+        void add(Forum forum) {
+            remove(forum.getForumId());
+
+            int docId = nextDocId++;
+            if (docId == forumIds.length) {
+                forumIds = Arrays.copyOf(forumIds, docId * 2);
+                createdAt = Arrays.copyOf(createdAt, docId * 2);
+            }
+            forumIds[docId] = forum.getForumId();
+            createdAt[docId] = forum.getCreatedAt() != null ? forum.getCreatedAt().toEpochMilli() : 0L;
+            docIdsByForumId.put(forum.getForumId(), docId);
+            live.set(docId);
+            liveCount++;
+
+            addTerms(docId, tokenize(forum.getTitle()), TITLE_WEIGHT);
+            addTerms(docId, tokenize(forum.getContent()), CONTENT_WEIGHT);
+            if (forum.getCategory() != null) {
+                addTerms(docId, tokenize(forum.getCategory().name().replace('_', ' ')), TAG_WEIGHT);
+            }
+            if (forum.getTags() != null) {
+                for (String tag : forum.getTags()) {
+                    addTerms(docId, tokenize(tag), TAG_WEIGHT);
+                    posting(TAG_PREFIX + tag.toLowerCase(Locale.ROOT)).add(docId, 0);
+                }
+            }
+        }
+
+        void remove(String forumId) {
+            Integer docId = docIdsByForumId.remove(forumId);
+            if (docId != null && live.get(docId)) {
+                live.clear(docId);
+                liveCount--;
+            }
+        }
+
+        SearchResult search(List<String> terms, Collection<String> tags, int offset, int limit) {
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : new LinkedHashSet<>(terms)) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    return new SearchResult(List.of(), 0);
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            // intersect starting from the shortest list, summing weights
+            Postings first = lists.get(0);
+            int[] docs = Arrays.copyOf(first.docIds, first.size);
+            int[] scores = Arrays.copyOf(first.weights, first.size);
+            int count = first.size;
+            for (int l = 1; l < lists.size() && count > 0; l++) {
+                Postings other = lists.get(l);
+                int kept = 0;
+                int j = 0;
+                for (int i = 0; i < count && j < other.size; i++) {
+                    int doc = docs[i];
+                    j = other.seek(doc, j);
+                    if (j < other.size && other.docIds[j] == doc) {
+                        docs[kept] = doc;
+                        scores[kept] = scores[i] + other.weights[j];
+                        kept++;
+                    }
+                }
+                count = kept;
+            }
+
+            BitSet tagFilter = tagFilter(tags);
+
+            int k = offset + limit;
+            PriorityQueue<int[]> top = new PriorityQueue<>(Math.min(k, 1024), this::compareHits);
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                int doc = docs[i];
+                if (!live.get(doc) || (tagFilter != null && !tagFilter.get(doc))) {
+                    continue;
+                }
+                total++;
+                int[] hit = {doc, scores[i]};
+                if (top.size() < k) {
+                    top.add(hit);
+                } else if (compareHits(hit, top.peek()) > 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+
+            List<int[]> ordered = new ArrayList<>(top);
+            ordered.sort((a, b) -> compareHits(b, a));
+            List<String> page = new ArrayList<>(limit);
+            for (int i = offset; i < ordered.size(); i++) {
+                page.add(forumIds[ordered.get(i)[0]]);
+            }
+            return new SearchResult(page, total);
+        }
+
+        long postingCount() {
+            long total = 0;
+            for (Postings list : postings.values()) {
+                total += list.size;
+            }
+            return total;
+        }
+
+        /**
+         * Rough retained size: posting arrays, term strings and map entries, per-doc arrays and id map.
+         */
+        long estimateBytes() {
+            long bytes = 0;
+            for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                bytes += 32 + 40 + entry.getKey().length();          // map node + String
+                bytes += 24 + 2L * (16 + 4L * entry.getValue().docIds.length);
+            }
+            bytes += (long) docIdsByForumId.size() * (32 + 16 + 64); // map node + Integer + ObjectId hex String
+            bytes += 16 + 4L * forumIds.length + 16 + 8L * createdAt.length;
+            bytes += live.size() / 8;
+            return bytes;
+        }
+
+        private BitSet tagFilter(Collection<String> tags) {
+            if (tags == null || tags.isEmpty()) {
+                return null;
+            }
+            BitSet allowed = new BitSet(nextDocId);
+            for (String tag : tags) {
+                Postings list = postings.get(TAG_PREFIX + tag.toLowerCase(Locale.ROOT));
+                if (list != null) {
+                    for (int i = 0; i < list.size; i++) {
+                        allowed.set(list.docIds[i]);
+                    }
+                }
+            }
+            return allowed;
+        }
+
+        // higher score first, then newer forum first
+        private int compareHits(int[] a, int[] b) {
+            int byScore = Integer.compare(a[1], b[1]);
+            return byScore != 0 ? byScore : Long.compare(createdAt[a[0]], createdAt[b[0]]);
+        }
+
+        private void addTerms(int docId, List<String> terms, int weight) {
+            for (String term : terms) {
+                posting(term).add(docId, weight);
+            }
+        }
+
+        private Postings posting(String term) {
+            return postings.computeIfAbsent(term, t -> new Postings());
+        }
+    }
+
+    /**
+     * Growable (docId, weight) arrays in ascending docId order. Repeated adds for the
+     * current docId accumulate weight instead of adding an entry.
+     */
+    private static final class Postings {
+        private int[] docIds = new int[4];
+        private int[] weights = new int[4];
+        private int size;
+
+        void add(int docId, int weight) {
+            if (size > 0 && docIds[size - 1] == docId) {
+                weights[size - 1] += weight;
+                return;
+            }
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docIds[size] = docId;
+            weights[size] = weight;
+            size++;
+        }
+
+        // first position >= from whose docId is >= target (galloping, then binary search)
+        int seek(int target, int from) {
+            int bound = 1;
+            while (from + bound < size && docIds[from + bound] < target) {
+                bound <<= 1;
+            }
+            int low = from + (bound >> 1);
+            int high = Math.min(from + bound, size - 1);
+            if (low > high) {
+                return size;
+            }
+            int pos = Arrays.binarySearch(docIds, low, high + 1, target);
+            return pos >= 0 ? pos : -pos - 1;
+        }
+    }
+}
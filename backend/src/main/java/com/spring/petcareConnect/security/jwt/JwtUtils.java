@@ -1,22 +1,27 @@
 package com.spring.petcareConnect.security.jwt;
 
 import com.spring.petcareConnect.entities.User;
+import com.spring.petcareConnect.security.service.UserDetailsImpl;
 import com.spring.petcareConnect.utils.PhoneUtils;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import com.spring.petcareConnect.config.AppConstants;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtUtils {
@@ -29,6 +34,18 @@ public class JwtUtils {
     @Value("${spring.jwt.expirationInSeconds}")
     private long jwtExpirationInSeconds;
 
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     public String getJwtFromHeaders(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (!StringUtils.hasText(bearerToken)) {
@@ -55,9 +72,52 @@ public class JwtUtils {
 
     // Specialized helpers
     public String generateLoginToken(UserDetails userDetails) {
+        if (userDetails instanceof UserDetailsImpl details && details.getId() != null) {
+            List<String> roles = details.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+            return generateLoginToken(details.getUsername(), details.getId(), roles, details.getSecurityVersion());
+        }
         return generateToken(userDetails.getUsername(), AppConstants.TOKEN_PURPOSE_LOGIN, jwtExpirationInSeconds);
     }
 
+    // Login token carrying uid/roles/ver so the request principal can be rebuilt without a user lookup
+    private String generateLoginToken(String subject, Long userId, List<String> roles, long securityVersion) {
+        return Jwts.builder()
+                .subject(subject)
+                .claim("purpose", AppConstants.TOKEN_PURPOSE_LOGIN)
+                .claim(AppConstants.CLAIM_USER_ID, userId)
+                .claim(AppConstants.CLAIM_ROLES, roles)
+                .claim(AppConstants.CLAIM_SECURITY_VERSION, securityVersion)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + jwtExpirationInSeconds * 1000))
+                .signWith(key())
+                .compact();
+    }
+
+    /**
+     * Rebuilds the principal from a login token's claims. Empty for tokens issued
+     * before uid/roles/ver were embedded, in which case the caller loads the user.
+     */
+    public Optional<UserDetailsImpl> getPrincipalFromClaims(Claims claims) {
+        if (!AppConstants.TOKEN_PURPOSE_LOGIN.equals(claims.get("purpose", String.class))) {
+            return Optional.empty();
+        }
+        Number userId = claims.get(AppConstants.CLAIM_USER_ID, Number.class);
+        Number securityVersion = claims.get(AppConstants.CLAIM_SECURITY_VERSION, Number.class);
+        List<?> roles = claims.get(AppConstants.CLAIM_ROLES, List.class);
+        if (userId == null || securityVersion == null || roles == null) {
+            return Optional.empty();
+        }
+        // the subject is the mobile number for users who signed up without an email
+        String subject = claims.getSubject();
+        boolean emailSubject = subject != null && subject.contains("@");
+        return Optional.of(UserDetailsImpl.fromClaims(
+                userId.longValue(),
+                emailSubject ? subject : null,
+                emailSubject ? null : subject,
+                roles.stream().map(String::valueOf).toList(),
+                securityVersion.longValue()));
+    }
+
     // In JwtUtils
     public boolean validateTempTokenForPhone(String token, String phone) {
         try {
@@ -98,9 +158,19 @@ public class JwtUtils {
             return false;
         }
 
+        return parseVerifiedClaims(authToken).isPresent();
+    }
+
+    // Parse and verify once; empty if the token is invalid or expired
+    public Optional<Claims> parseVerifiedClaims(String authToken) {
+        if (!StringUtils.hasText(authToken)) {
+            return Optional.empty();
+        }
+
         try {
-            parseToken(authToken); // will throw if invalid
-            return true;
+            return Optional.of(parseToken(authToken));
+        } catch (SignatureException ex) {
+            logger.error("Invalid JWT signature: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
             logger.error("Invalid JWT token: {}", ex.getMessage());
         } catch (ExpiredJwtException ex) {
@@ -110,7 +180,7 @@ public class JwtUtils {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
     }
 
     // Extract username (subject) from token
@@ -148,9 +218,7 @@ public class JwtUtils {
             throw new IllegalArgumentException("JWT token is empty");
         }
 
-        return Jwts.parser()
-                .verifyWith((SecretKey) key())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -177,17 +245,14 @@ public class JwtUtils {
         return getExpirationDateFromJwtToken(token).before(new Date());
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    private SecretKey key() {
+        return signingKey;
     }
 
     public String generateTokenFromUser(User user) {
-        UserDetails userDetails = org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail() == null ? user.getMobileNumber() : user.getEmail())
-                .password(user.getPassword() == null ? "" : user.getPassword())
-                .authorities(user.getRoles().stream().map(r -> r.getRoleName().name()).toArray(String[]::new))
-                .build();
-        return generateLoginToken(userDetails);
+        String subject = user.getEmail() == null ? user.getMobileNumber() : user.getEmail();
+        List<String> roles = user.getRoles().stream().map(r -> r.getRoleName().name()).toList();
+        return generateLoginToken(subject, user.getUserId(), roles, user.getSecurityVersion());
     }
 
 
@@ -0,0 +1,139 @@
+package com.spring.petcareConnect.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.spring.petcareConnect.security.service.UserDetailsImpl;
+import com.spring.petcareConnect.security.service.UserSecurityVersions;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Process-local cache of verified access tokens and the principal derived from them.
+ * <p>
+ * Keyed by the SHA-256 of the raw token so the bearer value itself is never retained.
+ * With {@code app.jwt.stateless-principal} enabled (the default) login tokens that carry
+ * {@code uid}/{@code roles}/{@code ver} claims are turned into a principal without loading
+ * the user; older tokens fall back to {@link UserDetailsService}.
+ * An entry lives until the token expires or {@code app.jwt.cache.max-ttl-seconds},
+ * whichever is sooner. Every resolution, hit or miss, is only honoured while the principal's
+ * security version is still current in {@link UserSecurityVersions}, which checks it against
+ * the persisted version and lock flag, so deleted, demoted and locked users are rejected on
+ * every node; otherwise the entry is dropped.
+ * <p>
+ * Hit/miss/eviction counts are published as {@code cache.*} meters with {@code cache=verifiedToken}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+    private static final String CACHE_NAME = "verifiedToken";
+
+    private final JwtUtils jwtUtils;
+    private final UserDetailsService userDetailsService;
+    private final UserSecurityVersions userSecurityVersions;
+    private final boolean statelessPrincipal;
+    private final Cache<String, VerifiedToken> cache;
+
+    public record VerifiedToken(Claims claims, UserDetails userDetails) {
+    }
+
+    public VerifiedTokenCache(JwtUtils jwtUtils,
+                              UserDetailsService userDetailsService,
+                              UserSecurityVersions userSecurityVersions,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.jwt.cache.max-size:20000}") long maxSize,
+                              @Value("${app.jwt.cache.max-ttl-seconds:300}") long maxTtlSeconds,
+                              @Value("${app.jwt.stateless-principal:true}") boolean statelessPrincipal) {
+        this.jwtUtils = jwtUtils;
+        this.userDetailsService = userDetailsService;
+        this.userSecurityVersions = userSecurityVersions;
+        this.statelessPrincipal = statelessPrincipal;
+        Duration maxTtl = Duration.ofSeconds(maxTtlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<String, VerifiedToken>creating((key, value) -> {
+                    Date expiration = value.claims().getExpiration();
+                    if (expiration == null) {
+                        return maxTtl;
+                    }
+                    Duration untilExpiry = Duration.ofMillis(Math.max(0L, expiration.getTime() - System.currentTimeMillis()));
+                    return untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+                }))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        logger.info("Verified token cache initialised with maxSize={} maxTtlSeconds={} statelessPrincipal={}",
+                maxSize, maxTtlSeconds, statelessPrincipal);
+    }
+
+    /**
+     * Returns the verified claims and principal for the token, verifying the signature
+     * only on a miss. Empty if the token is invalid, expired or carries a stale security version.
+     */
+    public Optional<VerifiedToken> resolve(String token) {
+        String key = fingerprint(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (isCurrent(cached)) {
+                return Optional.of(cached);
+            }
+            cache.invalidate(key);
+            logger.debug("Discarded cached token with stale security version for {}", cached.userDetails().getUsername());
+        }
+
+        Optional<Claims> claims = jwtUtils.parseVerifiedClaims(token);
+        if (claims.isEmpty() || claims.get().getSubject() == null) {
+            return Optional.empty();
+        }
+
+        Optional<? extends UserDetails> fromClaims = statelessPrincipal
+                ? jwtUtils.getPrincipalFromClaims(claims.get())
+                : Optional.empty();
+        UserDetails userDetails = fromClaims.isPresent()
+                ? fromClaims.get()
+                : userDetailsService.loadUserByUsername(claims.get().getSubject());
+        VerifiedToken verified = new VerifiedToken(claims.get(), userDetails);
+        if (!isCurrent(verified)) {
+            logger.debug("Rejected token with stale security version for {}", userDetails.getUsername());
+            return Optional.empty();
+        }
+        cache.put(key, verified);
+        return Optional.of(verified);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private boolean isCurrent(VerifiedToken verified) {
+        if (verified.userDetails() instanceof UserDetailsImpl details) {
+            return userSecurityVersions.isCurrent(details.getId(), details.getSecurityVersion());
+        }
+        return true;
+    }
+
+    private static String fingerprint(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
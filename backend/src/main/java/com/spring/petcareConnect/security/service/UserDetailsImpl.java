@@ -29,6 +29,7 @@ public class UserDetailsImpl implements UserDetails {
     private boolean accountNonLocked;
     private boolean accountNonExpired;
     private boolean credentialsNonExpired;
+    private long securityVersion;
     private Collection<? extends GrantedAuthority> authorities;
 
     public UserDetailsImpl(Long id, String email, String password,
@@ -60,7 +61,7 @@ public class UserDetailsImpl implements UserDetails {
         boolean accountNonExpired = true;
         boolean credentialsNonExpired = true;
 
-        return new UserDetailsImpl(
+        UserDetailsImpl userDetails = new UserDetailsImpl(
                 user.getUserId(),
                 user.getEmail(),
                 user.getPassword(),
@@ -73,6 +74,20 @@ public class UserDetailsImpl implements UserDetails {
                 user.getAvatarUrl(),
                 user.getMobileNumber()
         );
+        userDetails.setSecurityVersion(user.getSecurityVersion());
+        return userDetails;
+    }
+
+    // Principal rebuilt from login token claims; profile fields are not carried in the token.
+    // Only built for users UserSecurityVersions found unlocked at the token's version, so it is non-locked
+    public static UserDetailsImpl fromClaims(Long id, String email, String mobileNumber, Collection<String> roles, long securityVersion) {
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+        UserDetailsImpl userDetails = new UserDetailsImpl(id, email, null, authorities,
+                true, true, true, null, null, null, mobileNumber);
+        userDetails.setSecurityVersion(securityVersion);
+        return userDetails;
     }
 
     @Override
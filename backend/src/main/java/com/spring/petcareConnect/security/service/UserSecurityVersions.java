@@ -0,0 +1,105 @@
+package com.spring.petcareConnect.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.petcareConnect.entities.User;
+import com.spring.petcareConnect.repositories.jpa.UserRepository;
+import com.spring.petcareConnect.repositories.jpa.UserRepository.UserSecurityState;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Decides whether a principal derived from a given {@link User#getSecurityVersion()} is
+ * still valid.
+ * <p>
+ * Whenever a user's roles or lock state change, or the user is deleted, the caller bumps the
+ * stamp and saves the user. The check compares against the persisted {@code users.security_version}
+ * and lock flag through a small projection query, cached for {@code app.jwt.security-state.ttl-seconds},
+ * so revocation survives restarts and reaches every node within that TTL. A deleted or locked
+ * user is never current. On the node that made the change a bump takes effect as soon as the
+ * caller's transaction commits; a rolled-back bump is never applied. That minimum is only needed
+ * until tokens issued before the bump expire, so it is held for the JWT lifetime.
+ * <p>
+ * Hit/miss/eviction counts are published as {@code cache.*} meters with {@code cache=userSecurityState}.
+ */
+@Component
+public class UserSecurityVersions {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSecurityVersions.class);
+    private static final String CACHE_NAME = "userSecurityState";
+
+    private final UserRepository userRepository;
+    // userId -> lowest version still valid, from a committed bump on this node
+    private final Cache<Long, Long> minimumVersions;
+    // userId -> persisted state; empty once the user is gone
+    private final Cache<Long, Optional<UserSecurityState>> persisted;
+
+    public UserSecurityVersions(UserRepository userRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.jwt.cache.max-size:20000}") long maxSize,
+                                @Value("${app.jwt.security-state.ttl-seconds:5}") long ttlSeconds,
+                                @Value("${spring.jwt.expirationInSeconds}") long jwtExpirationInSeconds) {
+        this.userRepository = userRepository;
+        this.minimumVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(jwtExpirationInSeconds))
+                .build();
+        this.persisted = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, persisted, CACHE_NAME);
+    }
+
+    public boolean isCurrent(Long userId, long version) {
+        if (userId == null) {
+            return false;
+        }
+        Long minimum = minimumVersions.getIfPresent(userId);
+        if (minimum != null && version < minimum) {
+            return false;
+        }
+        Optional<UserSecurityState> state = persisted.get(userId, userRepository::findSecurityStateByUserId);
+        return state.isPresent()
+                && !Boolean.TRUE.equals(state.get().getAccountLocked())
+                && version >= state.get().getSecurityVersion();
+    }
+
+    /**
+     * Increments the user's stamp. The caller is responsible for saving the user; this node
+     * enforces the new stamp once the current transaction commits, or at once outside one.
+     */
+    public void bump(User user) {
+        long next = user.getSecurityVersion() + 1;
+        user.setSecurityVersion(next);
+        Long userId = user.getUserId();
+        if (userId != null) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        enforce(userId, next);
+                    }
+                });
+            } else {
+                enforce(userId, next);
+            }
+        }
+        logger.debug("Security version bumped to {} for userId={}", next, userId);
+    }
+
+    private void enforce(Long userId, long version) {
+        minimumVersions.asMap().merge(userId, version, Math::max);
+        persisted.invalidate(userId);
+    }
+}
@@ -1,5 +1,7 @@
 package com.spring.petcareConnect.services;
 
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
+import com.spring.petcareConnect.dtos.appointment.request.AppointmentRatingRequestDto;
 import com.spring.petcareConnect.dtos.appointment.request.AppointmentRequestDto;
 import com.spring.petcareConnect.dtos.appointment.request.AppointmentRescheduleRequestDto;
 import com.spring.petcareConnect.dtos.appointment.request.AppointmentUpdateRequestDto;
@@ -15,7 +17,11 @@ public interface AppointmentService {
 
     AppointmentListResponseDto getAllAppointmentsForUser(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
+    CursorPageResponseDto<AppointmentResponseDto> getAllAppointmentsForUserByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder);
+
     AppointmentResponseDto getAppointmentOfUserById(Long appointmentId);
 
     AppointmentResponseDto rescheduleAppointment(Long appointmentId, AppointmentRescheduleRequestDto appointmentRescheduleRequestDto);
+
+    AppointmentResponseDto rateAppointment(Long appointmentId, AppointmentRatingRequestDto appointmentRatingRequestDto);
 }
@@ -1,5 +1,6 @@
 package com.spring.petcareConnect.services;
 
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
 import com.spring.petcareConnect.dtos.forum.request.CommentCreateRequestDto;
 import com.spring.petcareConnect.dtos.forum.request.CommentUpdateRequestDto;
 import com.spring.petcareConnect.dtos.forum.response.CommentListResponseDto;
@@ -13,5 +14,7 @@ public interface CommentService {
 
     CommentListResponseDto getCommentsByForum(String forumId, Integer pageNumber, Integer pageSize,String sortBy,String sortOrder);
 
+    CursorPageResponseDto<CommentResponseDto> getCommentsByForumByCursor(String forumId, String cursor, Integer pageSize, String sortBy, String sortOrder);
+
     void deleteCommentForUser(String commentId);
 }
@@ -2,8 +2,14 @@ package com.spring.petcareConnect.services;
 
 import com.spring.petcareConnect.entities.User;
 import com.spring.petcareConnect.enums.EmailType;
-import com.spring.petcareConnect.services.impl.EmailServiceImpl;
+import com.spring.petcareConnect.notifications.EmailBatchResult;
+import com.spring.petcareConnect.notifications.EmailRequest;
+
+import java.util.List;
 
 public interface EmailService {
     void sendEmail(User user, EmailType type);
+
+    /** Sends many emails over a few SMTP connections; failures are reported per request, not thrown. */
+    EmailBatchResult sendEmails(List<EmailRequest> requests);
 }
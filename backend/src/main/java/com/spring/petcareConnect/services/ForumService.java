@@ -1,5 +1,6 @@
 package com.spring.petcareConnect.services;
 
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
 import com.spring.petcareConnect.dtos.forum.request.ForumCreateRequestDto;
 import com.spring.petcareConnect.dtos.forum.request.ForumUpdateRequestDto;
 import com.spring.petcareConnect.dtos.forum.response.ForumListResponseDto;
@@ -13,6 +14,10 @@ public interface ForumService {
 
     ForumListResponseDto getAllForums(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
+    CursorPageResponseDto<ForumResponseDto> getAllForumsOfUserByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder);
+
+    CursorPageResponseDto<ForumResponseDto> getAllForumsByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder);
+
     ForumResponseDto createForumForUser(ForumCreateRequestDto forumCreateRequestDto);
 
     ForumResponseDto updateForumForUser(String forumId, ForumUpdateRequestDto forumUpdateRequestDto);
@@ -1,5 +1,6 @@
 package com.spring.petcareConnect.services;
 
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
 import com.spring.petcareConnect.dtos.pet.request.PetRequestDto;
 import com.spring.petcareConnect.dtos.pet.response.PetListResponseDto;
 import com.spring.petcareConnect.dtos.pet.response.PetResponseDto;
@@ -15,6 +16,8 @@ public interface PetService {
 
     PetListResponseDto getAllPetsForUser(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
+    CursorPageResponseDto<PetResponseDto> getAllPetsForUserByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder);
+
     PetResponseDto getPetOfUserById(Long petId);
 
     void deletePetForUser(Long petId);
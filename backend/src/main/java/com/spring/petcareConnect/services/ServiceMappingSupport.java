@@ -1,27 +1,64 @@
 package com.spring.petcareConnect.services;
 
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
+import com.spring.petcareConnect.exceptions.APIException;
+import com.spring.petcareConnect.mappers.DtoMapper;
+import com.spring.petcareConnect.utils.CursorUtils;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 @Component
 public class ServiceMappingSupport {
 
     private final ModelMapper modelMapper;
 
-    public ServiceMappingSupport(ModelMapper modelMapper) {
+    // Registered entity -> DTO mappers, keyed by their exact declared types
+    private final Map<MappingKey, DtoMapper<?, ?>> mappers;
+
+    // Resolution cache per runtime source class (covers Hibernate proxy subclasses)
+    private final Map<MappingKey, Optional<DtoMapper<?, ?>>> resolved = new ConcurrentHashMap<>();
+
+    public ServiceMappingSupport(ModelMapper modelMapper, List<DtoMapper<?, ?>> dtoMappers) {
         this.modelMapper = modelMapper;
+        Map<MappingKey, DtoMapper<?, ?>> registry = new HashMap<>();
+        for (DtoMapper<?, ?> mapper : dtoMappers) {
+            MappingKey key = new MappingKey(mapper.sourceType(), mapper.targetType());
+            if (registry.putIfAbsent(key, mapper) != null) {
+                throw new IllegalStateException("Duplicate DtoMapper registered for " + key);
+            }
+        }
+        this.mappers = Map.copyOf(registry);
     }
 
+    /**
+     * Maps with the registered {@link DtoMapper} for the pair when there is one, and falls
+     * back to ModelMapper for everything else.
+     */
+    @SuppressWarnings("unchecked")
     public <D> D mapToDto(Object source, Class<D> dtoClass) {
         if (source == null) {
             return null;
         }
+        Optional<DtoMapper<?, ?>> mapper = resolved.computeIfAbsent(
+                new MappingKey(source.getClass(), dtoClass), this::findMapper);
+        if (mapper.isPresent()) {
+            return ((DtoMapper<Object, D>) mapper.get()).map(source);
+        }
         return modelMapper.map(source, dtoClass);
     }
 
@@ -40,6 +77,33 @@ public class ServiceMappingSupport {
         return PageRequest.of(safePageNumber, safePageSize, Sort.by(new Sort.Order(direction, safeSortBy)));
     }
 
+    /**
+     * Keyset (cursor) variant of {@link #buildPageable}: the sort is restricted to
+     * {@code sortableProperties} and always ends with the id, so the seek predicate is unique.
+     */
+    public KeysetRequest buildKeysetRequest(String cursor, Integer pageSize, String sortBy, String sortOrder,
+                                            String idProperty, Set<String> sortableProperties) {
+        int safePageSize = pageSize == null || pageSize <= 0 ? 20 : Math.min(pageSize, 100);
+        String safeSortBy = StringUtils.hasText(sortBy) ? sortBy : idProperty;
+        if (!safeSortBy.equals(idProperty) && !sortableProperties.contains(safeSortBy)) {
+            throw new APIException("Cursor pagination cannot sort by '" + safeSortBy + "'; allowed: " + idProperty + ", " + String.join(", ", sortableProperties));
+        }
+        Sort.Direction direction = "asc".equalsIgnoreCase(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, safeSortBy);
+        if (!safeSortBy.equals(idProperty)) {
+            sort = sort.and(Sort.by(direction, idProperty));
+        }
+        return new KeysetRequest(CursorUtils.decode(cursor, sort), Limit.of(safePageSize), sort);
+    }
+
+    public <T, D> CursorPageResponseDto<D> buildCursorResponse(Window<T> window, KeysetRequest request, Function<List<T>, List<D>> mapper) {
+        List<T> content = window.getContent();
+        String nextCursor = window.hasNext() && !content.isEmpty()
+                ? CursorUtils.encode(window.positionAt(content.size() - 1), request.sort())
+                : null;
+        return new CursorPageResponseDto<>(mapper.apply(content), content.size(), nextCursor, nextCursor != null);
+    }
+
     public <T, D> List<D> mapToDtoList(List<T> sourceList, Class<D> dtoClass) {
         if (sourceList == null || sourceList.isEmpty()) {
             return List.of();
@@ -48,4 +112,20 @@ public class ServiceMappingSupport {
                 .map(item -> mapToDto(item, dtoClass))
                 .toList();
     }
+
+    private Optional<DtoMapper<?, ?>> findMapper(MappingKey key) {
+        for (Class<?> type = key.source(); type != null && type != Object.class; type = type.getSuperclass()) {
+            DtoMapper<?, ?> mapper = mappers.get(new MappingKey(type, key.target()));
+            if (mapper != null) {
+                return Optional.of(mapper);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public record KeysetRequest(ScrollPosition position, Limit limit, Sort sort) {
+    }
+
+    private record MappingKey(Class<?> source, Class<?> target) {
+    }
 }
@@ -1,17 +1,27 @@
 package com.spring.petcareConnect.services;
 
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
+import com.spring.petcareConnect.dtos.ETagged;
 import com.spring.petcareConnect.dtos.specialist.request.AdminSpecialistUpdateRequest;
 import com.spring.petcareConnect.dtos.specialist.request.SpecialistProfileUpdateRequestDto;
+import com.spring.petcareConnect.dtos.specialist.request.SpecialistSearchRequestDto;
 import com.spring.petcareConnect.dtos.specialist.response.SpecialistDashboardDto;
 import com.spring.petcareConnect.dtos.specialist.response.SpecialistListResponseDto;
 import com.spring.petcareConnect.dtos.specialist.response.SpecialistResponseDto;
+import com.spring.petcareConnect.dtos.specialist.response.SpecialistSlotsResponseDto;
+
+import java.time.LocalDate;
 
 public interface SpecialistService {
-    SpecialistListResponseDto getSpecialists(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+    ETagged<SpecialistListResponseDto> getSpecialists(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+
+    ETagged<SpecialistResponseDto> getSpecialistById(Long specialistId);
+
+    CursorPageResponseDto<SpecialistResponseDto> searchSpecialists(SpecialistSearchRequestDto filters, String cursor, Integer pageSize, String sortBy, String sortOrder);
 
-    SpecialistResponseDto getSpecialistById(Long specialistId);
+    SpecialistDashboardDto getSpecialistDashboard(LocalDate from, LocalDate to);
 
-    SpecialistDashboardDto getSpecialistDashboard();
+    SpecialistSlotsResponseDto getFreeSlots(Long specialistId, LocalDate from, LocalDate to);
 
     SpecialistResponseDto updateSpecialistByAdmin(Long specialistId, AdminSpecialistUpdateRequest request);
 
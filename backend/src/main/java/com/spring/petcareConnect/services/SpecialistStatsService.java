@@ -0,0 +1,16 @@
+package com.spring.petcareConnect.services;
+
+import com.spring.petcareConnect.entities.Specialist;
+import com.spring.petcareConnect.enums.AppointmentStatus;
+
+public interface SpecialistStatsService {
+    void initialize(Long specialistId);
+
+    void recordBooked(Specialist specialist, AppointmentStatus status);
+
+    void recordStatusChange(Specialist specialist, AppointmentStatus previous, AppointmentStatus current);
+
+    void recordRating(Long specialistId, Integer previousRating, Integer rating);
+
+    int reconcile();
+}
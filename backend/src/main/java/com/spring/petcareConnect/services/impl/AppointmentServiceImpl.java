@@ -1,10 +1,17 @@
 package com.spring.petcareConnect.services.impl;
 
+import com.spring.petcareConnect.availability.AvailabilityEngine;
+import com.spring.petcareConnect.availability.BookingLockManager;
+import com.spring.petcareConnect.cache.AuthorSummaryCache;
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
+import com.spring.petcareConnect.dtos.appointment.request.AppointmentRatingRequestDto;
 import com.spring.petcareConnect.dtos.appointment.request.AppointmentRequestDto;
 import com.spring.petcareConnect.dtos.appointment.request.AppointmentRescheduleRequestDto;
 import com.spring.petcareConnect.dtos.appointment.request.AppointmentUpdateRequestDto;
+import com.spring.petcareConnect.dtos.appointment.response.AppointmentConflictDto;
 import com.spring.petcareConnect.dtos.appointment.response.AppointmentListResponseDto;
 import com.spring.petcareConnect.dtos.appointment.response.AppointmentResponseDto;
+import com.spring.petcareConnect.dtos.profile.response.AuthorSummaryDto;
 import com.spring.petcareConnect.entities.Appointment;
 import com.spring.petcareConnect.entities.Pet;
 import com.spring.petcareConnect.entities.Specialist;
@@ -13,6 +20,7 @@ import com.spring.petcareConnect.enums.AppointmentStatus;
 import com.spring.petcareConnect.exceptions.APIException;
 import com.spring.petcareConnect.exceptions.ConflictException;
 import com.spring.petcareConnect.exceptions.ResourceNotFoundException;
+import com.spring.petcareConnect.reminders.AppointmentReminderQueue;
 import com.spring.petcareConnect.repositories.jpa.AppointmentRepository;
 import com.spring.petcareConnect.repositories.jpa.PetRepository;
 import com.spring.petcareConnect.repositories.jpa.SpecialistRepository;
@@ -20,22 +28,32 @@ import com.spring.petcareConnect.repositories.jpa.UserRepository;
 import com.spring.petcareConnect.services.AppointmentService;
 import com.spring.petcareConnect.services.NotificationService;
 import com.spring.petcareConnect.services.ServiceMappingSupport;
+import com.spring.petcareConnect.services.ServiceMappingSupport.KeysetRequest;
+import com.spring.petcareConnect.services.SpecialistStatsService;
 import com.spring.petcareConnect.utils.AuthUtils;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 
 @Service
 public class AppointmentServiceImpl implements AppointmentService {
 
     private static final Logger logger = LoggerFactory.getLogger(AppointmentServiceImpl.class);
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("appointmentDate", "createdAt");
 
     private final PetRepository petRepository;
     private final SpecialistRepository specialistRepository;
@@ -43,27 +61,42 @@ public class AppointmentServiceImpl implements AppointmentService {
     private final AppointmentRepository appointmentRepository;
     private final NotificationService notificationService;
     private final ServiceMappingSupport mappingSupport;
+    private final AuthorSummaryCache authorSummaryCache;
+    private final AvailabilityEngine availabilityEngine;
+    private final BookingLockManager bookingLockManager;
+    private final SpecialistStatsService specialistStatsService;
+    private final AppointmentReminderQueue appointmentReminderQueue;
 
     public AppointmentServiceImpl(PetRepository petRepository,
                                   SpecialistRepository specialistRepository,
                                   UserRepository userRepository,
                                   AppointmentRepository appointmentRepository, NotificationService notificationService,
-                                  ServiceMappingSupport mappingSupport) {
+                                  ServiceMappingSupport mappingSupport,
+                                  AuthorSummaryCache authorSummaryCache,
+                                  AvailabilityEngine availabilityEngine,
+                                  BookingLockManager bookingLockManager,
+                                  SpecialistStatsService specialistStatsService,
+                                  AppointmentReminderQueue appointmentReminderQueue) {
         this.petRepository = petRepository;
         this.specialistRepository = specialistRepository;
         this.userRepository = userRepository;
         this.appointmentRepository = appointmentRepository;
         this.notificationService = notificationService;
         this.mappingSupport = mappingSupport;
+        this.authorSummaryCache = authorSummaryCache;
+        this.availabilityEngine = availabilityEngine;
+        this.bookingLockManager = bookingLockManager;
+        this.specialistStatsService = specialistStatsService;
+        this.appointmentReminderQueue = appointmentReminderQueue;
     }
 
     @Override
     @Transactional
     public AppointmentResponseDto createAppointment(AppointmentRequestDto appointmentRequestDto) {
-        String email = AuthUtils.loggedInEmail()
+        Long userId = AuthUtils.loggedInUserId()
                 .orElseThrow(() -> new APIException("No logged-in user"));
 
-        User user = getUserByEmailOrThrow(email);
+        User user = userRepository.getReferenceById(userId);
 
         Pet pet = petRepository.findByPetIdAndPetOwner(appointmentRequestDto.getPetId(), user)
                 .orElseThrow(() -> new ResourceNotFoundException("Pet", "Id", appointmentRequestDto.getPetId()));
@@ -84,11 +117,20 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new ConflictException("Appointment time must be within specialist working hours.");
         }
 
-        if (appointmentRepository.isSpecialistBusy(specialist.getSpecialistId(), startTime, endTime)) {
+        checkSlotAvailable(availabilityEngine.reserve(specialist, startTime, endTime),
+                specialist, pet.getPetId(), startTime, endTime, null);
+
+        // held until commit, so no other booking for this specialist can slip in after the check
+        bookingLockManager.lockSpecialist(specialist.getSpecialistId());
+        AppointmentConflictDto conflict = appointmentRepository.findConflicts(
+                specialist.getSpecialistId(), pet.getPetId(), startTime, endTime, null);
+        if (conflict.specialistBusy()) {
+            // booked elsewhere without the bitmap knowing; re-read the day on next use
+            availabilityEngine.invalidate(specialist.getSpecialistId(), startTime.toLocalDate());
             throw new ConflictException("Specialist is already booked during this time.");
         }
 
-        if (appointmentRepository.isPetBusy(pet.getPetId(), startTime, endTime)) {
+        if (conflict.petBusy()) {
             throw new ConflictException(pet.getPetName() + " already has another appointment at this time.");
         }
 
@@ -100,8 +142,10 @@ public class AppointmentServiceImpl implements AppointmentService {
         appointment.setDuration(slotDuration);
         appointment.setNotes(appointmentRequestDto.getNotes() != null ? appointmentRequestDto.getNotes().trim() : null);
         appointment.setAppointmentStatus(appointmentRequestDto.getAppointmentStatus());
+        appointmentReminderQueue.schedule(appointment);
 
-        Appointment saved = appointmentRepository.save(appointment);
+        Appointment saved = saveBooking(appointment);
+        specialistStatsService.recordBooked(specialist, saved.getAppointmentStatus());
 
         notificationService.sendAppointmentCreated(saved);
 
@@ -116,13 +160,13 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     @Transactional
     public AppointmentResponseDto updateAppointment(Long appointmentId, AppointmentUpdateRequestDto appointmentUpdateRequestDto) {
-        String email = AuthUtils.loggedInEmail() .orElseThrow(() -> new APIException("No logged-in user"));
+        Long userId = AuthUtils.loggedInUserId() .orElseThrow(() -> new APIException("No logged-in user"));
 
-        User user = getUserByEmailOrThrow(email);
+        User user = userRepository.getReferenceById(userId);
         Appointment appointment = appointmentRepository.findByAppointmentIdAndPetOwner(appointmentId, user)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment", "Id", appointmentId + " for current user"));
 
-        if (!appointment.getPetOwner().getUserId().equals(user.getUserId())) {
+        if (!appointment.getPetOwner().getUserId().equals(userId)) {
             throw new APIException("You cannot update someone else's appointment.");
         }
 
@@ -144,14 +188,14 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     @Transactional
     public AppointmentResponseDto rescheduleAppointment(Long appointmentId, AppointmentRescheduleRequestDto appointmentRescheduleRequestDto) {
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> new APIException("No logged-in user"));
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> new APIException("No logged-in user"));
 
-        User user = getUserByEmailOrThrow(email);
+        User user = userRepository.getReferenceById(userId);
         Appointment appointment = appointmentRepository.findByAppointmentIdAndPetOwner(appointmentId, user)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Appointment", "Id", appointmentId + " for current user"));
 
-        if (!appointment.getPetOwner().getUserId().equals(user.getUserId())) {
+        if (!appointment.getPetOwner().getUserId().equals(userId)) {
             throw new APIException("You cannot reschedule someone else's appointment.");
         }
 
@@ -168,20 +212,41 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new ConflictException("Appointment time must be within specialist working hours.");
         }
 
-        if (appointmentRepository.isSpecialistBusy(specialist.getSpecialistId(), newStartTime, newEndTime)) {
+        // the appointment being moved must not conflict with its own current slot
+        LocalDateTime previousStart = appointment.getAppointmentDate();
+        LocalDateTime previousEnd = previousStart.plusMinutes(appointment.getDuration());
+        boolean overlapsPreviousSlot = newStartTime.isBefore(previousEnd) && newEndTime.isAfter(previousStart);
+        if (!overlapsPreviousSlot) {
+            checkSlotAvailable(availabilityEngine.reserve(specialist, newStartTime, newEndTime),
+                    specialist, appointment.getPet().getPetId(), newStartTime, newEndTime, appointmentId);
+        }
+
+        bookingLockManager.lockSpecialist(specialist.getSpecialistId());
+        AppointmentConflictDto conflict = appointmentRepository.findConflicts(
+                specialist.getSpecialistId(), appointment.getPet().getPetId(), newStartTime, newEndTime, appointmentId);
+        if (conflict.specialistBusy()) {
+            availabilityEngine.invalidate(specialist.getSpecialistId(), newStartTime.toLocalDate());
             throw new ConflictException("Specialist is already booked during this time.");
         }
 
-        if (appointmentRepository.isPetBusy(appointment.getPet().getPetId(), newStartTime, newEndTime)) {
+        if (conflict.petBusy()) {
             throw new ConflictException(
                     appointment.getPet().getPetName() + " already has another appointment at this time.");
         }
 
+        AppointmentStatus previousStatus = appointment.getAppointmentStatus();
         appointment.setAppointmentDate(newStartTime);
         appointment.setDuration(specialist.getSlotDuration());
         appointment.setAppointmentStatus(AppointmentStatus.RESCHEDULED);
+        appointmentReminderQueue.schedule(appointment);
+        // old slot is freed (and the new day re-read if the move stayed inside the old slot)
+        availabilityEngine.invalidateAfterCommit(specialist.getSpecialistId(), previousStart.toLocalDate());
+        if (overlapsPreviousSlot) {
+            availabilityEngine.invalidateAfterCommit(specialist.getSpecialistId(), newStartTime.toLocalDate());
+        }
 
-        Appointment saved = appointmentRepository.save(appointment);
+        Appointment saved = saveBooking(appointment);
+        specialistStatsService.recordStatusChange(specialist, previousStatus, AppointmentStatus.RESCHEDULED);
         notificationService.sendAppointmentRescheduled(saved);
 
         AppointmentResponseDto responseDto = mappingSupport.mapToDto(saved, AppointmentResponseDto.class);
@@ -195,18 +260,22 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     @Transactional
     public AppointmentResponseDto cancelAppointment(Long appointmentId) {
-        String email = AuthUtils.loggedInEmail()
+        Long userId = AuthUtils.loggedInUserId()
                 .orElseThrow(() -> new APIException("No logged-in user"));
 
-        User user = getUserByEmailOrThrow(email);
+        User user = userRepository.getReferenceById(userId);
 
         Appointment appointment = appointmentRepository.findByAppointmentIdAndPetOwner(appointmentId, user)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Appointment", "Id", appointmentId + " for current user"));
 
         Specialist specialist = appointment.getSpecialist();
+        AppointmentStatus previousStatus = appointment.getAppointmentStatus();
         appointment.setAppointmentStatus(AppointmentStatus.CANCELLED);
+        appointmentReminderQueue.schedule(appointment);
         Appointment saved = appointmentRepository.save(appointment);
+        availabilityEngine.invalidateAfterCommit(specialist.getSpecialistId(), appointment.getAppointmentDate().toLocalDate());
+        specialistStatsService.recordStatusChange(specialist, previousStatus, AppointmentStatus.CANCELLED);
 
         notificationService.sendAppointmentCancelled(saved);
 
@@ -218,72 +287,181 @@ public class AppointmentServiceImpl implements AppointmentService {
         return responseDto;
     }
 
+    @Override
+    @Transactional
+    public AppointmentResponseDto rateAppointment(Long appointmentId, AppointmentRatingRequestDto appointmentRatingRequestDto) {
+        Long userId = AuthUtils.loggedInUserId()
+                .orElseThrow(() -> new APIException("No logged-in user"));
+
+        User user = userRepository.getReferenceById(userId);
+
+        Appointment appointment = appointmentRepository.findByAppointmentIdAndPetOwner(appointmentId, user)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Appointment", "Id", appointmentId + " for current user"));
+
+        AppointmentStatus previousStatus = appointment.getAppointmentStatus();
+        if (previousStatus == AppointmentStatus.CANCELLED || previousStatus == AppointmentStatus.NO_SHOW) {
+            throw new ConflictException("Only attended appointments can be rated.");
+        }
+        if (appointment.getEndTime() == null || appointment.getEndTime().isAfter(LocalDateTime.now())) {
+            throw new ConflictException("An appointment can only be rated after it has ended.");
+        }
+
+        // rating an appointment that has ended marks it completed
+        Specialist specialist = appointment.getSpecialist();
+        Integer previousRating = appointment.getRating();
+        appointment.setRating(appointmentRatingRequestDto.getRating());
+        appointment.setAppointmentStatus(AppointmentStatus.COMPLETED);
+        appointmentReminderQueue.schedule(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+
+        if (previousStatus != AppointmentStatus.COMPLETED) {
+            specialistStatsService.recordStatusChange(specialist, previousStatus, AppointmentStatus.COMPLETED);
+        }
+        specialistStatsService.recordRating(specialist.getSpecialistId(), previousRating, appointmentRatingRequestDto.getRating());
+
+        AppointmentResponseDto responseDto = mappingSupport.mapToDto(saved, AppointmentResponseDto.class);
+        responseDto.setPetName(appointment.getPet().getPetName());
+        responseDto.setSpecialistFirstName(specialist.getUser().getFirstName());
+        responseDto.setSpecialistLastName(specialist.getUser().getLastName());
+
+        return responseDto;
+    }
+
     @Override
     public AppointmentListResponseDto getAllAppointmentsForUser(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
         logger.info("Fetching all appointments for user with pagination page={} size={} sortBy={} sortOrder={}",
                 pageNumber, pageSize, sortBy, sortOrder);
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> {
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
             logger.error("No logged-in user found during appointment list retrieval");
             return new APIException("No logged-in user");
         });
-        User user = getUserByEmailOrThrow(email);
+        User user = userRepository.getReferenceById(userId);
 
         Pageable pageable = mappingSupport.buildPageable(pageNumber, pageSize, sortBy, sortOrder);
         Page<Appointment> appointmentPage = appointmentRepository.findAllByPetOwner(user, pageable);
-        logger.debug("Found {} appointments for user {}", appointmentPage.getTotalElements(), email);
+        logger.debug("Found {} appointments for user {}", appointmentPage.getTotalElements(), userId);
         return buildResponse(appointmentPage);
     }
 
+    @Override
+    public CursorPageResponseDto<AppointmentResponseDto> getAllAppointmentsForUserByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder) {
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
+            logger.error("No logged-in user found during appointment list retrieval");
+            return new APIException("No logged-in user");
+        });
+        User user = userRepository.getReferenceById(userId);
+
+        KeysetRequest request = mappingSupport.buildKeysetRequest(cursor, pageSize, sortBy, sortOrder, "appointmentId", CURSOR_SORT_PROPERTIES);
+        Window<Appointment> window = appointmentRepository.findAllByPetOwner(user, request.position(), request.limit(), request.sort());
+        logger.debug("Fetched window of {} appointments for user {}", window.size(), userId);
+        return mappingSupport.buildCursorResponse(window, request, this::mapWithParticipants);
+    }
+
     @Override
     public AppointmentResponseDto getAppointmentOfUserById(Long appointmentId) {
         logger.info("Fetching appointment with id {}", appointmentId);
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> {
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
             logger.error("No logged-in user found during appointment fetch");
             return new APIException("No logged-in user");
         });
-        User user = getUserByEmailOrThrow(email);
+        User user = userRepository.getReferenceById(userId);
 
         Appointment appointment = appointmentRepository.findByAppointmentIdAndPetOwner(appointmentId, user).orElseThrow(() -> {
             logger.error("Appointment not found with id {}", appointmentId);
             return new ResourceNotFoundException("Appointment", "id", appointmentId);
         });
         logger.info("Successfully fetched appointment '{}' with id {}", appointment.getPet().getPetName(), appointment.getAppointmentId());
-        AppointmentResponseDto dto = mappingSupport.mapToDto(appointment, AppointmentResponseDto.class);
+        return mapWithParticipants(List.of(appointment)).get(0);
+    }
 
-        if (appointment.getSpecialist() != null && appointment.getSpecialist().getUser() != null) {
-            dto.setSpecialistFirstName(appointment.getSpecialist().getUser().getFirstName());
-            dto.setSpecialistLastName(appointment.getSpecialist().getUser().getLastName());
+    /**
+     * Flushes right away so an overlap rejected by the optional exclusion constraint surfaces
+     * here as a conflict rather than as a failed commit.
+     */
+    private Appointment saveBooking(Appointment appointment) {
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException ex) {
+            String cause = ex.getMostSpecificCause().getMessage();
+            if (cause == null || !cause.contains(Appointment.NO_OVERLAP_CONSTRAINT)) {
+                throw ex;
+            }
+            availabilityEngine.invalidate(appointment.getSpecialist().getSpecialistId(), appointment.getAppointmentDate().toLocalDate());
+            throw new ConflictException("Specialist is already booked during this time.", ex);
         }
+    }
 
-        if (appointment.getPetOwner() != null) {
-            dto.setPetOwnerFirstName(appointment.getPetOwner().getFirstName());
-            dto.setPetOwnerLastName(appointment.getPetOwner().getLastName());
+    private void checkSlotAvailable(AvailabilityEngine.Reservation reservation, Specialist specialist, Long petId,
+                                    LocalDateTime start, LocalDateTime end, Long excludeAppointmentId) {
+        switch (reservation.outcome()) {
+            case TAKEN -> {
+                // the bitmap is node-local and can still hold a booking cancelled or moved on another
+                // node, so only a conflict the database confirms turns the request away here
+                if (appointmentRepository.findConflicts(specialist.getSpecialistId(), petId, start, end,
+                        excludeAppointmentId).specialistBusy()) {
+                    throw new ConflictException("Specialist is already booked during this time.");
+                }
+                // stale: re-read the day on next use and leave this request to the locked overlap query
+                availabilityEngine.invalidate(specialist.getSpecialistId(), start.toLocalDate());
+            }
+            case OUTSIDE_SCHEDULE -> throw new ConflictException("The specialist is not available on this day or at this time.");
+            default -> {
+                // RESERVED, or UNTRACKED and left to the overlap query
+            }
         }
-
-        return dto;
     }
 
     private AppointmentListResponseDto buildResponse(Page<Appointment> appointmentPage) {
-        List<AppointmentResponseDto> appointments = appointmentPage.getContent().stream().map(appointment -> {
+        List<AppointmentResponseDto> appointments = mapWithParticipants(appointmentPage.getContent());
+        return new AppointmentListResponseDto(appointments, appointmentPage.getNumber(), appointmentPage.getSize(), appointmentPage.getTotalElements(), appointmentPage.getTotalPages(), appointmentPage.isLast());
+    }
+
+    /**
+     * Maps appointments and fills specialist/owner names from the author cache.
+     * Only association ids are read, so the lazy specialist, specialist user and
+     * pet owner proxies are not initialized per row.
+     */
+    private List<AppointmentResponseDto> mapWithParticipants(List<Appointment> appointments) {
+        Set<Long> specialistIds = appointments.stream()
+                .map(Appointment::getSpecialist)
+                .filter(Objects::nonNull)
+                .map(Specialist::getSpecialistId)
+                .collect(Collectors.toSet());
+        Map<Long, Long> specialistUserIds = specialistIds.isEmpty() ? Map.of() :
+                specialistRepository.findUserRefsBySpecialistIdIn(specialistIds).stream()
+                        .collect(Collectors.toMap(SpecialistRepository.SpecialistUserRef::getSpecialistId,
+                                SpecialistRepository.SpecialistUserRef::getUserId));
+
+        Set<Long> userIds = new HashSet<>(specialistUserIds.values());
+        appointments.stream()
+                .map(Appointment::getPetOwner)
+                .filter(Objects::nonNull)
+                .map(User::getUserId)
+                .forEach(userIds::add);
+        Map<Long, AuthorSummaryDto> people = authorSummaryCache.getAll(userIds);
+
+        return appointments.stream().map(appointment -> {
             AppointmentResponseDto dto = mappingSupport.mapToDto(appointment, AppointmentResponseDto.class);
 
-            if (appointment.getSpecialist() != null && appointment.getSpecialist().getUser() != null) {
-                dto.setSpecialistFirstName(appointment.getSpecialist().getUser().getFirstName());
-                dto.setSpecialistLastName(appointment.getSpecialist().getUser().getLastName());
+            if (appointment.getSpecialist() != null) {
+                AuthorSummaryDto specialistUser = people.get(specialistUserIds.get(appointment.getSpecialist().getSpecialistId()));
+                if (specialistUser != null) {
+                    dto.setSpecialistFirstName(specialistUser.firstName());
+                    dto.setSpecialistLastName(specialistUser.lastName());
+                }
             }
 
             if (appointment.getPetOwner() != null) {
-                dto.setPetOwnerFirstName(appointment.getPetOwner().getFirstName());
-                dto.setPetOwnerLastName(appointment.getPetOwner().getLastName());
+                AuthorSummaryDto owner = people.get(appointment.getPetOwner().getUserId());
+                if (owner != null) {
+                    dto.setPetOwnerFirstName(owner.firstName());
+                    dto.setPetOwnerLastName(owner.lastName());
+                }
             }
 
             return dto;
         }).toList();
-        return new AppointmentListResponseDto(appointments, appointmentPage.getNumber(), appointmentPage.getSize(), appointmentPage.getTotalElements(), appointmentPage.getTotalPages(), appointmentPage.isLast());
     }
 
-    private User getUserByEmailOrThrow(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> ResourceNotFoundException.byField("User", "email", email));
-    }
 }
@@ -1,5 +1,6 @@
 package com.spring.petcareConnect.services.impl;
 
+import com.spring.petcareConnect.cache.SpecialistCatalog;
 import com.spring.petcareConnect.config.AppConstants;
 import com.spring.petcareConnect.dtos.auth.request.*;
 import com.spring.petcareConnect.dtos.auth.response.*;
@@ -10,13 +11,15 @@ import com.spring.petcareConnect.enums.AuthProvider;
 import com.spring.petcareConnect.enums.EmailType;
 import com.spring.petcareConnect.enums.RoleName;
 import com.spring.petcareConnect.exceptions.*;
+import com.spring.petcareConnect.notifications.NotificationOutbox;
 import com.spring.petcareConnect.repositories.jpa.RoleRepository;
 import com.spring.petcareConnect.repositories.jpa.SpecialistRepository;
 import com.spring.petcareConnect.repositories.jpa.UserRepository;
 import com.spring.petcareConnect.security.jwt.JwtUtils;
 import com.spring.petcareConnect.security.service.UserDetailsImpl;
+import com.spring.petcareConnect.security.service.UserSecurityVersions;
 import com.spring.petcareConnect.services.AuthService;
-import com.spring.petcareConnect.services.EmailService;
+import com.spring.petcareConnect.services.SpecialistStatsService;
 import com.spring.petcareConnect.utils.AuthUtils;
 import com.spring.petcareConnect.utils.EmailUtils;
 import io.jsonwebtoken.Claims;
@@ -28,6 +31,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,33 +49,43 @@ public class AuthServiceImpl implements AuthService {
     private final SpecialistRepository specialistRepository;
     private final ModelMapper modelMapper;
     private final PasswordEncoder passwordEncoder;
-    private final EmailService emailService;
+    private final NotificationOutbox notificationOutbox;
     private final JwtUtils jwtUtils;
     private final AuthenticationManager authenticationManager;
+    private final UserSecurityVersions userSecurityVersions;
+    private final SpecialistStatsService specialistStatsService;
+    private final SpecialistCatalog specialistCatalog;
 
     public AuthServiceImpl(UserRepository userRepository,
                            RoleRepository roleRepository,
                            SpecialistRepository specialistRepository,
                            ModelMapper modelMapper,
                            PasswordEncoder passwordEncoder,
-                           EmailService emailService,
-                           JwtUtils jwtUtils, AuthenticationManager authenticationManager) {
+                           NotificationOutbox notificationOutbox,
+                           JwtUtils jwtUtils, AuthenticationManager authenticationManager,
+                           UserSecurityVersions userSecurityVersions,
+                           SpecialistStatsService specialistStatsService,
+                           SpecialistCatalog specialistCatalog) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.specialistRepository = specialistRepository;
         this.modelMapper = modelMapper;
         this.passwordEncoder = passwordEncoder;
-        this.emailService = emailService;
+        this.notificationOutbox = notificationOutbox;
         this.jwtUtils = jwtUtils;
         this.authenticationManager = authenticationManager;
+        this.userSecurityVersions = userSecurityVersions;
+        this.specialistStatsService = specialistStatsService;
+        this.specialistCatalog = specialistCatalog;
     }
 
     @Override
+    @Transactional
     public RegistrationResponseDto registerUser(RegistrationRequestDto registrationRequestDto) {
         String email = EmailUtils.normalize(registrationRequestDto.getEmail());
         registrationRequestDto.setEmail(email);
 
-        if (userRepository.findByEmail(email).isPresent()) {
+        if (userRepository.existsByEmail(email)) {
             throw new DuplicateResourceException("User", "email", email);
         }
 
@@ -89,7 +103,7 @@ public class AuthServiceImpl implements AuthService {
         user.getRoles().add(userRole);
 
         user = userRepository.save(user);
-        emailService.sendEmail(user, EmailType.VERIFICATION);
+        notificationOutbox.enqueueEmail(user, EmailType.VERIFICATION);
 
         return new RegistrationResponseDto(user.getUserId(), user.getEmail(),
                 user.getFirstName(), user.getLastName());
@@ -124,6 +138,7 @@ public class AuthServiceImpl implements AuthService {
                     .orElseThrow(() -> new APIException("ROLE_ADMIN not configured"));
             user.getRoles().clear();
             user.getRoles().add(adminRole);
+            userSecurityVersions.bump(user);
             promotedToAdmin = true;
         }
 
@@ -194,13 +209,7 @@ public class AuthServiceImpl implements AuthService {
         user.setRefreshTokenExpiry(refreshExpiry);
         userRepository.save(user);
 
-        String newAccessToken = jwtUtils.generateLoginToken(
-                org.springframework.security.core.userdetails.User
-                        .withUsername(user.getEmail())
-                        .password(user.getPassword())
-                        .authorities(user.getRoles().stream().map(role -> role.getRoleName().name()).toArray(String[]::new))
-                        .build()
-        );
+        String newAccessToken = jwtUtils.generateTokenFromUser(user);
 
         if (!jwtUtils.validateTokenPurpose(newAccessToken, AppConstants.TOKEN_PURPOSE_LOGIN)) {
             throw new TokenException("Refresh", "invalid purpose");
@@ -245,6 +254,7 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
+    @Transactional
     public ForgetPasswordResponseDto forgotPassword(ForgetPasswordRequestDto forgetPasswordRequestDto) {
         String email = EmailUtils.normalize(forgetPasswordRequestDto.getEmail());
 
@@ -259,7 +269,7 @@ public class AuthServiceImpl implements AuthService {
         user.setResetTokenExpiry(LocalDateTime.now().plusMinutes(30));
         userRepository.save(user);
 
-        emailService.sendEmail(user, EmailType.RESET);
+        notificationOutbox.enqueueEmail(user, EmailType.RESET);
 
         ForgetPasswordResponseDto response = new ForgetPasswordResponseDto();
         response.setEmail(user.getEmail());
@@ -320,7 +330,7 @@ public class AuthServiceImpl implements AuthService {
         }
 
         String email = EmailUtils.normalize(dto.getEmail());
-        if (userRepository.findByEmail(email).isPresent()) {
+        if (userRepository.existsByEmail(email)) {
             throw new DuplicateResourceException("User", "email", email);
         }
 
@@ -352,6 +362,8 @@ public class AuthServiceImpl implements AuthService {
         specialist.setLocation(dto.getLocation());
 
         specialist = specialistRepository.save(specialist);
+        specialistStatsService.initialize(specialist.getSpecialistId());
+        specialistCatalog.invalidateAfterCommit();
 
         SpecialistResponseDto resp = new SpecialistResponseDto();
         resp.setSpecialistId(specialist.getSpecialistId());
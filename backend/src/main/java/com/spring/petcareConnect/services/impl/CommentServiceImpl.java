@@ -1,76 +1,80 @@
 package com.spring.petcareConnect.services.impl;
 
+import com.spring.petcareConnect.cache.AuthorSummaryCache;
+import com.spring.petcareConnect.cache.ForumCounterBuffer;
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
 import com.spring.petcareConnect.dtos.forum.request.CommentCreateRequestDto;
 import com.spring.petcareConnect.dtos.forum.request.CommentUpdateRequestDto;
 import com.spring.petcareConnect.dtos.forum.response.CommentListResponseDto;
 import com.spring.petcareConnect.dtos.forum.response.CommentResponseDto;
+import com.spring.petcareConnect.dtos.profile.response.AuthorSummaryDto;
 import com.spring.petcareConnect.entities.Comment;
-import com.spring.petcareConnect.entities.Forum;
-import com.spring.petcareConnect.entities.User;
 import com.spring.petcareConnect.exceptions.APIException;
 import com.spring.petcareConnect.exceptions.ResourceNotFoundException;
-import com.spring.petcareConnect.repositories.jpa.UserRepository;
 import com.spring.petcareConnect.repositories.mongo.CommentRepository;
 import com.spring.petcareConnect.repositories.mongo.ForumRepository;
 import com.spring.petcareConnect.services.CommentService;
 import com.spring.petcareConnect.services.ServiceMappingSupport;
+import com.spring.petcareConnect.services.ServiceMappingSupport.KeysetRequest;
 import com.spring.petcareConnect.utils.AuthUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class CommentServiceImpl implements CommentService {
 
-    private final UserRepository userRepository;
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("createdAt");
+
     private final ForumRepository forumRepository;
     private final CommentRepository commentRepository;
     private final ServiceMappingSupport mappingSupport;
+    private final AuthorSummaryCache authorSummaryCache;
+    private final ForumCounterBuffer forumCounterBuffer;
 
-    public CommentServiceImpl(UserRepository userRepository, ForumRepository forumRepository, CommentRepository commentRepository, ServiceMappingSupport mappingSupport) {
-        this.userRepository = userRepository;
+    public CommentServiceImpl(ForumRepository forumRepository, CommentRepository commentRepository, ServiceMappingSupport mappingSupport, AuthorSummaryCache authorSummaryCache, ForumCounterBuffer forumCounterBuffer) {
         this.forumRepository = forumRepository;
         this.commentRepository = commentRepository;
         this.mappingSupport = mappingSupport;
+        this.authorSummaryCache = authorSummaryCache;
+        this.forumCounterBuffer = forumCounterBuffer;
     }
 
     @Override
     public CommentResponseDto addComment(String forumId, CommentCreateRequestDto dto) {
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> new APIException("No logged-in user"));
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> new APIException("No logged-in user"));
 
-        Forum forum = forumRepository.findById(forumId)
-                .orElseThrow(() -> new ResourceNotFoundException("Forum", "id", forumId));
+        if (!forumRepository.existsById(forumId)) {
+            throw new ResourceNotFoundException("Forum", "id", forumId);
+        }
 
         Comment comment = new Comment();
-        comment.setForumId(forum.getForumId());
-        comment.setUserId(user.getUserId());
+        comment.setForumId(forumId);
+        comment.setUserId(userId);
         comment.setText(dto.getText());
         comment.setParentId(dto.getParentId());
         comment.setCreatedAt(Instant.now());
 
         comment = commentRepository.save(comment);
-
-        forum.setCommentCount(forum.getCommentCount() + 1);
-        forumRepository.save(forum);
+        forumCounterBuffer.recordCommentDelta(forumId, 1);
 
         return convertToCommentDTO(comment);
     }
 
     @Override
     public CommentResponseDto updateCommentForUser(String commentId, CommentUpdateRequestDto dto) {
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> new APIException("No logged-in user"));
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> new APIException("No logged-in user"));
 
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", commentId));
 
-        if (!comment.getUserId().equals(user.getUserId())) {
+        if (!comment.getUserId().equals(userId)) {
             throw new APIException("You cannot edit someone else’s comment");
         }
 
@@ -91,35 +95,53 @@ public class CommentServiceImpl implements CommentService {
             return new CommentListResponseDto(List.of(), pageNumber, pageSize, 0L, 1, true);
         }
 
+        Map<Long, AuthorSummaryDto> authors = authorSummaryCache.getAll(
+                commentPage.getContent().stream().map(Comment::getUserId).toList());
         List<CommentResponseDto> content = commentPage.getContent().stream()
-                .map(this::convertToCommentDTO)
+                .map(comment -> convertToCommentDTO(comment, authors.get(comment.getUserId())))
                 .toList();
 
         return new CommentListResponseDto(content, commentPage.getNumber(), commentPage.getSize(), commentPage.getTotalElements(), commentPage.getTotalPages(), commentPage.isLast());
     }
 
+    @Override
+    public CursorPageResponseDto<CommentResponseDto> getCommentsByForumByCursor(String forumId, String cursor, Integer pageSize, String sortBy, String sortOrder) {
+        KeysetRequest request = mappingSupport.buildKeysetRequest(cursor, pageSize, sortBy, sortOrder, "commentId", CURSOR_SORT_PROPERTIES);
+        Window<Comment> window = commentRepository.findAllByForumId(forumId, request.position(), request.limit(), request.sort());
+        return mappingSupport.buildCursorResponse(window, request, comments -> {
+            Map<Long, AuthorSummaryDto> authors = authorSummaryCache.getAll(comments.stream().map(Comment::getUserId).toList());
+            return comments.stream()
+                    .map(comment -> convertToCommentDTO(comment, authors.get(comment.getUserId())))
+                    .toList();
+        });
+    }
+
     @Override
     public void deleteCommentForUser(String commentId) {
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> new APIException("No logged-in user"));
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> new APIException("No logged-in user"));
 
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", commentId));
 
-        if (!comment.getUserId().equals(user.getUserId())) {
+        if (!comment.getUserId().equals(userId)) {
             throw new APIException("You cannot delete someone else’s comment");
         }
 
         commentRepository.delete(comment);
-
-        Forum forum = forumRepository.findById(comment.getForumId())
-                .orElseThrow(() -> new ResourceNotFoundException("Forum", "id", comment.getForumId()));
-        forum.setCommentCount(forum.getCommentCount() - 1);
-        forumRepository.save(forum);
+        forumCounterBuffer.recordCommentDelta(comment.getForumId(), -1);
     }
 
     private CommentResponseDto convertToCommentDTO(Comment comment) {
-        return mappingSupport.mapToDto(comment, CommentResponseDto.class);
+        return convertToCommentDTO(comment, authorSummaryCache.get(comment.getUserId()).orElse(null));
+    }
+
+    private CommentResponseDto convertToCommentDTO(Comment comment, AuthorSummaryDto author) {
+        CommentResponseDto dto = mappingSupport.mapToDto(comment, CommentResponseDto.class);
+        // names only: emails are not shown next to comments
+        if (author != null) {
+            dto.setFirstName(author.firstName());
+            dto.setLastName(author.lastName());
+        }
+        return dto;
     }
 }
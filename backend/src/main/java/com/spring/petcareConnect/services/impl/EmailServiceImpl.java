@@ -3,9 +3,17 @@ package com.spring.petcareConnect.services.impl;
 import com.spring.petcareConnect.entities.User;
 import com.spring.petcareConnect.enums.EmailType;
 import com.spring.petcareConnect.exceptions.EmailSendException;
+import com.spring.petcareConnect.notifications.EmailBatchResult;
+import com.spring.petcareConnect.notifications.EmailRequest;
 import com.spring.petcareConnect.services.EmailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -14,10 +22,31 @@ import org.thymeleaf.context.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Renders and sends the transactional emails.
+ * <p>
+ * The per-type subject, copy and link are built once at startup and the template is parsed into
+ * Thymeleaf's cache then, so a send only evaluates the context. {@link #sendEmails} groups
+ * messages into {@code app.mail.batch-size} batches handed to {@code JavaMailSender.send(MimeMessage...)},
+ * which delivers a whole batch over one SMTP connection; at most {@code app.mail.transport-pool-size}
+ * batches (connections) are in flight at once.
+ */
 @Service
 public class EmailServiceImpl implements EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailServiceImpl.class);
+    private static final String TEMPLATE = "email-template";
 
     @Value("${frontend.url}")
     private String frontendUrl;
@@ -27,118 +56,181 @@ public class EmailServiceImpl implements EmailService {
 
     private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
-
-    public EmailServiceImpl(JavaMailSender mailSender, TemplateEngine templateEngine) {
+    private final Map<EmailType, EmailContent> contents = new EnumMap<>(EmailType.class);
+    private final int batchSize;
+    private final Semaphore transports;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+    private final DistributionSummary batchThroughput;
+    private final Counter sent;
+    private final Counter failed;
+
+    public EmailServiceImpl(JavaMailSender mailSender, TemplateEngine templateEngine, MeterRegistry meterRegistry,
+                            @Value("${app.mail.batch-size:50}") int batchSize,
+                            @Value("${app.mail.transport-pool-size:4}") int transportPoolSize) {
         this.mailSender = mailSender;
         this.templateEngine = templateEngine;
+        this.batchSize = batchSize;
+        this.transports = new Semaphore(transportPoolSize);
+        this.batchTimer = meterRegistry.timer("email.batch.duration");
+        this.batchSizes = DistributionSummary.builder("email.batch.size").register(meterRegistry);
+        this.batchThroughput = DistributionSummary.builder("email.batch.throughput")
+                .baseUnit("messages.per.second").register(meterRegistry);
+        this.sent = meterRegistry.counter("email.sent");
+        this.failed = meterRegistry.counter("email.failed");
+    }
+
+    @PostConstruct
+    void init() {
+        contents.put(EmailType.VERIFICATION, new EmailContent("Email Verification",
+                "Thank you for registering. Please verify your email address by clicking below:",
+                user -> frontendUrl + "/user/verify-email?token=" + user.getVerificationToken(), "Verify Email"));
+        contents.put(EmailType.RESET, new EmailContent("Password Reset",
+                "You requested a password reset. Click below to set a new password:",
+                user -> frontendUrl + "/user/reset-password?token=" + user.getResetToken(), "Reset Password"));
+        contents.put(EmailType.APPOINTMENT_CREATED, new EmailContent("Appointment Confirmation",
+                "Your appointment has been successfully scheduled.", this::appointmentsLink, "View Appointment"));
+        EmailContent rescheduled = new EmailContent("Appointment Rescheduled",
+                "Your appointment has been rescheduled. Please check the new details below.",
+                this::appointmentsLink, "View Updated Appointment");
+        contents.put(EmailType.APPOINTMENT_UPDATED, rescheduled);
+        contents.put(EmailType.APPOINTMENT_RESCHEDULED, rescheduled);
+        contents.put(EmailType.APPOINTMENT_CANCELLED, new EmailContent("Appointment Cancelled",
+                "Your appointment has been cancelled.", this::appointmentsLink, "View Appointments"));
+        contents.put(EmailType.APPOINTMENT_REMINDER, new EmailContent("Appointment Reminder",
+                "This is a reminder for your upcoming appointment.", this::appointmentsLink, "View Appointment"));
+        contents.put(EmailType.APPOINTMENT_DIGEST, new EmailContent("Appointment Updates",
+                "There have been several updates to your appointments. Please check the latest details below.",
+                this::appointmentsLink, "View Appointments"));
+
+        // parse the template into the engine's cache before the first send
+        try {
+            render(new User(), contents.get(EmailType.APPOINTMENT_REMINDER));
+        } catch (RuntimeException e) {
+            logger.warn("Could not pre-render {}: {}", TEMPLATE, e.getMessage());
+        }
     }
 
     @Override
     public void sendEmail(User user, EmailType type) {
         logger.info("Preparing to send {} email to {}", type, user.getEmail());
-
-        String subject;
-        String message;
-        String actionLink;
-        String buttonText;
-        String template = "email-template";
-
         try {
-            switch (type) {
-                case VERIFICATION:
-                    subject = "Email Verification";
-                    message = "Thank you for registering. Please verify your email address by clicking below:";
-                    actionLink = frontendUrl + "/user/verify-email?token=" + user.getVerificationToken();
-                    buttonText = "Verify Email";
-//                    template = "verification-email";
-                    break;
-
-                case RESET:
-                    subject = "Password Reset";
-                    message = "You requested a password reset. Click below to set a new password:";
-                    actionLink = frontendUrl + "/user/reset-password?token=" + user.getResetToken();
-                    buttonText = "Reset Password";
-//                    template = "reset-email";
-                    break;
-
-                case APPOINTMENT_CREATED:
-                    subject = "Appointment Confirmation";
-                    message = "Your appointment has been successfully scheduled.";
-                    actionLink = frontendUrl + "/appointments/" + user.getUserId();
-                    buttonText = "View Appointment";
-//                    template = "appointment-created-email";
-                    break;
-
-                case APPOINTMENT_UPDATED:
-                    subject = "Appointment Rescheduled";
-                    message = "Your appointment has been rescheduled. Please check the new details below.";
-                    actionLink = frontendUrl + "/appointments/" + user.getUserId();
-                    buttonText = "View Updated Appointment";
-//                    template = "appointment-updated-email";
-                    break;
-
-                case APPOINTMENT_CANCELLED:
-                    subject = "Appointment Cancelled";
-                    message = "Your appointment has been cancelled.";
-                    actionLink = frontendUrl + "/appointments/" + user.getUserId();
-                    buttonText = "View Appointments";
-//                    template = "appointment-cancelled-email";
-                    break;
-
-                case APPOINTMENT_REMINDER:
-                    subject = "Appointment Reminder";
-                    message = "This is a reminder for your upcoming appointment.";
-                    actionLink = frontendUrl + "/appointments/" + user.getUserId();
-                    buttonText = "View Appointment";
-//                    template = "appointment-reminder-email";
-                    break;
-
-                default:
-                    logger.error("Unsupported email type {} for user {}", type, user.getUserId());
-                    throw new IllegalArgumentException("Unsupported email type: " + type);
-            }
-
-            sendEmailInternal(user, subject, message, actionLink, buttonText, template);
+            mailSender.send(buildMessage(user, type));
             logger.info("{} email successfully sent to {}", type, user.getEmail());
-
         } catch (Exception e) {
             logger.error("Failed to send {} email to {}", type, user.getEmail(), e);
             throw new EmailSendException("Failed to send " + type + " email", e);
         }
     }
 
-    private void sendEmailInternal(User user, String subject, String message, String actionLink, String buttonText, String template) {
-        logger.debug("Building email content for subject={} user={}", subject, user.getUserId());
+    @Override
+    public EmailBatchResult sendEmails(List<EmailRequest> requests) {
+        Map<Integer, Exception> failures = new ConcurrentHashMap<>();
+        List<PreparedEmail> prepared = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            EmailRequest request = requests.get(i);
+            try {
+                prepared.add(new PreparedEmail(i, buildMessage(request.user(), request.type())));
+            } catch (RuntimeException e) {
+                failures.put(i, new EmailSendException("Failed to build " + request.type() + " email", e));
+            }
+        }
 
-        Context context = new Context();
-        context.setVariable("user", user);
-        context.setVariable("title", subject);
-        context.setVariable("message", message);
-        context.setVariable("actionLink", actionLink);
-        context.setVariable("buttonText", buttonText);
-
-        if ("reset-email".equals(template) && user.getResetTokenExpiry() != null) {
-            context.setVariable("expiry", user.getResetTokenExpiry());
-            logger.debug("Added reset token expiry for user {}", user.getUserId());
+        List<List<PreparedEmail>> batches = new ArrayList<>();
+        for (int from = 0; from < prepared.size(); from += batchSize) {
+            batches.add(prepared.subList(from, Math.min(from + batchSize, prepared.size())));
         }
+        if (batches.size() == 1) {
+            sendBatch(batches.getFirst(), failures);
+        } else if (!batches.isEmpty()) {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                batches.forEach(batch -> executor.execute(() -> sendBatch(batch, failures)));
+            }
+        }
+        failed.increment(failures.size());
+        return new EmailBatchResult(requests.size() - failures.size(), Map.copyOf(failures));
+    }
 
+    private void sendBatch(List<PreparedEmail> batch, Map<Integer, Exception> failures) {
+        MimeMessage[] messages = batch.stream().map(PreparedEmail::message).toArray(MimeMessage[]::new);
+        int rejected = 0;
+        transports.acquireUninterruptibly();
+        long started = System.nanoTime();
         try {
-            String htmlContent = templateEngine.process(template, context);
-            logger.trace("Generated HTML content for email: {}", htmlContent);
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // keyed by the MimeMessage instances we passed in; empty if the connection itself failed
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (PreparedEmail email : batch) {
+                Exception cause = failedMessages.isEmpty() ? e : failedMessages.get(email.message());
+                if (cause != null) {
+                    failures.put(email.index(), new EmailSendException("Failed to send email", cause));
+                    rejected++;
+                }
+            }
+        } catch (RuntimeException e) {
+            // anything else fails the whole batch; it must not be counted as delivered
+            for (PreparedEmail email : batch) {
+                failures.put(email.index(), new EmailSendException("Failed to send email", e));
+            }
+            rejected = batch.size();
+        } finally {
+            transports.release();
+        }
+
+        long elapsed = System.nanoTime() - started;
+        int delivered = batch.size() - rejected;
+        double perSecond = delivered / Math.max(elapsed / 1e9, 1e-3);
+        batchTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.size());
+        batchThroughput.record(perSecond);
+        sent.increment(delivered);
+        logger.info("Email batch of {} sent in {} ms ({} delivered, {} failed, {} msg/s)",
+                batch.size(), TimeUnit.NANOSECONDS.toMillis(elapsed), delivered, rejected, Math.round(perSecond));
+    }
+
+    private MimeMessage buildMessage(User user, EmailType type) {
+        EmailContent content = contents.get(type);
+        if (content == null) {
+            logger.error("Unsupported email type {} for user {}", type, user.getUserId());
+            throw new IllegalArgumentException("Unsupported email type: " + type);
+        }
+        logger.debug("Building email content for subject={} user={}", content.subject(), user.getUserId());
 
+        try {
             MimeMessage mimeMessage = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
             helper.setTo(user.getEmail());
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
+            helper.setSubject(content.subject());
+            helper.setText(render(user, content), true);
             helper.setFrom(fromAddress);
-
-            mailSender.send(mimeMessage);
-            logger.info("Email with subject '{}' sent to {}", subject, user.getEmail());
-
+            return mimeMessage;
         } catch (Exception e) {
-            logger.error("Error while sending {} email to {}", subject, user.getEmail(), e);
-            throw new EmailSendException("Failed to send " + subject + " email", e);
+            logger.error("Error while building {} email to {}", content.subject(), user.getEmail(), e);
+            throw new EmailSendException("Failed to build " + content.subject() + " email", e);
         }
     }
+
+    private String render(User user, EmailContent content) {
+        Context context = new Context();
+        context.setVariable("user", user);
+        context.setVariable("title", content.subject());
+        context.setVariable("message", content.message());
+        context.setVariable("actionLink", content.link().apply(user));
+        context.setVariable("buttonText", content.buttonText());
+
+        String htmlContent = templateEngine.process(TEMPLATE, context);
+        logger.trace("Generated HTML content for email: {}", htmlContent);
+        return htmlContent;
+    }
+
+    private String appointmentsLink(User user) {
+        return frontendUrl + "/appointments/" + user.getUserId();
+    }
+
+    private record EmailContent(String subject, String message, Function<User, String> link, String buttonText) {
+    }
+
+    private record PreparedEmail(int index, MimeMessage message) {
+    }
 }
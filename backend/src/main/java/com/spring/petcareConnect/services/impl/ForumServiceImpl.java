@@ -1,49 +1,70 @@
 package com.spring.petcareConnect.services.impl;
 
+import com.spring.petcareConnect.cache.AuthorSummaryCache;
+import com.spring.petcareConnect.cache.ForumCounterBuffer;
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
 import com.spring.petcareConnect.dtos.forum.request.ForumCreateRequestDto;
 import com.spring.petcareConnect.dtos.forum.request.ForumUpdateRequestDto;
 import com.spring.petcareConnect.dtos.forum.response.ForumListResponseDto;
 import com.spring.petcareConnect.dtos.forum.response.ForumResponseDto;
+import com.spring.petcareConnect.dtos.profile.response.AuthorSummaryDto;
 import com.spring.petcareConnect.entities.Forum;
-import com.spring.petcareConnect.entities.User;
+import com.spring.petcareConnect.enums.ForumSearchMode;
 import com.spring.petcareConnect.exceptions.APIException;
 import com.spring.petcareConnect.exceptions.ResourceNotFoundException;
-import com.spring.petcareConnect.repositories.jpa.UserRepository;
 import com.spring.petcareConnect.repositories.mongo.CommentRepository;
+import com.spring.petcareConnect.repositories.mongo.ForumCounterOperations;
 import com.spring.petcareConnect.repositories.mongo.ForumRepository;
-import com.spring.petcareConnect.repositories.mongo.LikeRepository;
+import com.spring.petcareConnect.search.ForumSearchIndex;
 import com.spring.petcareConnect.services.ForumService;
+import com.spring.petcareConnect.services.ServiceMappingSupport.KeysetRequest;
 import com.spring.petcareConnect.services.ServiceMappingSupport;
 import com.spring.petcareConnect.utils.AuthUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class ForumServiceImpl implements ForumService {
 
     private static final Logger logger = LoggerFactory.getLogger(PetServiceImpl.class);
+    // sort keys backed by a keyset index (see Forum)
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("createdAt");
 
-    private final UserRepository userRepository;
     private final CommentRepository commentRepository;
-    private final LikeRepository likeRepository;
     private final ForumRepository forumRepository;
     private final ServiceMappingSupport mappingSupport;
-
-    public ForumServiceImpl(UserRepository userRepository, CommentRepository commentRepository, LikeRepository likeRepository, ForumRepository forumRepository, ServiceMappingSupport mappingSupport) {
-        this.userRepository = userRepository;
+    private final AuthorSummaryCache authorSummaryCache;
+    private final ForumCounterBuffer forumCounterBuffer;
+    private final ForumSearchMode searchMode;
+    private final ForumSearchIndex forumSearchIndex;
+
+    public ForumServiceImpl(CommentRepository commentRepository, ForumRepository forumRepository, ServiceMappingSupport mappingSupport, AuthorSummaryCache authorSummaryCache, ForumCounterBuffer forumCounterBuffer,
+                            @Value("${app.forum.search.mode:TEXT}") ForumSearchMode searchMode,
+                            ForumSearchIndex forumSearchIndex) {
         this.commentRepository = commentRepository;
-        this.likeRepository = likeRepository;
         this.forumRepository = forumRepository;
         this.mappingSupport = mappingSupport;
+        this.authorSummaryCache = authorSummaryCache;
+        this.forumCounterBuffer = forumCounterBuffer;
+        this.searchMode = searchMode;
+        this.forumSearchIndex = forumSearchIndex;
     }
 
 
@@ -51,15 +72,14 @@ public class ForumServiceImpl implements ForumService {
     public ForumListResponseDto getAllForumsOfUser(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
         logger.info("Fetching all pets for user with pagination page={} size={} sortBy={} sortOrder={}",
                 pageNumber, pageSize, sortBy, sortOrder);
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> {
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
             logger.error("No logged-in user found during pet list retrieval");
             return new APIException("No logged-in user");
         });
-        User user = getUserByEmailOrThrow(email);
 
         Pageable pageable = mappingSupport.buildPageable(pageNumber, pageSize, sortBy, sortOrder);
-        Page<Forum> forumPage = forumRepository.findAllByUserId(user.getUserId(), pageable);
-        logger.debug("Found {} forums for user {}", forumPage.getTotalElements(), email);
+        Page<Forum> forumPage = forumRepository.findAllByUserId(userId, pageable);
+        logger.debug("Found {} forums for user {}", forumPage.getTotalElements(), userId);
         return buildResponse(forumPage);
     }
 
@@ -71,20 +91,40 @@ public class ForumServiceImpl implements ForumService {
         return buildResponse(forumPage);
     }
 
+    @Override
+    public CursorPageResponseDto<ForumResponseDto> getAllForumsOfUserByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder) {
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
+            logger.error("No logged-in user found during forum list retrieval");
+            return new APIException("No logged-in user");
+        });
+
+        KeysetRequest request = mappingSupport.buildKeysetRequest(cursor, pageSize, sortBy, sortOrder, "forumId", CURSOR_SORT_PROPERTIES);
+        Window<Forum> window = forumRepository.findAllByUserId(userId, request.position(), request.limit(), request.sort());
+        logger.debug("Fetched window of {} forums for user {}", window.size(), userId);
+        return mappingSupport.buildCursorResponse(window, request, this::convertToForumDTOs);
+    }
+
+    @Override
+    public CursorPageResponseDto<ForumResponseDto> getAllForumsByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder) {
+        KeysetRequest request = mappingSupport.buildKeysetRequest(cursor, pageSize, sortBy, sortOrder, "forumId", CURSOR_SORT_PROPERTIES);
+        Window<Forum> window = forumRepository.findAllBy(request.position(), request.limit(), request.sort());
+        logger.debug("Fetched window of {} forums", window.size());
+        return mappingSupport.buildCursorResponse(window, request, this::convertToForumDTOs);
+    }
+
     @Override
     public ForumResponseDto createForumForUser(ForumCreateRequestDto forumCreateRequestDto) {
-        logger.info("Creating forum for user with email lookup...");
+        logger.info("Creating forum for logged-in user");
 
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> {
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
             logger.error("No logged-in user found during forum creation");
             return new APIException("No logged-in user");
         });
-
-        User user = getUserByEmailOrThrow(email);
-        Forum forum = getForum(forumCreateRequestDto, user);
+        Forum forum = getForum(forumCreateRequestDto, userId);
 
         forum = forumRepository.save(forum);
-        logger.info("Forum created by user {} with ID: {}", email, forum.getForumId());
+        forumSearchIndex.index(forum);
+        logger.info("Forum created by user {} with ID: {}", userId, forum.getForumId());
 
         return convertToForumDTO(forum);
     }
@@ -93,13 +133,12 @@ public class ForumServiceImpl implements ForumService {
     public ForumResponseDto updateForumForUser(String forumId, ForumUpdateRequestDto dto) {
         logger.info("Creating forum for user with email lookup...");
 
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> {
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
             logger.error("No logged-in user found during forum creation");
             return new APIException("No logged-in user");
         });
-        User user = getUserByEmailOrThrow(email);
 
-        Forum forum = forumRepository.findByForumIdAndUserId(forumId, user.getUserId())
+        Forum forum = forumRepository.findByForumIdAndUserId(forumId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Forum", "id", forumId));
 
         if (dto.getTitle() != null) forum.setTitle(dto.getTitle().trim());
@@ -112,7 +151,8 @@ public class ForumServiceImpl implements ForumService {
         forum.setUpdatedAt(Instant.now());
 
         forum = forumRepository.save(forum);
-        logger.info("Forum updated by user {} with ID: {}", email, forum.getForumId());
+        forumSearchIndex.index(forum);
+        logger.info("Forum updated by user {} with ID: {}", userId, forum.getForumId());
 
         return convertToForumDTO(forum);
     }
@@ -121,48 +161,54 @@ public class ForumServiceImpl implements ForumService {
     public ForumResponseDto getForumById(String forumId) {
         Forum forum = forumRepository.findById(forumId)
                 .orElseThrow(() -> new ResourceNotFoundException("Forum", "id", forumId));
-        return convertToForumDTO(forum);
+        forumCounterBuffer.recordView(forumId);
+
+        // reflect counts still waiting in the write-behind buffer, including this view
+        ForumCounterOperations.CounterDelta pendingDelta = forumCounterBuffer.pendingFor(forumId);
+        ForumResponseDto dto = convertToForumDTO(forum);
+        dto.setViewCount((forum.getViewCount() != null ? forum.getViewCount() : 0L) + pendingDelta.viewDelta());
+        dto.setCommentCount((forum.getCommentCount() != null ? forum.getCommentCount() : 0) + (int) pendingDelta.commentDelta());
+        return dto;
     }
 
     @Override
     public void deleteForumForUser(String forumId) {
         logger.info("Creating forum for user with email lookup...");
 
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> {
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
             logger.error("No logged-in user found during forum creation");
             return new APIException("No logged-in user");
         });
-        User user = getUserByEmailOrThrow(email);
 
-        Forum forum = forumRepository.findByForumIdAndUserId(forumId, user.getUserId())
+        Forum forum = forumRepository.findByForumIdAndUserId(forumId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Forum", "id", forumId));
 
         commentRepository.deleteAllByForumId(forumId);
-        likeRepository.deleteAllByForumId(forumId);
         forumRepository.delete(forum);
-        logger.info("Successfully deleted forum with id {} and its related comments/likes", forum.getForumId());
+        forumSearchIndex.remove(forumId);
+        logger.info("Successfully deleted forum with id {} and its related comments", forum.getForumId());
     }
 
     @Override
     public ForumListResponseDto searchForums(String keyword, List<String> tags, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
         Pageable pageable = mappingSupport.buildPageable(pageNumber, pageSize, sortBy, sortOrder);
+        List<String> tagFilter = tags == null ? List.of() : tags.stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .toList();
         Page<Forum> forumPage;
 
-        if (keyword != null && !keyword.isBlank() && tags != null && !tags.isEmpty()) {
-            // Case: keyword + tags
-            forumPage = forumRepository
-                    .findByTitleContainingIgnoreCaseOrContentContainingIgnoreCaseAndTagsIn(
-                            keyword.trim(), keyword.trim(), tags, pageable);
-
-        } else if (keyword != null && !keyword.isBlank()) {
-            // Case: keyword only
-            forumPage = forumRepository
-                    .findByTitleContainingIgnoreCaseOrContentContainingIgnoreCase(
-                            keyword.trim(), keyword.trim(), pageable);
+        if (keyword != null && !keyword.isBlank()) {
+            // Case: keyword, optionally narrowed by tags in the same query
+            forumPage = switch (searchMode) {
+                case TEXT -> forumRepository.searchByText(keyword.trim(), tagFilter, pageable);
+                case REGEX -> forumRepository.searchByRegex(keyword.trim(), tagFilter, pageable);
+                case INDEX -> searchIndexed(keyword.trim(), tagFilter, pageable);
+            };
 
-        } else if (tags != null && !tags.isEmpty()) {
+        } else if (!tagFilter.isEmpty()) {
             // Case: tags only
-            forumPage = forumRepository.findByTagsIn(tags, pageable);
+            forumPage = forumRepository.findByTagsIn(tagFilter, pageable);
 
         } else {
             // Fallback: all forums
@@ -172,6 +218,25 @@ public class ForumServiceImpl implements ForumService {
         return buildResponse(forumPage);
     }
 
+    /**
+     * Pages ids out of the in-memory index and loads the documents with one findAllById,
+     * keeping the index's relevance order. Falls back to the text index until the first build completes.
+     */
+    private Page<Forum> searchIndexed(String keyword, List<String> tags, Pageable pageable) {
+        if (!forumSearchIndex.isReady()) {
+            return forumRepository.searchByText(keyword, tags, pageable);
+        }
+
+        ForumSearchIndex.SearchResult result = forumSearchIndex.search(keyword, tags, (int) pageable.getOffset(), pageable.getPageSize());
+        Map<String, Forum> forumsById = new HashMap<>();
+        forumRepository.findAllById(result.forumIds()).forEach(forum -> forumsById.put(forum.getForumId(), forum));
+        List<Forum> ordered = result.forumIds().stream()
+                .map(forumsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(ordered, pageable, result.total());
+    }
+
     @Override
     public ForumListResponseDto getTopFeaturedForums(Integer pageNumber, Integer pageSize) {
         Pageable pageable = PageRequest.of(pageNumber, pageSize,
@@ -183,9 +248,9 @@ public class ForumServiceImpl implements ForumService {
     }
 
 
-    private static Forum getForum(ForumCreateRequestDto forumCreateRequestDto, User user) {
+    private static Forum getForum(ForumCreateRequestDto forumCreateRequestDto, Long userId) {
         Forum forum = new Forum();
-        forum.setUserId(user.getUserId());
+        forum.setUserId(userId);
         forum.setTitle(forumCreateRequestDto.getTitle().trim());
         forum.setContent(forumCreateRequestDto.getContent().trim());
 
@@ -209,30 +274,46 @@ public class ForumServiceImpl implements ForumService {
     }
 
     public ForumResponseDto convertToForumDTO(Forum forum) {
+        return convertToForumDTO(forum, loadAuthors(List.of(forum)));
+    }
+
+    private ForumResponseDto convertToForumDTO(Forum forum, Map<Long, AuthorSummaryDto> authors) {
         ForumResponseDto forumDTO = mappingSupport.mapToDto(forum, ForumResponseDto.class);
 
-        User user = userRepository.findById(forum.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", forum.getUserId()));
+        AuthorSummaryDto author = authors.get(forum.getUserId());
+        if (author == null) {
+            throw new ResourceNotFoundException("User", "id", forum.getUserId());
+        }
 
-        forumDTO.setFirstName(user.getFirstName());
-        forumDTO.setLastName(user.getLastName());
-        forumDTO.setEmail(user.getEmail());
+        forumDTO.setFirstName(author.firstName());
+        forumDTO.setLastName(author.lastName());
+        forumDTO.setEmail(author.email());
 
         forumDTO.setLikeCount(forum.getLikeCount());
         forumDTO.setCommentCount(forum.getCommentCount());
 
-        forumDTO.setLikedByCurrentUser(forum.isLikedByUser(user.getUserId()));
+        forumDTO.setLikedByCurrentUser(forum.isLikedByUser(author.userId()));
 
         return forumDTO;
     }
 
     private ForumListResponseDto buildResponse(Page<Forum> forumPage) {
-        List<ForumResponseDto> forums = forumPage.getContent().stream().map(this::convertToForumDTO).toList();
+        List<ForumResponseDto> forums = convertToForumDTOs(forumPage.getContent());
         return new ForumListResponseDto(forums, forumPage.getNumber(), forumPage.getSize(), forumPage.getTotalElements(), forumPage.getTotalPages(), forumPage.isLast());
     }
 
-    private User getUserByEmailOrThrow(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> ResourceNotFoundException.byField("User", "email", email));
+    private List<ForumResponseDto> convertToForumDTOs(List<Forum> forums) {
+        Map<Long, AuthorSummaryDto> authors = loadAuthors(forums);
+        return forums.stream()
+                .map(forum -> convertToForumDTO(forum, authors))
+                .toList();
+    }
+
+    /**
+     * Resolves the authors of all given forums through the author cache; misses are
+     * loaded with a single projection query instead of one {@code findById} per forum.
+     */
+    private Map<Long, AuthorSummaryDto> loadAuthors(List<Forum> forums) {
+        return authorSummaryCache.getAll(forums.stream().map(Forum::getUserId).toList());
     }
 }
@@ -1,5 +1,6 @@
 package com.spring.petcareConnect.services.impl;
 
+import com.spring.petcareConnect.cache.AuthorSummaryCache;
 import com.spring.petcareConnect.dtos.auth.response.LoginResponseDto;
 import com.spring.petcareConnect.dtos.oauth.request.OAuthLoginRequestDto;
 import com.spring.petcareConnect.dtos.oauth.request.OtpLoginRequestDto;
@@ -19,9 +20,11 @@ import com.spring.petcareConnect.repositories.jpa.RoleRepository;
 import com.spring.petcareConnect.repositories.jpa.UserRepository;
 import com.spring.petcareConnect.services.OAuthService;
 import com.spring.petcareConnect.security.jwt.JwtUtils;
+import com.spring.petcareConnect.security.service.UserSecurityVersions;
 import com.spring.petcareConnect.services.OAuthStateService;
 import com.spring.petcareConnect.services.OtpRedisService;
-import com.spring.petcareConnect.services.SmsService;
+import com.spring.petcareConnect.sms.SmsDispatcher;
+import com.spring.petcareConnect.sms.SmsPriority;
 import com.spring.petcareConnect.utils.EmailUtils;
 import com.spring.petcareConnect.utils.PhoneUtils;
 import jakarta.servlet.http.HttpServletRequest;
@@ -102,15 +105,19 @@ public class OAuthServiceImpl implements OAuthService {
     private final JwtUtils jwtUtils;
     private final OtpRedisService otpRedisService;
     private final OAuthStateService oAuthStateService;
-    private final SmsService smsService;
+    private final SmsDispatcher smsDispatcher;
     private final WebClient webClient;
+    private final AuthorSummaryCache authorSummaryCache;
+    private final UserSecurityVersions userSecurityVersions;
 
 
     public OAuthServiceImpl(OAuthAccountRepository oauthAccountRepository,
                             UserRepository userRepository,
                             RoleRepository roleRepository,
                             PasswordEncoder passwordEncoder,
-                            JwtUtils jwtUtils, OtpRedisService otpRedisService, OAuthStateService oAuthStateService, SmsService smsService, WebClient webClient) {
+                            JwtUtils jwtUtils, OtpRedisService otpRedisService, OAuthStateService oAuthStateService, SmsDispatcher smsDispatcher, WebClient webClient,
+                            AuthorSummaryCache authorSummaryCache,
+                            UserSecurityVersions userSecurityVersions) {
         this.oauthAccountRepository = oauthAccountRepository;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
@@ -118,8 +125,10 @@ public class OAuthServiceImpl implements OAuthService {
         this.jwtUtils = jwtUtils;
         this.otpRedisService = otpRedisService;
         this.oAuthStateService = oAuthStateService;
-        this.smsService = smsService;
+        this.smsDispatcher = smsDispatcher;
         this.webClient = webClient;
+        this.authorSummaryCache = authorSummaryCache;
+        this.userSecurityVersions = userSecurityVersions;
     }
 
     @Override
@@ -178,6 +187,7 @@ public class OAuthServiceImpl implements OAuthService {
                         .orElseThrow(() -> new APIException("ROLE_ADMIN not configured"));
                 user.getRoles().clear();
                 user.getRoles().add(adminRole);
+                userSecurityVersions.bump(user);
                 logger.info("First verified user will be promoted to ADMIN (phone={})", normalizedPhone);
             }
 
@@ -186,6 +196,7 @@ public class OAuthServiceImpl implements OAuthService {
 
 
         User savedUser = userRepository.save(user);
+        authorSummaryCache.invalidate(savedUser.getUserId());
 
         // Build OAuthProfile for MOBILE provider
         OAuthProfileResponseDto mobileOAuthProfile = OAuthProfileResponseDto.fromMobile(savedUser.getMobileNumber());
@@ -247,8 +258,14 @@ public class OAuthServiceImpl implements OAuthService {
             throw new IllegalArgumentException("Invalid phone number format");
         }
 
+        // queued ahead of notifications; the request thread does not wait on Twilio
         try {
-            smsService.sendSms(smsRecipient, message);
+            smsDispatcher.submit(SmsPriority.OTP, smsRecipient, message).whenComplete((ignored, ex) -> {
+                if (ex != null) {
+                    otpRedisService.deleteOtp(normalizedPhone);
+                    logger.error("OTP delivery failed for phone={}", normalizedPhone, ex);
+                }
+            });
         } catch (RuntimeException ex) {
             otpRedisService.deleteOtp(normalizedPhone);
             logger.error("OTP delivery failed for phone={}", normalizedPhone, ex);
@@ -610,6 +627,7 @@ public class OAuthServiceImpl implements OAuthService {
                 Role userRole = roleRepository.findByRoleName(RoleName.ROLE_USER)
                         .orElseThrow(() -> new APIException("ROLE_USER not configured"));
                 user.getRoles().add(userRole);
+                userSecurityVersions.bump(user);
                 user = userRepository.save(user);
                 logger.info("Created new OAuth user: provider={}, userId={}", provider, user.getUserId());
             } else {
@@ -652,11 +670,13 @@ public class OAuthServiceImpl implements OAuthService {
                     .orElseThrow(() -> new APIException("ROLE_ADMIN not configured"));
             user.getRoles().clear();
             user.getRoles().add(adminRole);
+            userSecurityVersions.bump(user);
         } else {
             Role userRole = roleRepository.findByRoleName(RoleName.ROLE_USER)
                     .orElseThrow(() -> new APIException("ROLE_USER not configured"));
             user.getRoles().clear();
             user.getRoles().add(userRole);
+            userSecurityVersions.bump(user);
         }
 
         return userRepository.save(user);
@@ -681,6 +701,9 @@ public class OAuthServiceImpl implements OAuthService {
             user.setPassword(randomPassword);
             changed = true;
         }
+        if (changed) {
+            authorSummaryCache.invalidate(user.getUserId());
+        }
         return changed;
     }
 
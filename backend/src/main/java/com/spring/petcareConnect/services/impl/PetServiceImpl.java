@@ -1,5 +1,6 @@
 package com.spring.petcareConnect.services.impl;
 
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
 import com.spring.petcareConnect.dtos.pet.request.PetRequestDto;
 import com.spring.petcareConnect.dtos.pet.response.PetListResponseDto;
 import com.spring.petcareConnect.dtos.pet.response.PetResponseDto;
@@ -16,21 +17,25 @@ import com.spring.petcareConnect.repositories.jpa.PetRepository;
 import com.spring.petcareConnect.repositories.jpa.UserRepository;
 import com.spring.petcareConnect.services.PetService;
 import com.spring.petcareConnect.services.ServiceMappingSupport;
+import com.spring.petcareConnect.services.ServiceMappingSupport.KeysetRequest;
 import com.spring.petcareConnect.utils.AuthUtils;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class PetServiceImpl implements PetService {
 
     private static final Logger logger = LoggerFactory.getLogger(PetServiceImpl.class);
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("createdAt");
 
     private final UserRepository userRepository;
     private final BreedRepository breedRepository;
@@ -50,16 +55,16 @@ public class PetServiceImpl implements PetService {
     @Override
     @Transactional
     public PetResponseDto createPetForUser(PetRequestDto petRequestDTO, MultipartFile profileImage) {
-        logger.info("Creating pet for user with email lookup...");
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> {
+        logger.info("Creating pet for logged-in user");
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
             logger.error("No logged-in user found during pet creation");
             return new APIException("No logged-in user");
         });
-        User user = getUserByEmailOrThrow(email);
+        User user = userRepository.getReferenceById(userId);
 
         logger.debug("Checking for duplicate pet name: {}", petRequestDTO.getPetName());
         if (petRepository.existsByPetOwnerAndPetName(user, petRequestDTO.getPetName())) {
-            logger.warn("Duplicate pet name '{}' for user {}", petRequestDTO.getPetName(), email);
+            logger.warn("Duplicate pet name '{}' for user {}", petRequestDTO.getPetName(), userId);
             throw new DuplicateResourceException("Pet", "name", petRequestDTO.getPetName());
         }
 
@@ -88,11 +93,11 @@ public class PetServiceImpl implements PetService {
     @Transactional
     public PetResponseDto updatePetForUser(Long petId, PetRequestDto petRequestDTO, MultipartFile profileImage) {
         logger.info("Updating pet with id {}", petId);
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> {
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
             logger.error("No logged-in user found during pet update");
             return new APIException("No logged-in user");
         });
-        User user = getUserByEmailOrThrow(email);
+        User user = userRepository.getReferenceById(userId);
 
         Pet existingPet = petRepository.findById(petId).orElseThrow(() -> {
             logger.error("Pet not found with id {}", petId);
@@ -103,7 +108,7 @@ public class PetServiceImpl implements PetService {
         if (!existingPet.getPetName().equalsIgnoreCase(newName)) {
             logger.debug("Updating pet name from '{}' to '{}'", existingPet.getPetName(), newName);
             if (petRepository.existsByPetOwnerAndPetName(user, newName)) {
-                logger.warn("Duplicate pet name '{}' for user {}", newName, email);
+                logger.warn("Duplicate pet name '{}' for user {}", newName, userId);
                 throw new DuplicateResourceException("Pet", "name", newName);
             }
             existingPet.setPetName(newName);
@@ -138,26 +143,40 @@ public class PetServiceImpl implements PetService {
     public PetListResponseDto getAllPetsForUser(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
         logger.info("Fetching all pets for user with pagination page={} size={} sortBy={} sortOrder={}",
                 pageNumber, pageSize, sortBy, sortOrder);
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> {
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
             logger.error("No logged-in user found during pet list retrieval");
             return new APIException("No logged-in user");
         });
-        User user = getUserByEmailOrThrow(email);
+        User user = userRepository.getReferenceById(userId);
 
         Pageable pageable = mappingSupport.buildPageable(pageNumber, pageSize, sortBy, sortOrder);
         Page<Pet> petPage = petRepository.findAllByPetOwner(user, pageable);
-        logger.debug("Found {} pets for user {}", petPage.getTotalElements(), email);
+        logger.debug("Found {} pets for user {}", petPage.getTotalElements(), userId);
         return buildResponse(petPage);
     }
 
+    @Override
+    public CursorPageResponseDto<PetResponseDto> getAllPetsForUserByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder) {
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
+            logger.error("No logged-in user found during pet list retrieval");
+            return new APIException("No logged-in user");
+        });
+        User user = userRepository.getReferenceById(userId);
+
+        KeysetRequest request = mappingSupport.buildKeysetRequest(cursor, pageSize, sortBy, sortOrder, "petId", CURSOR_SORT_PROPERTIES);
+        Window<Pet> window = petRepository.findAllByPetOwner(user, request.position(), request.limit(), request.sort());
+        logger.debug("Fetched window of {} pets for user {}", window.size(), userId);
+        return mappingSupport.buildCursorResponse(window, request, pets -> pets.stream().map(this::convertToDto).toList());
+    }
+
     @Override
     public PetResponseDto getPetOfUserById(Long petId) {
         logger.info("Fetching pet with id {}", petId);
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> {
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
             logger.error("No logged-in user found during pet fetch");
             return new APIException("No logged-in user");
         });
-        User user = getUserByEmailOrThrow(email);
+        User user = userRepository.getReferenceById(userId);
 
         Pet pet = petRepository.findByPetIdAndPetOwner(petId, user).orElseThrow(() -> {
             logger.error("Pet not found with id {}", petId);
@@ -170,11 +189,11 @@ public class PetServiceImpl implements PetService {
     @Override
     public void deletePetForUser(Long petId) {
         logger.info("Deleting pet with id {}", petId);
-        String email = AuthUtils.loggedInEmail().orElseThrow(() -> {
+        Long userId = AuthUtils.loggedInUserId().orElseThrow(() -> {
             logger.error("No logged-in user found during pet deletion");
             return new APIException("No logged-in user");
         });
-        User user = getUserByEmailOrThrow(email);
+        User user = userRepository.getReferenceById(userId);
 
         Pet pet = petRepository.findByPetIdAndPetOwner(petId, user).orElseThrow(() -> {
             logger.error("Pet not found with id {}", petId);
@@ -191,10 +210,6 @@ public class PetServiceImpl implements PetService {
         return new PetListResponseDto(pets, petPage.getNumber(), petPage.getSize(), petPage.getTotalElements(), petPage.getTotalPages(), petPage.isLast());
     }
 
-    private User getUserByEmailOrThrow(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> ResourceNotFoundException.byField("User", "email", email));
-    }
 
     private PetResponseDto convertToDto(Pet pet) {
         return mappingSupport.mapToDto(pet, PetResponseDto.class);
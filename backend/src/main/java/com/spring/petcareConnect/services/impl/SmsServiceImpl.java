@@ -2,38 +2,53 @@ package com.spring.petcareConnect.services.impl;
 
 import com.spring.petcareConnect.exceptions.SmsSendException;
 import com.spring.petcareConnect.services.SmsService;
+import com.spring.petcareConnect.sms.TwilioBaseUrlHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.twilio.Twilio;
+import com.twilio.http.TwilioRestClient;
 import com.twilio.exception.ApiException;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
 
+/**
+ * Twilio transport; callers go through SmsDispatcher, which paces and bounds these calls.
+ */
 @Service
 public class SmsServiceImpl implements SmsService {
 
     private static final Logger logger = LoggerFactory.getLogger(SmsServiceImpl.class);
 
+    private final String fromNumber;
+    private final TwilioRestClient restClient;
+
     public SmsServiceImpl(@Value("${twilio.accountSid:}") String accountSid,
                           @Value("${twilio.authToken:}") String authToken,
-                          @Value("${twilio.fromNumber:}") String fromNumber) {
+                          @Value("${twilio.fromNumber:}") String fromNumber,
+                          @Value("${twilio.api-base-url:}") String apiBaseUrl) {
         this.fromNumber = fromNumber;
         if (accountSid != null && !accountSid.isBlank() && authToken != null && !authToken.isBlank()) {
-            Twilio.init(accountSid, authToken);
+            TwilioRestClient.Builder builder = new TwilioRestClient.Builder(accountSid, authToken);
+            if (apiBaseUrl != null && !apiBaseUrl.isBlank()) {
+                builder.httpClient(new TwilioBaseUrlHttpClient(apiBaseUrl));
+                logger.info("Twilio API requests go to {}", apiBaseUrl);
+            }
+            this.restClient = builder.build();
         } else {
+            this.restClient = null;
             logger.warn("Twilio not configured (missing accountSid/authToken). SMS sending will fail if used.");
         }
     }
 
-    private final String fromNumber;
-
     @Override
     public void sendSms(String toE164, String message) {
+        if (restClient == null) {
+            throw new SmsSendException("Twilio is not configured");
+        }
         try {
-            Message.creator(new PhoneNumber(toE164), new PhoneNumber(fromNumber), message).create();
+            Message.creator(new PhoneNumber(toE164), new PhoneNumber(fromNumber), message).create(restClient);
             logger.debug("SMS sent to {}", toE164);
         } catch (ApiException ex) {
             // Twilio-specific exception
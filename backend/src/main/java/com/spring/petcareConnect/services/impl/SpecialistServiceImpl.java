@@ -1,101 +1,180 @@
 package com.spring.petcareConnect.services.impl;
 
+import com.spring.petcareConnect.availability.AvailabilityEngine;
+import com.spring.petcareConnect.cache.SpecialistCatalog;
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
+import com.spring.petcareConnect.dtos.ETagged;
 import com.spring.petcareConnect.dtos.specialist.request.AdminSpecialistUpdateRequest;
 import com.spring.petcareConnect.dtos.specialist.request.SpecialistProfileUpdateRequestDto;
+import com.spring.petcareConnect.dtos.specialist.request.SpecialistSearchRequestDto;
+import com.spring.petcareConnect.dtos.specialist.response.AppointmentStatusStatsDto;
 import com.spring.petcareConnect.dtos.specialist.response.SpecialistDashboardDto;
 import com.spring.petcareConnect.dtos.specialist.response.SpecialistListResponseDto;
+import com.spring.petcareConnect.config.AppConstants;
 import com.spring.petcareConnect.dtos.specialist.response.SpecialistResponseDto;
-import com.spring.petcareConnect.entities.Appointment;
+import com.spring.petcareConnect.dtos.specialist.response.SpecialistSlotsResponseDto;
 import com.spring.petcareConnect.entities.Specialist;
-import com.spring.petcareConnect.entities.User;
 import com.spring.petcareConnect.enums.AppointmentStatus;
 import com.spring.petcareConnect.enums.RoleName;
 import com.spring.petcareConnect.exceptions.APIException;
 import com.spring.petcareConnect.exceptions.ResourceNotFoundException;
 import com.spring.petcareConnect.repositories.jpa.AppointmentRepository;
 import com.spring.petcareConnect.repositories.jpa.SpecialistRepository;
-import com.spring.petcareConnect.repositories.jpa.UserRepository;
+import com.spring.petcareConnect.repositories.jpa.SpecialistSpecifications;
+import com.spring.petcareConnect.repositories.jpa.SpecialistStatsRepository;
+import com.spring.petcareConnect.security.service.UserDetailsImpl;
 import com.spring.petcareConnect.services.ServiceMappingSupport;
+import com.spring.petcareConnect.services.ServiceMappingSupport.KeysetRequest;
 import com.spring.petcareConnect.services.SpecialistService;
 import com.spring.petcareConnect.utils.AuthUtils;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class SpecialistServiceImpl implements SpecialistService {
 
+    // sortBy values answered from the specialist_stats rollup -> column of st in SpecialistStatsRepository.findRankedSpecialists
+    private static final Map<String, String> RANKED_SORT_PROPERTIES = Map.of(
+            "rating", "st.averageRating",
+            "popularity", "st.totalCount");
+    // nullable attributes (fee, experience, rating) cannot carry a keyset cursor
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("createdAt");
+
     private final SpecialistRepository specialistRepository;
+    private final SpecialistStatsRepository specialistStatsRepository;
     private final AppointmentRepository appointmentRepository;
-    private final UserRepository userRepository;
     private final ServiceMappingSupport mappingSupport;
+    private final AvailabilityEngine availabilityEngine;
+    private final SpecialistCatalog specialistCatalog;
 
     public SpecialistServiceImpl(SpecialistRepository specialistRepository,
                                  AppointmentRepository appointmentRepository,
-                                 UserRepository userRepository,
-                                 ServiceMappingSupport mappingSupport) {
+                                 ServiceMappingSupport mappingSupport,
+                                 AvailabilityEngine availabilityEngine,
+                                 SpecialistStatsRepository specialistStatsRepository,
+                                 SpecialistCatalog specialistCatalog) {
         this.specialistRepository = specialistRepository;
+        this.specialistStatsRepository = specialistStatsRepository;
         this.appointmentRepository = appointmentRepository;
-        this.userRepository = userRepository;
         this.mappingSupport = mappingSupport;
+        this.availabilityEngine = availabilityEngine;
+        this.specialistCatalog = specialistCatalog;
     }
 
     @Override
-    public SpecialistListResponseDto getSpecialists(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+    public ETagged<SpecialistListResponseDto> getSpecialists(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        String rankedBy = sortBy != null ? RANKED_SORT_PROPERTIES.get(sortBy) : null;
+        if (rankedBy != null) {
+            // served from the specialist_stats indexes; ties broken by id to keep pages stable
+            Pageable pageable = mappingSupport.buildPageable(pageNumber, pageSize, sortBy, sortOrder);
+            Sort.Direction direction = pageable.getSort().iterator().next().getDirection();
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    JpaSort.unsafe(direction, rankedBy).andUnsafe(direction, "st.specialistId"));
+            return new ETagged<>(buildResponse(specialistStatsRepository.findRankedSpecialists(pageable)), null);
+        }
         Pageable pageable = mappingSupport.buildPageable(pageNumber, pageSize, sortBy, sortOrder);
+        if (SpecialistCatalog.canSort(pageable.getSort())) {
+            SpecialistCatalog.Snapshot snapshot = specialistCatalog.snapshot();
+            return new ETagged<>(snapshot.page(pageable), snapshot.eTag());
+        }
         Page<Specialist> specialistPage = specialistRepository.findAll(pageable);
-        return buildResponse(specialistPage);
+        return new ETagged<>(buildResponse(specialistPage), null);
     }
 
     @Override
-    public SpecialistResponseDto getSpecialistById(Long specialistId) {
+    public ETagged<SpecialistResponseDto> getSpecialistById(Long specialistId) {
+        Optional<SpecialistCatalog.Entry> cached = specialistCatalog.snapshot().find(specialistId);
+        if (cached.isPresent()) {
+            return new ETagged<>(cached.get().specialist(), cached.get().eTag());
+        }
+        // created since the snapshot was taken, and not yet committed or not yet seen by this node
         Specialist specialist = specialistRepository.findById(specialistId)
                 .orElseThrow(() -> new ResourceNotFoundException("Specialist", "Id", specialistId));
-        return mapToDto(specialist);
+        return new ETagged<>(mapToDto(specialist), null);
     }
 
     @Override
-    public SpecialistDashboardDto getSpecialistDashboard() {
-        String email = AuthUtils.loggedInEmail()
-                .orElseThrow(() -> new APIException("No logged-in user"));
+    public CursorPageResponseDto<SpecialistResponseDto> searchSpecialists(SpecialistSearchRequestDto filters, String cursor,
+                                                                         Integer pageSize, String sortBy, String sortOrder) {
+        if (filters.getMinFee() != null && filters.getMaxFee() != null
+                && filters.getMinFee().compareTo(filters.getMaxFee()) > 0) {
+            throw new APIException("'minFee' must not exceed 'maxFee'");
+        }
+        KeysetRequest request = mappingSupport.buildKeysetRequest(cursor, pageSize, sortBy, sortOrder, "specialistId", CURSOR_SORT_PROPERTIES);
+        // the user is fetched with the window; days are batch-loaded by the mapper
+        Specification<Specialist> specification = SpecialistSpecifications.matching(filters)
+                .and(SpecialistSpecifications.fetchingUser());
+        Window<Specialist> window = specialistRepository.findBy(specification,
+                query -> query.sortBy(request.sort())
+                        .limit(request.limit().max())
+                        .scroll(request.position()));
+        return mappingSupport.buildCursorResponse(window, request, specialists -> specialists.stream().map(this::mapToDto).toList());
+    }
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> ResourceNotFoundException.byField("User", "email", email));
+    @Override
+    public SpecialistSlotsResponseDto getFreeSlots(Long specialistId, LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(6);
+        if (end.isBefore(start)) {
+            throw new APIException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= AppConstants.MAX_SLOT_RANGE_DAYS) {
+            throw new APIException("Slot range cannot exceed " + AppConstants.MAX_SLOT_RANGE_DAYS + " days");
+        }
+        return availabilityEngine.freeSlots(specialistId, start, end);
+    }
 
-        boolean isSpecialist = user.getRoles().stream()
-                .anyMatch(role -> role.getRoleName() == RoleName.ROLE_SPECIALIST);
-        if (!isSpecialist) {
-            throw new APIException("Only specialists can access this dashboard");
+    @Override
+    public SpecialistDashboardDto getSpecialistDashboard(LocalDate from, LocalDate to) {
+        Specialist specialist = currentSpecialist("Only specialists can access this dashboard");
+
+        List<AppointmentStatusStatsDto> stats;
+        if (from == null && to == null) {
+            stats = appointmentRepository.aggregateByStatus(specialist.getSpecialistId());
+        } else {
+            if (from == null || to == null) {
+                throw new APIException("Both 'from' and 'to' are required for a dashboard range");
+            }
+            if (to.isBefore(from)) {
+                throw new APIException("'to' must not be before 'from'");
+            }
+            // 'to' is inclusive for callers
+            stats = appointmentRepository.aggregateByStatusBetween(
+                    specialist.getSpecialistId(), from.atStartOfDay(), to.plusDays(1).atStartOfDay());
         }
 
-        Specialist specialist = specialistRepository.findByUserUserId(user.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("Specialist", "userId", user.getUserId()));
-
-        List<Appointment> appointments = appointmentRepository.findBySpecialistSpecialistId(specialist.getSpecialistId());
-        long totalAppointments = appointments.size();
-        long upcomingAppointments = appointments.stream()
-                .filter(a -> a.getAppointmentStatus() == AppointmentStatus.SCHEDULED)
-                .count();
-        long completedAppointments = appointments.stream()
-                .filter(a -> a.getAppointmentStatus() == AppointmentStatus.COMPLETED)
-                .count();
-        long cancelledAppointments = appointments.stream()
-                .filter(a -> a.getAppointmentStatus() == AppointmentStatus.CANCELLED)
-                .count();
-        double averageRating = appointments.stream()
-                .filter(a -> a.getRating() != null)
-                .mapToDouble(Appointment::getRating)
-                .average()
-                .orElse(0.0);
+        Map<AppointmentStatus, Long> counts = new EnumMap<>(AppointmentStatus.class);
+        long ratingSum = 0;
+        long ratingCount = 0;
+        for (AppointmentStatusStatsDto row : stats) {
+            counts.put(row.status(), row.count());
+            ratingSum += row.ratingSum() != null ? row.ratingSum() : 0;
+            ratingCount += row.ratingCount() != null ? row.ratingCount() : 0;
+        }
 
         return new SpecialistDashboardDto(
-                totalAppointments,
-                upcomingAppointments,
-                completedAppointments,
-                cancelledAppointments,
-                averageRating
+                counts.values().stream().mapToLong(Long::longValue).sum(),
+                counts.getOrDefault(AppointmentStatus.SCHEDULED, 0L),
+                counts.getOrDefault(AppointmentStatus.COMPLETED, 0L),
+                counts.getOrDefault(AppointmentStatus.CANCELLED, 0L),
+                ratingCount > 0 ? (double) ratingSum / ratingCount : 0.0,
+                from,
+                to
         );
     }
 
@@ -114,27 +193,17 @@ public class SpecialistServiceImpl implements SpecialistService {
         specialist.setWorkingHoursEnd(request.getWorkingHoursEnd());
         specialist.setDaysAvailable(request.getDaysAvailable());
         specialist.setLocation(request.getLocation());
+        touch(specialist);
 
         specialistRepository.save(specialist);
+        availabilityEngine.invalidate(specialistId);
+        specialistCatalog.invalidateAfterCommit();
         return mapToDto(specialist);
     }
 
     @Override
     public SpecialistResponseDto updateCurrentSpecialist(SpecialistProfileUpdateRequestDto request) {
-        String email = AuthUtils.loggedInEmail()
-                .orElseThrow(() -> new APIException("No logged-in user"));
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> ResourceNotFoundException.byField("User", "email", email));
-
-        boolean isSpecialist = user.getRoles().stream()
-                .anyMatch(role -> role.getRoleName() == RoleName.ROLE_SPECIALIST);
-        if (!isSpecialist) {
-            throw new APIException("Only specialists can update their profile");
-        }
-
-        Specialist specialist = specialistRepository.findByUserUserId(user.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("Specialist", "userId", user.getUserId()));
+        Specialist specialist = currentSpecialist("Only specialists can update their profile");
 
         if (request.getAbout() != null) specialist.setAbout(request.getAbout());
         if (request.getAvailable() != null) specialist.setAvailable(request.getAvailable());
@@ -146,11 +215,35 @@ public class SpecialistServiceImpl implements SpecialistService {
         if (request.getWorkingHoursEnd() != null) specialist.setWorkingHoursEnd(request.getWorkingHoursEnd());
         if (request.getDaysAvailable() != null) specialist.setDaysAvailable(request.getDaysAvailable());
         if (request.getLocation() != null) specialist.setLocation(request.getLocation());
+        touch(specialist);
 
         specialistRepository.save(specialist);
+        availabilityEngine.invalidate(specialist.getSpecialistId());
+        specialistCatalog.invalidateAfterCommit();
         return mapToDto(specialist);
     }
 
+    // A change to daysAvailable alone leaves the owner row clean, so updated_at would not move and
+    // the SpecialistCatalog probe on other nodes would miss it; dirty the row explicitly
+    private static void touch(Specialist specialist) {
+        specialist.setUpdatedAt(LocalDateTime.now());
+    }
+
+    // found by the principal's user id, as a mobile-only user has no email to look up
+    private Specialist currentSpecialist(String notSpecialistMessage) {
+        UserDetailsImpl principal = AuthUtils.loggedInUser()
+                .orElseThrow(() -> new APIException("No logged-in user"));
+
+        boolean isSpecialist = principal.getAuthorities().stream()
+                .anyMatch(authority -> RoleName.ROLE_SPECIALIST.name().equals(authority.getAuthority()));
+        if (!isSpecialist) {
+            throw new APIException(notSpecialistMessage);
+        }
+
+        return specialistRepository.findByUserUserId(principal.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Specialist", "userId", principal.getId()));
+    }
+
     private SpecialistListResponseDto buildResponse(Page<Specialist> specialistPage) {
         List<SpecialistResponseDto> content = specialistPage.getContent().stream()
                 .map(this::mapToDto)
@@ -167,23 +260,6 @@ public class SpecialistServiceImpl implements SpecialistService {
     }
 
     private SpecialistResponseDto mapToDto(Specialist specialist) {
-        SpecialistResponseDto dto = new SpecialistResponseDto();
-        dto.setSpecialistId(specialist.getSpecialistId());
-        dto.setUserId(specialist.getUser() != null ? specialist.getUser().getUserId() : null);
-        dto.setFirstName(specialist.getUser() != null ? specialist.getUser().getFirstName() : null);
-        dto.setLastName(specialist.getUser() != null ? specialist.getUser().getLastName() : null);
-        dto.setAbout(specialist.getAbout());
-        dto.setAvailable(specialist.isAvailable());
-        dto.setSlotDuration(specialist.getSlotDuration());
-        dto.setSpecialization(specialist.getSpecialization());
-        dto.setExperienceYears(specialist.getExperienceYears());
-        dto.setRating(specialist.getRating());
-        dto.setConsultationFee(specialist.getConsultationFee());
-        dto.setWorkingHoursStart(specialist.getWorkingHoursStart());
-        dto.setWorkingHoursEnd(specialist.getWorkingHoursEnd());
-        dto.setDaysAvailable(specialist.getDaysAvailable());
-        dto.setLocation(specialist.getLocation());
-        dto.setVerified(specialist.getUser() != null && specialist.getUser().isVerified());
-        return dto;
+        return mappingSupport.mapToDto(specialist, SpecialistResponseDto.class);
     }
 }
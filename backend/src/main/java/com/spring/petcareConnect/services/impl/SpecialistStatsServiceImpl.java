@@ -0,0 +1,126 @@
+package com.spring.petcareConnect.services.impl;
+
+import com.spring.petcareConnect.availability.AvailabilityEngine;
+import com.spring.petcareConnect.cache.SpecialistCatalog;
+import com.spring.petcareConnect.entities.Specialist;
+import com.spring.petcareConnect.enums.AppointmentStatus;
+import com.spring.petcareConnect.repositories.jpa.SpecialistRepository;
+import com.spring.petcareConnect.repositories.jpa.SpecialistStatsRepository;
+import com.spring.petcareConnect.services.SpecialistStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Keeps the specialist_stats rollup in step with appointment changes. Every change is a
+ * single delta upsert in the caller's transaction, so it commits or rolls back with the
+ * appointment. The nightly reconciliation recomputes counts from the appointments table and
+ * repairs any drift, e.g. from bookings that raced it or writes that bypassed the service.
+ */
+@Service
+public class SpecialistStatsServiceImpl implements SpecialistStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpecialistStatsServiceImpl.class);
+    private static final int RECONCILE_PAGE_SIZE = 500;
+
+    private final SpecialistStatsRepository specialistStatsRepository;
+    private final SpecialistRepository specialistRepository;
+    private final AvailabilityEngine availabilityEngine;
+    private final SpecialistCatalog specialistCatalog;
+    private final int nextSlotHorizonDays;
+
+    public SpecialistStatsServiceImpl(SpecialistStatsRepository specialistStatsRepository,
+                                      SpecialistRepository specialistRepository,
+                                      AvailabilityEngine availabilityEngine,
+                                      SpecialistCatalog specialistCatalog,
+                                      @Value("${app.specialist-stats.next-slot-horizon-days:14}") int nextSlotHorizonDays) {
+        this.specialistStatsRepository = specialistStatsRepository;
+        this.specialistRepository = specialistRepository;
+        this.availabilityEngine = availabilityEngine;
+        this.specialistCatalog = specialistCatalog;
+        this.nextSlotHorizonDays = nextSlotHorizonDays;
+    }
+
+    @Override
+    public void initialize(Long specialistId) {
+        specialistStatsRepository.applyDelta(specialistId, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Override
+    public void recordBooked(Specialist specialist, AppointmentStatus status) {
+        // counted in the bucket of the status it was saved with, which need not be upcoming
+        specialistStatsRepository.applyDelta(specialist.getSpecialistId(), 1, isUpcoming(status) ? 1 : 0,
+                status == AppointmentStatus.COMPLETED ? 1 : 0, status == AppointmentStatus.CANCELLED ? 1 : 0, 0, 0);
+        refreshNextFreeSlot(specialist);
+    }
+
+    @Override
+    public void recordStatusChange(Specialist specialist, AppointmentStatus previous, AppointmentStatus current) {
+        long upcoming = (isUpcoming(current) ? 1 : 0) - (isUpcoming(previous) ? 1 : 0);
+        long completed = (current == AppointmentStatus.COMPLETED ? 1 : 0) - (previous == AppointmentStatus.COMPLETED ? 1 : 0);
+        long cancelled = (current == AppointmentStatus.CANCELLED ? 1 : 0) - (previous == AppointmentStatus.CANCELLED ? 1 : 0);
+        if (upcoming != 0 || completed != 0 || cancelled != 0) {
+            specialistStatsRepository.applyDelta(specialist.getSpecialistId(), 0, upcoming, completed, cancelled, 0, 0);
+        }
+        // a reschedule keeps the counts but moves the booking
+        refreshNextFreeSlot(specialist);
+    }
+
+    @Override
+    public void recordRating(Long specialistId, Integer previousRating, Integer rating) {
+        if (Objects.equals(previousRating, rating)) {
+            return;
+        }
+        long ratingSum = (rating != null ? rating : 0) - (previousRating != null ? previousRating : 0);
+        long ratingCount = (rating != null ? 1 : 0) - (previousRating != null ? 1 : 0);
+        specialistStatsRepository.applyDelta(specialistId, 0, 0, 0, 0, ratingSum, ratingCount);
+        specialistStatsRepository.syncSpecialistRating(specialistId);
+        // the catalog serves specialists.rating
+        specialistCatalog.invalidateAfterCommit();
+    }
+
+    @Override
+    @Scheduled(cron = "${app.specialist-stats.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        long started = System.currentTimeMillis();
+        int corrected = specialistStatsRepository.reconcileCounts();
+        int ratings = specialistStatsRepository.syncSpecialistRatings();
+        if (ratings > 0) {
+            specialistCatalog.invalidateAfterCommit();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Pageable pageable = PageRequest.of(0, RECONCILE_PAGE_SIZE, Sort.by("specialistId"));
+        Page<Specialist> page;
+        do {
+            page = specialistRepository.findAll(pageable);
+            for (Specialist specialist : page) {
+                specialistStatsRepository.updateNextFreeSlot(specialist.getSpecialistId(),
+                        availabilityEngine.nextFreeSlot(specialist, now, nextSlotHorizonDays));
+            }
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+
+        logger.info("Reconciled specialist stats: {} rows corrected, {} ratings synced, {} next slots refreshed in {} ms",
+                corrected, ratings, page.getTotalElements(), System.currentTimeMillis() - started);
+        return corrected;
+    }
+
+    private void refreshNextFreeSlot(Specialist specialist) {
+        specialistStatsRepository.updateNextFreeSlot(specialist.getSpecialistId(),
+                availabilityEngine.nextFreeSlot(specialist, LocalDateTime.now(), nextSlotHorizonDays));
+    }
+
+    private static boolean isUpcoming(AppointmentStatus status) {
+        return status == AppointmentStatus.SCHEDULED || status == AppointmentStatus.RESCHEDULED;
+    }
+}
@@ -1,16 +1,20 @@
 package com.spring.petcareConnect.services.impl;
 
+import com.spring.petcareConnect.cache.AuthorSummaryCache;
+import com.spring.petcareConnect.cache.SpecialistCatalog;
 import com.spring.petcareConnect.dtos.profile.request.AddressDto;
 import com.spring.petcareConnect.dtos.profile.request.UpdatePasswordRequestDto;
 import com.spring.petcareConnect.dtos.profile.request.UserProfileRequestDto;
 import com.spring.petcareConnect.dtos.profile.response.UserProfileResponseDto;
 import com.spring.petcareConnect.entities.Address;
 import com.spring.petcareConnect.entities.User;
+import com.spring.petcareConnect.enums.RoleName;
 import com.spring.petcareConnect.exceptions.DuplicateResourceException;
 import com.spring.petcareConnect.exceptions.ResourceNotFoundException;
 import com.spring.petcareConnect.exceptions.ValidationException;
 import com.spring.petcareConnect.helpers.UserProfileImageHandler;
 import com.spring.petcareConnect.repositories.jpa.UserRepository;
+import com.spring.petcareConnect.security.service.UserSecurityVersions;
 import com.spring.petcareConnect.services.*;
 import com.spring.petcareConnect.utils.AuthUtils;
 import com.spring.petcareConnect.utils.PhoneUtils;
@@ -38,11 +42,17 @@ public class UserProfileServiceImpl implements UserProfileService {
     private final ForumService forumService;
     private final CommentService commentService;
     private final LikeService likeService;
+    private final AuthorSummaryCache authorSummaryCache;
+    private final UserSecurityVersions userSecurityVersions;
+    private final SpecialistCatalog specialistCatalog;
 
     public UserProfileServiceImpl(UserRepository userRepository,
                                   ModelMapper modelMapper,
                                   FileValidator fileValidator,
-                                  PasswordEncoder passwordEncoder, UserProfileImageHandler userProfileImageHandler, ForumService forumService, CommentService commentService, LikeService likeService) {
+                                  PasswordEncoder passwordEncoder, UserProfileImageHandler userProfileImageHandler, ForumService forumService, CommentService commentService, LikeService likeService,
+                                  AuthorSummaryCache authorSummaryCache,
+                                  UserSecurityVersions userSecurityVersions,
+                                  SpecialistCatalog specialistCatalog) {
         this.userRepository = userRepository;
         this.modelMapper = modelMapper;
         this.fileValidator = fileValidator;
@@ -51,22 +61,21 @@ public class UserProfileServiceImpl implements UserProfileService {
         this.forumService = forumService;
         this.commentService = commentService;
         this.likeService = likeService;
+        this.authorSummaryCache = authorSummaryCache;
+        this.userSecurityVersions = userSecurityVersions;
+        this.specialistCatalog = specialistCatalog;
     }
 
     @Override
     public UserProfileResponseDto getUserProfile() {
-        String email = AuthUtils.loggedInEmail()
-                .orElseThrow(() -> new IllegalStateException("No logged-in user"));
-        User user = getUserByEmailOrThrow(email);
+        User user = getLoggedInUserOrThrow();
         return modelMapper.map(user, UserProfileResponseDto.class);
     }
 
     @Override
     @Transactional
     public UserProfileResponseDto updateUserProfile(UserProfileRequestDto dto, MultipartFile profileImage) {
-        String email = AuthUtils.loggedInEmail()
-                .orElseThrow(() -> new IllegalStateException("No logged-in user"));
-        User user = getUserByEmailOrThrow(email);
+        User user = getLoggedInUserOrThrow();
 
         if (profileImage != null && !profileImage.isEmpty()) {
             fileValidator.validateFile(profileImage);
@@ -78,43 +87,56 @@ public class UserProfileServiceImpl implements UserProfileService {
         }
 
         userRepository.save(user);
+        authorSummaryCache.invalidate(user.getUserId());
+        invalidateSpecialistCatalog(user);
         return modelMapper.map(user, UserProfileResponseDto.class);
     }
 
     @Override
     public void deleteUserProfile() {
-        String email = AuthUtils.loggedInEmail()
-                .orElseThrow(() -> new IllegalStateException("No logged-in user"));
-        User user = getUserByEmailOrThrow(email);
+        User user = getLoggedInUserOrThrow();
         Long userId = user.getUserId();
 
 //        forumService.deleteForumsByUser(userId);
 //        commentService.deleteCommentsByUser(userId);
 //        likeService.deleteLikesByUser(userId);
+        userSecurityVersions.bump(user);
         userRepository.delete(user);
+        authorSummaryCache.invalidate(userId);
+        invalidateSpecialistCatalog(user);
 
-        logger.info("User profile deleted successfully for email={} and all related forums, comments, and likes cleaned up", email);
+        logger.info("User profile deleted successfully for userId={} and all related forums, comments, and likes cleaned up", userId);
     }
 
 
+    // specialists are listed with their name and email
+    private void invalidateSpecialistCatalog(User user) {
+        boolean isSpecialist = user.getRoles().stream()
+                .anyMatch(role -> role.getRoleName() == RoleName.ROLE_SPECIALIST);
+        if (isSpecialist) {
+            specialistCatalog.invalidateAfterCommit();
+        }
+    }
+
     @Override
     public void updatePassword(UpdatePasswordRequestDto updatePasswordRequestDTO) {
-        String email = AuthUtils.loggedInEmail()
-                .orElseThrow(() -> new IllegalStateException("No logged-in user"));
-        User user = getUserByEmailOrThrow(email);
+        User user = getLoggedInUserOrThrow();
 
         validatePasswordChange(user, updatePasswordRequestDTO);
 
         user.setPassword(passwordEncoder.encode(updatePasswordRequestDTO.getNewPassword()));
         userRepository.save(user);
-        logger.info("Password updated successfully for user={}", email);
+        logger.info("Password updated successfully for userId={}", user.getUserId());
     }
 
     // ----------------- Helper Methods -----------------
 
-    private User getUserByEmailOrThrow(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> ResourceNotFoundException.byField("User", "email", email));
+    // by id from the principal: a mobile-only user has no email to look up
+    private User getLoggedInUserOrThrow() {
+        Long userId = AuthUtils.loggedInUserId()
+                .orElseThrow(() -> new IllegalStateException("No logged-in user"));
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
     }
 
     private void validatePasswordChange(User user, UpdatePasswordRequestDto dto) {
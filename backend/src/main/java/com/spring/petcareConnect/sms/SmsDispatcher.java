@@ -0,0 +1,153 @@
+package com.spring.petcareConnect.sms;
+
+import com.spring.petcareConnect.exceptions.SmsSendException;
+import com.spring.petcareConnect.services.SmsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulkhead in front of the SMS provider.
+ * <p>
+ * Callers enqueue into a bounded lane per {@link SmsPriority} and get a future back; a full lane
+ * rejects at once instead of queueing unbounded work. A fixed pool of {@code app.sms.workers}
+ * threads makes the provider calls, each first taking a token from a bucket sized to the
+ * provider's throughput ({@code app.sms.rate-per-second}, {@code app.sms.burst}) and then the
+ * oldest message of the highest non-empty lane, so an OTP overtakes queued reminders.
+ */
+@Component
+public class SmsDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmsDispatcher.class);
+
+    private final SmsService smsService;
+    private final TokenBucket tokenBucket;
+    private final Map<SmsPriority, BlockingQueue<Job>> lanes = new EnumMap<>(SmsPriority.class);
+    // one permit per queued job across all lanes
+    private final Semaphore queued = new Semaphore(0);
+    private final ExecutorService workers;
+    private final Timer sendLatency;
+    private final Map<SmsPriority, Timer> queueWait = new EnumMap<>(SmsPriority.class);
+    private final Map<SmsPriority, Counter> rejected = new EnumMap<>(SmsPriority.class);
+    private final Counter sent;
+    private final Counter failed;
+
+    public SmsDispatcher(SmsService smsService,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.sms.workers:4}") int workerCount,
+                         @Value("${app.sms.rate-per-second:10}") double ratePerSecond,
+                         @Value("${app.sms.burst:10}") int burst,
+                         @Value("${app.sms.queue-capacity.otp:500}") int otpCapacity,
+                         @Value("${app.sms.queue-capacity.notification:2000}") int notificationCapacity) {
+        this.smsService = smsService;
+        this.tokenBucket = new TokenBucket(ratePerSecond, burst, System::nanoTime);
+        lanes.put(SmsPriority.OTP, new ArrayBlockingQueue<>(otpCapacity));
+        lanes.put(SmsPriority.NOTIFICATION, new ArrayBlockingQueue<>(notificationCapacity));
+        for (SmsPriority priority : SmsPriority.values()) {
+            String lane = priority.name().toLowerCase();
+            Gauge.builder("sms.queue.depth", lanes.get(priority), BlockingQueue::size)
+                    .tag("lane", lane).register(meterRegistry);
+            queueWait.put(priority, Timer.builder("sms.queue.wait").tag("lane", lane).register(meterRegistry));
+            rejected.put(priority, Counter.builder("sms.rejected").tag("lane", lane).register(meterRegistry));
+        }
+        this.sendLatency = meterRegistry.timer("sms.send.latency");
+        this.sent = meterRegistry.counter("sms.sent");
+        this.failed = meterRegistry.counter("sms.failed");
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "sms-dispatcher-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+        logger.info("SMS dispatcher started with workers={} ratePerSecond={} burst={} capacity otp={} notification={}",
+                workerCount, ratePerSecond, burst, otpCapacity, notificationCapacity);
+    }
+
+    /**
+     * Queues an SMS. The future completes once the provider accepted it, or exceptionally with
+     * the SmsSendException that stopped it.
+     *
+     * @throws SmsSendException if the lane is full
+     */
+    public CompletableFuture<Void> submit(SmsPriority priority, String toE164, String message) {
+        Job job = new Job(priority, toE164, message, System.nanoTime(), new CompletableFuture<>());
+        if (!lanes.get(priority).offer(job)) {
+            rejected.get(priority).increment();
+            throw new SmsSendException("SMS queue full for " + priority + " messages");
+        }
+        queued.release();
+        return job.result();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+        lanes.values().forEach(lane -> {
+            Job job;
+            while ((job = lane.poll()) != null) {
+                job.result().completeExceptionally(new SmsSendException("SMS dispatcher shut down"));
+            }
+        });
+    }
+
+    private void work() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                queued.acquire();
+                // wait for capacity before choosing, so a message that arrives meanwhile can still overtake
+                tokenBucket.acquire();
+                Job job = nextJob();
+                if (job != null) {
+                    send(job);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Job nextJob() {
+        for (BlockingQueue<Job> lane : lanes.values()) {
+            Job job = lane.poll();
+            if (job != null) {
+                return job;
+            }
+        }
+        return null;
+    }
+
+    private void send(Job job) {
+        long started = System.nanoTime();
+        queueWait.get(job.priority()).record(started - job.enqueuedAt(), TimeUnit.NANOSECONDS);
+        try {
+            smsService.sendSms(job.to(), job.message());
+            sent.increment();
+            job.result().complete(null);
+        } catch (RuntimeException ex) {
+            failed.increment();
+            job.result().completeExceptionally(ex instanceof SmsSendException
+                    ? ex : new SmsSendException("Failed to send SMS", ex));
+        } finally {
+            sendLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private record Job(SmsPriority priority, String to, String message, long enqueuedAt,
+                       CompletableFuture<Void> result) {
+    }
+}
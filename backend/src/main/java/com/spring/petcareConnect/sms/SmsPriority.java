@@ -0,0 +1,9 @@
+package com.spring.petcareConnect.sms;
+
+/** SmsDispatcher lanes, highest priority first. */
+public enum SmsPriority {
+    // a user is waiting on the login screen
+    OTP,
+    // appointment changes and reminders from the notification outbox
+    NOTIFICATION
+}
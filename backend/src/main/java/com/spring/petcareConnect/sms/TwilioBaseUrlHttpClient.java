@@ -0,0 +1,38 @@
+package com.spring.petcareConnect.sms;
+
+import com.twilio.http.HttpClient;
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+
+import java.net.URL;
+
+/**
+ * Sends Twilio SDK requests to another base URL (scheme, host and port) with the same path, so
+ * SmsServiceImpl can run against a local stand-in of the Twilio API ({@code twilio.api-base-url}).
+ */
+public class TwilioBaseUrlHttpClient extends HttpClient {
+
+    private final String baseUrl;
+    private final HttpClient delegate = new NetworkHttpClient();
+
+    public TwilioBaseUrlHttpClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    @Override
+    public Response makeRequest(Request request) {
+        URL original = request.constructURL();
+        Request redirected = new Request(request.getMethod(), baseUrl + original.getFile());
+        redirected.setContentType(request.getContentType());
+        redirected.setBody(request.getBody());
+        request.getPostParams().forEach((name, values) -> values.forEach(value -> redirected.addPostParam(name, value)));
+        request.getHeaderParams().forEach((name, values) -> values.forEach(value -> redirected.addHeaderParam(name, value)));
+        if (request.getAuthStrategy() != null) {
+            redirected.setAuth(request.getAuthStrategy());
+        } else if (request.getUsername() != null) {
+            redirected.setAuth(request.getUsername(), request.getPassword());
+        }
+        return delegate.makeRequest(redirected);
+    }
+}
@@ -0,0 +1,108 @@
+package com.spring.petcareConnect.utils;
+
+import com.spring.petcareConnect.exceptions.APIException;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.io.*;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque keyset cursors: the last row's sort key and id, plus the sort they were taken
+ * under, serialised and base64url-encoded. A cursor is only accepted back with the same sort.
+ */
+public final class CursorUtils {
+
+    private static final int VERSION = 1;
+
+    private CursorUtils() {
+        // Utility class - prevent instantiation
+    }
+
+    public static String encode(ScrollPosition position, Sort sort) {
+        if (!(position instanceof KeysetScrollPosition keyset) || keyset.isInitial()) {
+            return null;
+        }
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+             DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(sort.toString());
+            out.writeByte(keyset.getKeys().size());
+            for (Map.Entry<String, Object> key : keyset.getKeys().entrySet()) {
+                out.writeUTF(key.getKey());
+                writeValue(out, key.getValue());
+            }
+            out.flush();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Position to resume after the given cursor, or the first window when there is none.
+     */
+    public static ScrollPosition decode(String cursor, Sort sort) {
+        if (!StringUtils.hasText(cursor)) {
+            return ScrollPosition.keyset();
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION || !sort.toString().equals(in.readUTF())) {
+                throw new APIException("Cursor does not match the requested sort; start again without a cursor");
+            }
+            int size = in.readByte();
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                keys.put(in.readUTF(), readValue(in));
+            }
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeException | IOException ex) {
+            throw new APIException("Invalid cursor");
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte('N');
+            case String s -> { out.writeByte('S'); out.writeUTF(s); }
+            case Long l -> { out.writeByte('L'); out.writeLong(l); }
+            case Integer i -> { out.writeByte('I'); out.writeInt(i); }
+            case Double d -> { out.writeByte('D'); out.writeDouble(d); }
+            case Boolean b -> { out.writeByte('B'); out.writeBoolean(b); }
+            case Instant t -> { out.writeByte('T'); out.writeUTF(t.toString()); }
+            case Date d -> { out.writeByte('U'); out.writeLong(d.getTime()); }
+            case LocalDateTime t -> { out.writeByte('Y'); out.writeUTF(t.toString()); }
+            case LocalDate d -> { out.writeByte('A'); out.writeUTF(d.toString()); }
+            case ObjectId id -> { out.writeByte('O'); out.writeUTF(id.toHexString()); }
+            default -> throw new IllegalArgumentException("Unsupported cursor key type " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case 'N' -> null;
+            case 'S' -> in.readUTF();
+            case 'L' -> in.readLong();
+            case 'I' -> in.readInt();
+            case 'D' -> in.readDouble();
+            case 'B' -> in.readBoolean();
+            case 'T' -> Instant.parse(in.readUTF());
+            case 'U' -> new Date(in.readLong());
+            case 'Y' -> LocalDateTime.parse(in.readUTF());
+            case 'A' -> LocalDate.parse(in.readUTF());
+            case 'O' -> new ObjectId(in.readUTF());
+            default -> throw new IOException("Unknown cursor key tag " + tag);
+        };
+    }
+}
@@ -0,0 +1,150 @@
+package com.spring.petcareConnect.availability;
+
+import com.spring.petcareConnect.availability.AvailabilityEngine.Outcome;
+import com.spring.petcareConnect.dtos.appointment.response.BookedIntervalDto;
+import com.spring.petcareConnect.dtos.specialist.response.SlotDto;
+import com.spring.petcareConnect.dtos.specialist.response.SpecialistSlotsResponseDto;
+import com.spring.petcareConnect.entities.Specialist;
+import com.spring.petcareConnect.enums.AvailableDay;
+import com.spring.petcareConnect.repositories.jpa.AppointmentRepository;
+import com.spring.petcareConnect.repositories.jpa.SpecialistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AvailabilityEngineTest {
+
+    // a Monday
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+    private AppointmentRepository repository;
+    private SpecialistRepository specialistRepository;
+    private AvailabilityEngine engine;
+    private Specialist specialist;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AppointmentRepository.class);
+        specialistRepository = mock(SpecialistRepository.class);
+        engine = new AvailabilityEngine(repository, specialistRepository, new SimpleMeterRegistry(), 1000, 300, 30);
+        specialist = new Specialist();
+        specialist.setSpecialistId(7L);
+        specialist.setSlotDuration(30);
+        specialist.setWorkingHoursStart(LocalTime.of(9, 0));
+        specialist.setWorkingHoursEnd(LocalTime.of(17, 0));
+        specialist.setDaysAvailable(Set.of(AvailableDay.MONDAY, AvailableDay.TUESDAY));
+    }
+
+    @Test
+    void reservesFreeSlotsOnceAndFreesThemOnRelease() {
+        AvailabilityEngine.Reservation first = engine.reserve(specialist, at(10, 0), at(10, 30));
+        assertThat(first.outcome()).isEqualTo(Outcome.RESERVED);
+        assertThat(engine.reserve(specialist, at(10, 0), at(10, 30)).outcome()).isEqualTo(Outcome.TAKEN);
+
+        first.release();
+        assertThat(engine.reserve(specialist, at(10, 0), at(10, 30)).outcome()).isEqualTo(Outcome.RESERVED);
+    }
+
+    @Test
+    void overlaysExistingBookingsLoadedOncePerDay() {
+        when(repository.findBookedIntervals(eq(7L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(new BookedIntervalDto(at(11, 15), at(11, 45))));
+
+        // a misaligned booking blocks both slots it touches
+        assertThat(engine.reserve(specialist, at(11, 0), at(11, 30)).outcome()).isEqualTo(Outcome.TAKEN);
+        assertThat(engine.reserve(specialist, at(11, 30), at(12, 0)).outcome()).isEqualTo(Outcome.TAKEN);
+        assertThat(engine.reserve(specialist, at(12, 0), at(12, 30)).outcome()).isEqualTo(Outcome.RESERVED);
+        verify(repository, times(1)).findBookedIntervals(eq(7L), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void rejectsDaysOffAndLeavesOffGridRequestsToTheDatabase() {
+        LocalDateTime sunday = DAY.minusDays(1).atTime(10, 0);
+        assertThat(engine.reserve(specialist, sunday, sunday.plusMinutes(30)).outcome()).isEqualTo(Outcome.OUTSIDE_SCHEDULE);
+        assertThat(engine.reserve(specialist, at(10, 10), at(10, 40)).outcome()).isEqualTo(Outcome.UNTRACKED);
+    }
+
+    @Test
+    void profileChangeRebuildsTheDay() {
+        engine.reserve(specialist, at(10, 0), at(10, 30));
+
+        specialist.setSlotDuration(20);
+        engine.invalidate(specialist.getSpecialistId());
+
+        assertThat(engine.reserve(specialist, at(10, 0), at(10, 20)).outcome()).isEqualTo(Outcome.RESERVED);
+    }
+
+    @Test
+    void freeSlotsSkipBookedSlotsAndDaysOff() {
+        specialist.setWorkingHoursEnd(LocalTime.of(11, 0));
+        // the first booking spans two slots and hides a shorter one inside it
+        when(repository.findBookedIntervals(eq(7L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(
+                        new BookedIntervalDto(at(9, 0), at(10, 0)),
+                        new BookedIntervalDto(at(9, 15), at(9, 30)),
+                        new BookedIntervalDto(DAY.plusDays(1).atTime(10, 15), DAY.plusDays(1).atTime(10, 45))));
+
+        SpecialistSlotsResponseDto slots = engine.computeFreeSlots(specialist, DAY.minusDays(1), DAY.plusDays(1), DAY.atStartOfDay());
+
+        assertThat(slots.getFreeSlots()).extracting(SlotDto::getStart).containsExactly(
+                at(10, 0), at(10, 30),
+                DAY.plusDays(1).atTime(9, 0), DAY.plusDays(1).atTime(9, 30));
+    }
+
+    @Test
+    void freeSlotsAreCachedUntilInvalidated() {
+        when(specialistRepository.findById(7L)).thenReturn(Optional.of(specialist));
+
+        engine.freeSlots(7L, DAY, DAY);
+        engine.freeSlots(7L, DAY, DAY);
+        verify(repository, times(1)).findBookedIntervals(eq(7L), any(LocalDateTime.class), any(LocalDateTime.class));
+
+        engine.invalidate(7L, DAY);
+        engine.freeSlots(7L, DAY, DAY);
+        verify(repository, times(2)).findBookedIntervals(eq(7L), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void concurrentRequestsForOneSlotReserveItExactlyOnce() throws Exception {
+        int threads = 64;
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<Outcome>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return engine.reserve(specialist, at(14, 0), at(14, 30)).outcome();
+                }));
+            }
+            start.countDown();
+            int reserved = 0;
+            for (Future<Outcome> result : results) {
+                if (result.get() == Outcome.RESERVED) {
+                    reserved++;
+                }
+            }
+            assertThat(reserved).isEqualTo(1);
+        }
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.atTime(hour, minute);
+    }
+}
@@ -0,0 +1,119 @@
+package com.spring.petcareConnect.availability;
+
+import com.spring.petcareConnect.availability.BookingLockManager.Mode;
+import com.spring.petcareConnect.repositories.jpa.AppointmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Many threads booking one specialist's calendar through check-then-insert: with the striped
+ * lock held across both steps no two stored bookings may overlap.
+ */
+class BookingLockManagerTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 20_000;
+    // 15-minute grid with 30-minute bookings, so neighbouring requests partially overlap
+    private static final int GRID_POSITIONS = 64;
+
+    @Test
+    void stripedLockPreventsOverlappingBookingsOfOneSpecialist() throws Exception {
+        BookingLockManager lockManager = new BookingLockManager(mock(AppointmentRepository.class), new SimpleMeterRegistry(), Mode.STRIPED, 64, 5000);
+        // deliberately unsynchronized: only the booking lock protects it
+        List<int[]> calendar = new ArrayList<>();
+
+        int booked = runInParallel(() -> inTransaction(() -> {
+            lockManager.lockSpecialist(7L);
+            int start = 15 * ThreadLocalRandom.current().nextInt(GRID_POSITIONS);
+            boolean busy = calendar.stream().anyMatch(b -> start < b[1] && start + 30 > b[0]);
+            // widen the window between the check and the insert
+            Thread.yield();
+            if (busy) {
+                return false;
+            }
+            calendar.add(new int[]{start, start + 30});
+            return true;
+        }));
+
+        assertThat(calendar).hasSize(booked);
+        for (int i = 0; i < calendar.size(); i++) {
+            for (int j = i + 1; j < calendar.size(); j++) {
+                int[] a = calendar.get(i);
+                int[] b = calendar.get(j);
+                assertThat(a[0] < b[1] && b[0] < a[1]).as("overlap %d-%d / %d-%d", a[0], a[1], b[0], b[1]).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void advisoryModeTakesTheDatabaseLockOnly() {
+        AppointmentRepository repository = mock(AppointmentRepository.class);
+        BookingLockManager lockManager = new BookingLockManager(repository, new SimpleMeterRegistry(), Mode.ADVISORY, 64, 5000);
+
+        inTransaction(() -> {
+            lockManager.lockSpecialist(7L);
+            return true;
+        });
+
+        verify(repository).acquireSpecialistLock(BookingLockManager.ADVISORY_LOCK_NAMESPACE, 7L);
+        assertThatThrownBy(() -> lockManager.lockSpecialist(7L)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void noneModeNeverLocks() {
+        AppointmentRepository repository = mock(AppointmentRepository.class);
+        new BookingLockManager(repository, new SimpleMeterRegistry(), Mode.NONE, 64, 5000).lockSpecialist(7L);
+        verify(repository, never()).acquireSpecialistLock(anyInt(), anyLong());
+    }
+
+    // stands in for the booking transaction: synchronizations complete as committed at the end
+    private static boolean inTransaction(BooleanSupplier work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            return work.getAsBoolean();
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    private static int runInParallel(BooleanSupplier attempt) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<Boolean>> results = new ArrayList<>(ATTEMPTS);
+            for (int i = 0; i < ATTEMPTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return attempt.getAsBoolean();
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        }
+    }
+}
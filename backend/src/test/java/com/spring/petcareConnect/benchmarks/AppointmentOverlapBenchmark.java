@@ -0,0 +1,159 @@
+package com.spring.petcareConnect.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap check latency as the appointments table grows: the previous pair of queries
+ * (end computed per row, SCHEDULED only) against the single sargable query on the stored
+ * end_time. The SQL mirrors AppointmentRepository; tables are seeded once per size and reused.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.spring.petcareConnect.benchmarks.AppointmentOverlapBenchmark \
+ *     -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/petcare -Dbench.jdbc.user=postgres -Dbench.jdbc.password=postgres
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AppointmentOverlapBenchmark {
+
+    private static final int SPECIALISTS = 200;
+    private static final int PETS = 50_000;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2020, 1, 1, 9, 0);
+
+    @Param({"100000", "1000000", "5000000"})
+    public int rows;
+
+    private Connection connection;
+    private PreparedStatement specialistBusy;
+    private PreparedStatement petBusy;
+    private PreparedStatement combined;
+    private final Random random = new Random(7);
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/petcare"),
+                System.getProperty("bench.jdbc.user", "postgres"),
+                System.getProperty("bench.jdbc.password", "postgres"));
+        String table = "bench_appointments_" + rows;
+        seed(table);
+
+        specialistBusy = connection.prepareStatement("SELECT COUNT(*) > 0 FROM " + table + " a WHERE a.specialist_id = ? " +
+                "AND a.appointment_status = 'SCHEDULED' " +
+                "AND ? < a.appointment_date + a.duration * INTERVAL '1 minute' AND ? > a.appointment_date");
+        petBusy = connection.prepareStatement("SELECT COUNT(*) > 0 FROM " + table + " a WHERE a.pet_id = ? " +
+                "AND a.appointment_status = 'SCHEDULED' " +
+                "AND ? < a.appointment_date + a.duration * INTERVAL '1 minute' AND ? > a.appointment_date");
+        combined = connection.prepareStatement("SELECT COUNT(CASE WHEN a.specialist_id = ? THEN 1 END) > 0, " +
+                "COUNT(CASE WHEN a.pet_id = ? THEN 1 END) > 0 FROM " + table + " a " +
+                "WHERE (a.specialist_id = ? OR a.pet_id = ?) " +
+                "AND a.appointment_status IN ('SCHEDULED', 'RESCHEDULED') " +
+                "AND a.appointment_date > ? AND a.appointment_date < ? AND a.end_time > ? " +
+                "AND a.appointment_id <> 0");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public boolean computedEndTwoQueries() throws SQLException {
+        long specialistId = 1 + random.nextInt(SPECIALISTS);
+        long petId = 1 + random.nextInt(PETS);
+        LocalDateTime start = randomSlot();
+        Timestamp from = Timestamp.valueOf(start);
+        Timestamp to = Timestamp.valueOf(start.plusMinutes(30));
+
+        specialistBusy.setLong(1, specialistId);
+        specialistBusy.setTimestamp(2, from);
+        specialistBusy.setTimestamp(3, to);
+        boolean busy = firstBoolean(specialistBusy);
+        petBusy.setLong(1, petId);
+        petBusy.setTimestamp(2, from);
+        petBusy.setTimestamp(3, to);
+        return busy | firstBoolean(petBusy);
+    }
+
+    @Benchmark
+    public boolean storedEndCombinedQuery() throws SQLException {
+        long specialistId = 1 + random.nextInt(SPECIALISTS);
+        long petId = 1 + random.nextInt(PETS);
+        LocalDateTime start = randomSlot();
+
+        combined.setLong(1, specialistId);
+        combined.setLong(2, petId);
+        combined.setLong(3, specialistId);
+        combined.setLong(4, petId);
+        combined.setTimestamp(5, Timestamp.valueOf(start.minusMinutes(480)));
+        combined.setTimestamp(6, Timestamp.valueOf(start.plusMinutes(30)));
+        combined.setTimestamp(7, Timestamp.valueOf(start));
+        try (ResultSet rs = combined.executeQuery()) {
+            rs.next();
+            return rs.getBoolean(1) | rs.getBoolean(2);
+        }
+    }
+
+    private LocalDateTime randomSlot() {
+        // spread over the same ~5 years the seed covers
+        return EPOCH.plusDays(random.nextInt(1800)).plusMinutes(30L * random.nextInt(16));
+    }
+
+    private static boolean firstBoolean(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getBoolean(1);
+        }
+    }
+
+    private void seed(String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + table + " (" +
+                    "appointment_id BIGSERIAL PRIMARY KEY, specialist_id BIGINT NOT NULL, pet_id BIGINT NOT NULL, " +
+                    "appointment_date TIMESTAMP NOT NULL, duration INT NOT NULL, end_time TIMESTAMP, " +
+                    "appointment_status VARCHAR(20) NOT NULL)");
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                rs.next();
+                if (rs.getLong(1) >= rows) {
+                    return;
+                }
+            }
+            statement.execute("TRUNCATE " + table);
+            statement.execute("INSERT INTO " + table + " (specialist_id, pet_id, appointment_date, duration, end_time, appointment_status) " +
+                    "SELECT 1 + (g % " + SPECIALISTS + "), 1 + (g * 7919 % " + PETS + "), " +
+                    "TIMESTAMP '2020-01-01 09:00' + (g % 1800) * INTERVAL '1 day' + ((g / 1800) % 16) * INTERVAL '30 minutes', " +
+                    "30, TIMESTAMP '2020-01-01 09:30' + (g % 1800) * INTERVAL '1 day' + ((g / 1800) % 16) * INTERVAL '30 minutes', " +
+                    "(ARRAY['SCHEDULED','RESCHEDULED','COMPLETED','CANCELLED'])[1 + g % 4] " +
+                    "FROM generate_series(1, " + rows + ") g");
+            // same indexes as the Appointment entity
+            statement.execute("CREATE INDEX IF NOT EXISTS " + table + "_date ON " + table + " (appointment_date)");
+            statement.execute("CREATE INDEX IF NOT EXISTS " + table + "_specialist ON " + table + " (specialist_id)");
+            statement.execute("CREATE INDEX IF NOT EXISTS " + table + "_specialist_slot ON " + table +
+                    " (specialist_id, appointment_status, appointment_date, end_time)");
+            statement.execute("CREATE INDEX IF NOT EXISTS " + table + "_pet_slot ON " + table +
+                    " (pet_id, appointment_status, appointment_date, end_time)");
+            statement.execute("ANALYZE " + table);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AppointmentOverlapBenchmark.class.getSimpleName())
+                .jvmArgsAppend("-Dbench.jdbc.url=" + System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/petcare"),
+                        "-Dbench.jdbc.user=" + System.getProperty("bench.jdbc.user", "postgres"),
+                        "-Dbench.jdbc.password=" + System.getProperty("bench.jdbc.password", "postgres"))
+                .build()).run();
+    }
+}
@@ -0,0 +1,395 @@
+package com.spring.petcareConnect.benchmarks;
+
+import com.spring.petcareConnect.availability.AvailabilityEngine;
+import com.spring.petcareConnect.availability.BookingLockManager;
+import com.spring.petcareConnect.cache.AuthorSummaryCache;
+import com.spring.petcareConnect.dtos.appointment.request.AppointmentRequestDto;
+import com.spring.petcareConnect.entities.*;
+import com.spring.petcareConnect.enums.AppointmentStatus;
+import com.spring.petcareConnect.enums.AvailableDay;
+import com.spring.petcareConnect.enums.Gender;
+import com.spring.petcareConnect.enums.RoleName;
+import com.spring.petcareConnect.exceptions.ConflictException;
+import com.spring.petcareConnect.mappers.AppointmentResponseDtoMapper;
+import com.spring.petcareConnect.reminders.AppointmentReminderQueue;
+import com.spring.petcareConnect.repositories.jpa.AppointmentRepository;
+import com.spring.petcareConnect.repositories.jpa.PetRepository;
+import com.spring.petcareConnect.repositories.jpa.SpecialistRepository;
+import com.spring.petcareConnect.repositories.jpa.UserRepository;
+import com.spring.petcareConnect.security.service.UserDetailsImpl;
+import com.spring.petcareConnect.services.NotificationService;
+import com.spring.petcareConnect.services.ServiceMappingSupport;
+import com.spring.petcareConnect.services.SpecialistStatsService;
+import com.spring.petcareConnect.services.UploadImageService;
+import com.spring.petcareConnect.services.impl.AppointmentServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.PhysicalNamingStrategySnakeCaseImpl;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.dao.support.PersistenceExceptionTranslationInterceptor;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.orm.jpa.hibernate.SpringBeanContainer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Hammers one specialist's calendar from many connections with the booking transaction of
+ * AppointmentServiceImpl (overlap check, then insert) and counts overlapping rows afterwards.
+ * Logs throughput per mode; NONE shows the race the other modes close. The service variant
+ * books through AppointmentServiceImpl itself. Only runs against a real Postgres:
+ * <pre>
+ * mvn test -Dtest=BookingContentionStressTest \
+ *     -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/petcare -Dbench.jdbc.user=postgres -Dbench.jdbc.password=postgres
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "bench.jdbc.url", matches = ".+")
+class BookingContentionStressTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingContentionStressTest.class);
+
+    enum Mode { NONE, ADVISORY, EXCLUSION }
+
+    // what keeps service bookings apart: the advisory lock, or the exclusion constraint with no lock
+    enum Guard { ADVISORY_LOCK, EXCLUSION_CONSTRAINT }
+
+    private static final int THREADS = Integer.getInteger("bench.threads", 32);
+    private static final int ATTEMPTS = Integer.getInteger("bench.attempts", 5_000);
+    private static final long SPECIALIST_ID = 1;
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 7, 9, 0);
+    // mirrors BookingLockManager.ADVISORY_LOCK_NAMESPACE
+    private static final int ADVISORY_LOCK_NAMESPACE = 0x41505054;
+
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    void oneSpecialistUnderContention(Mode mode) throws Exception {
+        String table = "bench_booking_" + mode.name().toLowerCase();
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (appointment_id BIGSERIAL PRIMARY KEY, " +
+                    "specialist_id BIGINT NOT NULL, appointment_date TIMESTAMP NOT NULL, end_time TIMESTAMP NOT NULL, " +
+                    "appointment_status VARCHAR(20) NOT NULL)");
+            statement.execute("CREATE INDEX " + table + "_slot ON " + table +
+                    " (specialist_id, appointment_status, appointment_date, end_time)");
+            if (mode == Mode.EXCLUSION) {
+                statement.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+                statement.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + table + "_no_overlap EXCLUDE USING gist " +
+                        "(specialist_id WITH =, tsrange(appointment_date, end_time, '[)') WITH &&) " +
+                        "WHERE (appointment_status IN ('SCHEDULED', 'RESCHEDULED'))");
+            }
+        }
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long started = System.nanoTime();
+        runInParallel(connection -> {
+            if (book(connection, table, mode)) {
+                booked.incrementAndGet();
+            } else {
+                rejected.incrementAndGet();
+            }
+        });
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long overlaps;
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table + " a JOIN " + table + " b " +
+                     "ON a.appointment_id < b.appointment_id AND a.appointment_date < b.end_time AND b.appointment_date < a.end_time")) {
+            rs.next();
+            overlaps = rs.getLong(1);
+        }
+        logger.info(String.format("%-9s %d threads: %d attempts in %.2fs (%.0f/s), %d booked, %d rejected, %d overlapping pairs",
+                mode, THREADS, ATTEMPTS, seconds, ATTEMPTS / seconds, booked.get(), rejected.get(), overlaps));
+
+        if (mode != Mode.NONE) {
+            assertThat(overlaps).isZero();
+        }
+    }
+
+    /**
+     * The same contention through {@link AppointmentServiceImpl#createAppointment}, in one Spring
+     * transaction per attempt on a schema Hibernate generates from the entities: the availability
+     * bitmap, then the booking lock and overlap query, or the exclusion constraint alone.
+     */
+    @ParameterizedTest
+    @EnumSource(Guard.class)
+    void appointmentServiceUnderContention(Guard guard) throws Exception {
+        String schema = "bench_booking_service_" + guard.name().toLowerCase();
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            statement.execute("CREATE SCHEMA " + schema);
+        }
+
+        try (SessionFactory sessionFactory = sessionFactory(schema)) {
+            Long[] ids = sessionFactory.fromTransaction(BookingContentionStressTest::seed);
+            Long ownerId = ids[0];
+            Long specialistId = ids[1];
+            List<Long> petIds = List.of(ids).subList(2, ids.length);
+
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(sessionFactory);
+            JpaRepositoryFactory repositories = new JpaRepositoryFactory(entityManager);
+            // turns the exclusion violation into the DataIntegrityViolationException the service expects
+            repositories.addRepositoryProxyPostProcessor((factory, information) ->
+                    factory.addAdvice(new PersistenceExceptionTranslationInterceptor(new HibernateJpaDialect())));
+            AppointmentRepository appointmentRepository = repositories.getRepository(AppointmentRepository.class);
+            SpecialistRepository specialistRepository = repositories.getRepository(SpecialistRepository.class);
+            UserRepository userRepository = repositories.getRepository(UserRepository.class);
+            TransactionTemplate transaction = new TransactionTemplate(new JpaTransactionManager(sessionFactory));
+
+            BookingLockManager.Mode lockMode = BookingLockManager.Mode.ADVISORY;
+            if (guard == Guard.EXCLUSION_CONSTRAINT) {
+                lockMode = BookingLockManager.Mode.NONE;
+                transaction.executeWithoutResult(status -> {
+                    appointmentRepository.createBtreeGistExtension();
+                    appointmentRepository.addNoOverlapConstraint();
+                });
+            }
+            AvailabilityEngine availabilityEngine = new AvailabilityEngine(appointmentRepository, specialistRepository,
+                    new SimpleMeterRegistry(), 1000, 300, 30);
+            AppointmentServiceImpl appointmentService = new AppointmentServiceImpl(
+                    repositories.getRepository(PetRepository.class), specialistRepository, userRepository,
+                    appointmentRepository, mock(NotificationService.class),
+                    new ServiceMappingSupport(new ModelMapper(), List.of(new AppointmentResponseDtoMapper())),
+                    new AuthorSummaryCache(userRepository, new SimpleMeterRegistry(), 1000, 300),
+                    availabilityEngine,
+                    new BookingLockManager(appointmentRepository, new SimpleMeterRegistry(), lockMode, 64, 5000),
+                    mock(SpecialistStatsService.class), mock(AppointmentReminderQueue.class));
+            UserDetailsImpl owner = new UserDetailsImpl(ownerId, "owner@petcare.test", "", List.of(),
+                    true, true, true, "Olive", "Owner", null, null);
+
+            AtomicInteger booked = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            long started = System.nanoTime();
+            runInParallel(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(owner, null, owner.getAuthorities()));
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                AppointmentRequestDto request = new AppointmentRequestDto(petIds.get(random.nextInt(petIds.size())),
+                        specialistId, DAY.plusMinutes(15L * random.nextInt(30)), AppointmentStatus.SCHEDULED, null);
+                try {
+                    transaction.executeWithoutResult(status -> appointmentService.createAppointment(request));
+                    booked.incrementAndGet();
+                } catch (ConflictException ex) {
+                    rejected.incrementAndGet();
+                }
+            });
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            long overlaps = transaction.execute(status -> ((Number) entityManager.createNativeQuery(
+                    "SELECT COUNT(*) FROM appointments a JOIN appointments b " +
+                            "ON a.appointment_id < b.appointment_id AND a.specialist_id = b.specialist_id " +
+                            "AND a.appointment_date < b.end_time AND b.appointment_date < a.end_time")
+                    .getSingleResult()).longValue());
+            logger.info(String.format("service %-20s %d threads: %d attempts in %.2fs (%.0f/s), %d booked, %d rejected, %d overlapping pairs",
+                    guard, THREADS, ATTEMPTS, seconds, ATTEMPTS / seconds, booked.get(), rejected.get(), overlaps));
+
+            assertThat(booked.get()).isPositive();
+            assertThat(booked.get() + rejected.get()).isEqualTo(ATTEMPTS);
+            assertThat(overlaps).isZero();
+        }
+    }
+
+    private static boolean book(Connection connection, String table, Mode mode) throws SQLException {
+        // 15-minute grid with 30-minute bookings over one working day
+        LocalDateTime start = DAY.plusMinutes(15L * ThreadLocalRandom.current().nextInt(32));
+        LocalDateTime end = start.plusMinutes(30);
+        try {
+            if (mode == Mode.ADVISORY) {
+                try (PreparedStatement lock = connection.prepareStatement(
+                        "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(?, CAST(MOD(?, 2147483647) AS INTEGER))) AS booking_lock")) {
+                    lock.setInt(1, ADVISORY_LOCK_NAMESPACE);
+                    lock.setLong(2, SPECIALIST_ID);
+                    lock.executeQuery().close();
+                }
+            }
+            if (mode != Mode.EXCLUSION && busy(connection, table, start, end)) {
+                connection.rollback();
+                return false;
+            }
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table +
+                    " (specialist_id, appointment_date, end_time, appointment_status) VALUES (?, ?, ?, 'SCHEDULED')")) {
+                insert.setLong(1, SPECIALIST_ID);
+                insert.setTimestamp(2, Timestamp.valueOf(start));
+                insert.setTimestamp(3, Timestamp.valueOf(end));
+                insert.executeUpdate();
+            }
+            connection.commit();
+            return true;
+        } catch (SQLException ex) {
+            connection.rollback();
+            if ("23P01".equals(ex.getSQLState())) {
+                return false;
+            }
+            throw ex;
+        }
+    }
+
+    private static boolean busy(Connection connection, String table, LocalDateTime start, LocalDateTime end) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) > 0 FROM " + table + " a " +
+                "WHERE a.specialist_id = ? AND a.appointment_status IN ('SCHEDULED', 'RESCHEDULED') " +
+                "AND a.appointment_date > ? AND a.appointment_date < ? AND a.end_time > ?")) {
+            statement.setLong(1, SPECIALIST_ID);
+            statement.setTimestamp(2, Timestamp.valueOf(start.minusMinutes(480)));
+            statement.setTimestamp(3, Timestamp.valueOf(end));
+            statement.setTimestamp(4, Timestamp.valueOf(start));
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static SessionFactory sessionFactory(String schema) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("uploadImageService", mock(UploadImageService.class));
+        String url = System.getProperty("bench.jdbc.url");
+        Configuration configuration = new Configuration()
+                .setProperty("hibernate.connection.url", url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema + ",public")
+                .setProperty("hibernate.connection.username", System.getProperty("bench.jdbc.user", "postgres"))
+                .setProperty("hibernate.connection.password", System.getProperty("bench.jdbc.password", "postgres"))
+                .setProperty("hibernate.connection.pool_size", String.valueOf(THREADS + 2))
+                .setProperty("hibernate.hbm2ddl.auto", "create")
+                .setProperty("jakarta.persistence.validation.mode", "none")
+                .setPhysicalNamingStrategy(new PhysicalNamingStrategySnakeCaseImpl());
+        configuration.getProperties().put("hibernate.resource.beans.container", new SpringBeanContainer(beanFactory));
+        for (Class<?> entity : List.of(User.class, Role.class, Address.class, OAuthAccount.class, Pet.class,
+                Breed.class, Species.class, Specialist.class, SpecialistStats.class, Appointment.class)) {
+            configuration.addAnnotatedClass(entity);
+        }
+        return configuration.buildSessionFactory();
+    }
+
+    // owner id, specialist id, then one pet per thread so pet clashes do not mask specialist ones
+    private static Long[] seed(org.hibernate.Session session) {
+        Role userRole = new Role();
+        userRole.setRoleName(RoleName.ROLE_USER);
+        session.persist(userRole);
+        User owner = user("owner", userRole);
+        session.persist(owner);
+        User specialistUser = user("specialist", userRole);
+        session.persist(specialistUser);
+
+        Specialist specialist = new Specialist();
+        specialist.setUser(specialistUser);
+        specialist.setAbout("Contended specialist");
+        specialist.setSlotDuration(30);
+        specialist.setWorkingHoursStart(LocalTime.of(9, 0));
+        specialist.setWorkingHoursEnd(LocalTime.of(17, 0));
+        specialist.setDaysAvailable(EnumSet.allOf(AvailableDay.class));
+        session.persist(specialist);
+
+        Species species = new Species();
+        species.setSpeciesName("Dog");
+        session.persist(species);
+        Breed breed = new Breed();
+        breed.setBreedName("Beagle");
+        breed.setSpecies(species);
+        session.persist(breed);
+
+        List<Long> ids = new ArrayList<>(List.of(owner.getUserId(), specialist.getSpecialistId()));
+        for (int i = 0; i < THREADS; i++) {
+            Pet pet = new Pet();
+            pet.setPetName("Pet " + i);
+            pet.setGender(Gender.FEMALE);
+            pet.setBreed(breed);
+            pet.setPetOwner(owner);
+            session.persist(pet);
+            ids.add(pet.getPetId());
+        }
+        return ids.toArray(Long[]::new);
+    }
+
+    private static User user(String name, Role role) {
+        User user = new User();
+        user.setRoles(new HashSet<>(List.of(role)));
+        user.setFirstName(name);
+        user.setLastName("Test");
+        user.setEmail(name + "@petcare.test");
+        user.setPassword("secret");
+        return user;
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(System.getProperty("bench.jdbc.url"),
+                System.getProperty("bench.jdbc.user", "postgres"),
+                System.getProperty("bench.jdbc.password", "postgres"));
+    }
+
+    private static void runInParallel(Runnable attempt) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger remaining = new AtomicInteger(ATTEMPTS);
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> workers = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    while (remaining.getAndDecrement() > 0) {
+                        attempt.run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+    }
+
+    private static void runInParallel(Attempt attempt) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger remaining = new AtomicInteger(ATTEMPTS);
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> workers = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(executor.submit(() -> {
+                    try (Connection connection = connect()) {
+                        connection.setAutoCommit(false);
+                        start.await();
+                        while (remaining.getAndDecrement() > 0) {
+                            attempt.run(connection);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        void run(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,77 @@
+package com.spring.petcareConnect.benchmarks;
+
+import com.spring.petcareConnect.dtos.appointment.response.AppointmentResponseDto;
+import com.spring.petcareConnect.dtos.forum.response.ForumResponseDto;
+import com.spring.petcareConnect.entities.Appointment;
+import com.spring.petcareConnect.entities.Forum;
+import com.spring.petcareConnect.mappers.AppointmentResponseDtoMapper;
+import com.spring.petcareConnect.mappers.ForumResponseDtoMapper;
+import com.spring.petcareConnect.mappers.MappingFixtures;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective ModelMapper path with the hand-written mappers used by
+ * ServiceMappingSupport. Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.spring.petcareConnect.benchmarks.DtoMappingBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private ForumResponseDtoMapper forumMapper;
+    private AppointmentResponseDtoMapper appointmentMapper;
+    private Forum forum;
+    private Appointment appointment;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        forumMapper = new ForumResponseDtoMapper();
+        appointmentMapper = new AppointmentResponseDtoMapper();
+        forum = MappingFixtures.forum();
+        appointment = MappingFixtures.appointment();
+        // prime ModelMapper's type maps so the benchmark measures steady state
+        modelMapper.map(forum, ForumResponseDto.class);
+        modelMapper.map(appointment, AppointmentResponseDto.class);
+    }
+
+    @Benchmark
+    public ForumResponseDto forumModelMapper() {
+        return modelMapper.map(forum, ForumResponseDto.class);
+    }
+
+    @Benchmark
+    public ForumResponseDto forumHandMapper() {
+        return forumMapper.map(forum);
+    }
+
+    @Benchmark
+    public AppointmentResponseDto appointmentModelMapper() {
+        return modelMapper.map(appointment, AppointmentResponseDto.class);
+    }
+
+    @Benchmark
+    public AppointmentResponseDto appointmentHandMapper() {
+        return appointmentMapper.map(appointment);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DtoMappingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,128 @@
+package com.spring.petcareConnect.benchmarks;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.spring.petcareConnect.config.MongoConfig;
+import com.spring.petcareConnect.entities.Forum;
+import com.spring.petcareConnect.repositories.mongo.ForumSearchOperations;
+import com.spring.petcareConnect.repositories.mongo.ForumSearchOperationsImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the regex search path with the weighted text index on a seeded forum collection.
+ * Needs a running MongoDB; the collection is seeded once (1M forums by default) and reused.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.spring.petcareConnect.benchmarks.ForumSearchBenchmark \
+ *     -Dbench.mongo.uri=mongodb://localhost:27017 -Dbench.forums=1000000
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ForumSearchBenchmark {
+
+    private static final String DATABASE = "petcare_search_bench";
+    private static final String[] WORDS = {
+            "dog", "cat", "puppy", "kitten", "vaccine", "diet", "grooming", "training", "allergy", "vet",
+            "parrot", "rabbit", "hamster", "walk", "toy", "behaviour", "anxiety", "shelter", "adoption", "teeth",
+            "flea", "tick", "worm", "surgery", "insurance", "senior", "weight", "food", "treats", "litter"
+    };
+    private static final String[] TAGS = {"health", "nutrition", "training", "adoption", "grooming", "behaviour"};
+
+    @Param({"vaccine", "grooming anxiety"})
+    public String keyword;
+
+    @Param({"", "health"})
+    public String tag;
+
+    private MongoClient client;
+    private ForumSearchOperations search;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        client = MongoClients.create(System.getProperty("bench.mongo.uri", "mongodb://localhost:27017"));
+        MongoTemplate mongoTemplate = new MongoTemplate(client, DATABASE);
+        seed(mongoTemplate, Long.getLong("bench.forums", 1_000_000L));
+        new MongoConfig(mongoTemplate).ensureForumTextIndex();
+        search = new ForumSearchOperationsImpl(mongoTemplate);
+        pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public Page<Forum> regexSearch() {
+        return search.searchByRegex(keyword, tags(), pageable);
+    }
+
+    @Benchmark
+    public Page<Forum> textSearch() {
+        return search.searchByText(keyword, tags(), pageable);
+    }
+
+    private List<String> tags() {
+        return tag.isEmpty() ? List.of() : List.of(tag);
+    }
+
+    private static void seed(MongoTemplate mongoTemplate, long target) {
+        long existing = mongoTemplate.count(new Query(), Forum.class);
+        Random random = new Random(42);
+        List<Forum> batch = new ArrayList<>(10_000);
+        for (long i = existing; i < target; i++) {
+            Forum forum = new Forum();
+            forum.setUserId(1 + random.nextLong(10_000));
+            forum.setTitle(sentence(random, 6));
+            forum.setContent(sentence(random, 120));
+            forum.setTags(List.of(TAGS[random.nextInt(TAGS.length)], TAGS[random.nextInt(TAGS.length)]));
+            forum.setCreatedAt(Instant.now().minusSeconds(random.nextInt(31_536_000)));
+            batch.add(forum);
+            if (batch.size() == 10_000) {
+                mongoTemplate.insertAll(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.insertAll(batch);
+        }
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) builder.append(' ');
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ForumSearchBenchmark.class.getSimpleName())
+                .jvmArgsAppend("-Dbench.mongo.uri=" + System.getProperty("bench.mongo.uri", "mongodb://localhost:27017"),
+                        "-Dbench.forums=" + System.getProperty("bench.forums", "1000000"))
+                .build()).run();
+    }
+}
@@ -0,0 +1,166 @@
+package com.spring.petcareConnect.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First-window latency of GET /specialists/search on a seeded 100k-specialist table, with and
+ * without the composite and pg_trgm indexes. The SQL mirrors what SpecialistSpecifications and
+ * the keyset scroll generate (window of 20, plus one row to detect a next window); both tables
+ * hold the same rows and are seeded once and reused.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.spring.petcareConnect.benchmarks.SpecialistSearchBenchmark \
+ *     -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/petcare -Dbench.jdbc.user=postgres -Dbench.jdbc.password=postgres
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpecialistSearchBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int WINDOW = 21;
+    private static final String[] SPECIALIZATIONS = {"Veterinary Dermatology", "Small Animal Surgery",
+            "Exotic Animal Medicine", "Veterinary Dentistry", "Animal Behaviour", "Feline Medicine"};
+    private static final String[] TERMS = {"derma", "surg", "exotic", "dent", "behav", "feline"};
+    private static final String[] CITIES = {"Bengaluru", "Pune", "Mumbai", "Chennai", "Hyderabad", "Delhi", "Kolkata", "Jaipur"};
+    private static final String[] DAYS = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY", "SUNDAY"};
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private Connection connection;
+    private PreparedStatement textSearch;
+    private PreparedStatement feeRange;
+    private PreparedStatement dayAndRating;
+    private final Random random = new Random(7);
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/petcare"),
+                System.getProperty("bench.jdbc.user", "postgres"),
+                System.getProperty("bench.jdbc.password", "postgres"));
+        String table = "bench_specialists_" + (indexed ? "indexed" : "plain");
+        seed(table);
+
+        textSearch = connection.prepareStatement("SELECT s.* FROM " + table + " s " +
+                "WHERE lower(s.specialization) LIKE ? ESCAPE '\\' AND lower(s.location) LIKE ? ESCAPE '\\' " +
+                "ORDER BY s.specialist_id DESC FETCH FIRST " + WINDOW + " ROWS ONLY");
+        feeRange = connection.prepareStatement("SELECT s.* FROM " + table + " s " +
+                "WHERE s.available = TRUE AND s.consultation_fee >= ? AND s.consultation_fee <= ? " +
+                "ORDER BY s.specialist_id DESC FETCH FIRST " + WINDOW + " ROWS ONLY");
+        dayAndRating = connection.prepareStatement("SELECT s.* FROM " + table + " s " +
+                "WHERE s.available = TRUE AND s.rating >= ? AND EXISTS (SELECT 1 FROM " + table + "_days d " +
+                "WHERE d.day_of_week IN (?) AND s.specialist_id = d.specialist_id) " +
+                "ORDER BY s.created_at DESC, s.specialist_id DESC FETCH FIRST " + WINDOW + " ROWS ONLY");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int specializationAndLocation() throws SQLException {
+        textSearch.setString(1, "%" + TERMS[random.nextInt(TERMS.length)] + "%");
+        textSearch.setString(2, "%" + CITIES[random.nextInt(CITIES.length)].toLowerCase() + "%");
+        return count(textSearch);
+    }
+
+    @Benchmark
+    public int availableInFeeRange() throws SQLException {
+        int from = 200 + 10 * random.nextInt(150);
+        feeRange.setBigDecimal(1, BigDecimal.valueOf(from));
+        feeRange.setBigDecimal(2, BigDecimal.valueOf(from + 50));
+        return count(feeRange);
+    }
+
+    @Benchmark
+    public int availableOnDayWithRating() throws SQLException {
+        dayAndRating.setDouble(1, 4.5);
+        dayAndRating.setString(2, DAYS[random.nextInt(DAYS.length)]);
+        return count(dayAndRating);
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private void seed(String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + table + " (" +
+                    "specialist_id BIGSERIAL PRIMARY KEY, about VARCHAR(500) NOT NULL, available BOOLEAN NOT NULL, " +
+                    "specialization VARCHAR(100), experience_years INT, rating DOUBLE PRECISION, " +
+                    "consultation_fee NUMERIC(38, 2), location VARCHAR(200), created_at TIMESTAMP NOT NULL)");
+            statement.execute("CREATE TABLE IF NOT EXISTS " + table + "_days (" +
+                    "specialist_id BIGINT NOT NULL, day_of_week VARCHAR(20) NOT NULL)");
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                rs.next();
+                if (rs.getLong(1) >= ROWS) {
+                    return;
+                }
+            }
+            statement.execute("TRUNCATE " + table + ", " + table + "_days");
+            statement.execute("INSERT INTO " + table + " (specialist_id, about, available, specialization, experience_years, " +
+                    "rating, consultation_fee, location, created_at) " +
+                    "SELECT g, 'Specialist ' || g, g % 5 <> 0, " +
+                    "(ARRAY['" + String.join("','", SPECIALIZATIONS) + "'])[1 + g % " + SPECIALIZATIONS.length + "], " +
+                    "g % 30, CASE WHEN g % 7 = 0 THEN NULL ELSE (g * 37 % 41) / 8.0 END, " +
+                    "CASE WHEN g % 11 = 0 THEN NULL ELSE 200 + (g * 7919 % 1800) END, " +
+                    "(ARRAY['" + String.join("','", CITIES) + "'])[1 + (g / 7) % " + CITIES.length + "] || ' Clinic ' || (g % 97), " +
+                    "TIMESTAMP '2020-01-01 09:00' + g * INTERVAL '20 minutes' " +
+                    "FROM generate_series(1, " + ROWS + ") g");
+            // two or three working days each
+            statement.execute("INSERT INTO " + table + "_days (specialist_id, day_of_week) " +
+                    "SELECT g, (ARRAY['" + String.join("','", DAYS) + "'])[1 + (g + k * 3) % 7] " +
+                    "FROM generate_series(1, " + ROWS + ") g, generate_series(0, 1 + g % 2) k");
+            if (indexed) {
+                // same indexes as the Specialist entity and SpecialistRepository
+                statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+                statement.execute("CREATE INDEX IF NOT EXISTS " + table + "_available_created ON " + table +
+                        " (available, created_at, specialist_id)");
+                statement.execute("CREATE INDEX IF NOT EXISTS " + table + "_available_fee ON " + table +
+                        " (available, consultation_fee, specialist_id)");
+                statement.execute("CREATE INDEX IF NOT EXISTS " + table + "_available_experience ON " + table +
+                        " (available, experience_years, specialist_id)");
+                statement.execute("CREATE INDEX IF NOT EXISTS " + table + "_available_rating ON " + table +
+                        " (available, rating, specialist_id)");
+                statement.execute("CREATE INDEX IF NOT EXISTS " + table + "_specialization_trgm ON " + table +
+                        " USING gin (lower(specialization) gin_trgm_ops)");
+                statement.execute("CREATE INDEX IF NOT EXISTS " + table + "_location_trgm ON " + table +
+                        " USING gin (lower(location) gin_trgm_ops)");
+                statement.execute("CREATE INDEX IF NOT EXISTS " + table + "_days_day ON " + table +
+                        "_days (day_of_week, specialist_id)");
+            }
+            statement.execute("ANALYZE " + table);
+            statement.execute("ANALYZE " + table + "_days");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SpecialistSearchBenchmark.class.getSimpleName())
+                .jvmArgsAppend("-Dbench.jdbc.url=" + System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/petcare"),
+                        "-Dbench.jdbc.user=" + System.getProperty("bench.jdbc.user", "postgres"),
+                        "-Dbench.jdbc.password=" + System.getProperty("bench.jdbc.password", "postgres"))
+                .build()).run();
+    }
+}
@@ -0,0 +1,180 @@
+package com.spring.petcareConnect.cache;
+
+import com.spring.petcareConnect.controllers.SpecialistController;
+import com.spring.petcareConnect.dtos.ETagged;
+import com.spring.petcareConnect.dtos.specialist.response.SpecialistListResponseDto;
+import com.spring.petcareConnect.dtos.specialist.response.SpecialistResponseDto;
+import com.spring.petcareConnect.entities.Specialist;
+import com.spring.petcareConnect.entities.User;
+import com.spring.petcareConnect.mappers.SpecialistResponseDtoMapper;
+import com.spring.petcareConnect.repositories.jpa.SpecialistRepository;
+import com.spring.petcareConnect.repositories.jpa.SpecialistRepository.CatalogStamp;
+import com.spring.petcareConnect.services.ServiceMappingSupport;
+import com.spring.petcareConnect.services.SpecialistService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SpecialistCatalogTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    private final List<Specialist> specialists = new ArrayList<>();
+    // rebuilds queued for the background thread, run by the test
+    private final Queue<Runnable> rebuilds = new ArrayDeque<>();
+    private LocalDateTime lastUpdate = CREATED;
+    private SpecialistRepository repository;
+    private SpecialistCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 5; id++) {
+            specialists.add(specialist(id, id == 3 ? null : (int) (10 - id)));
+        }
+        repository = mock(SpecialistRepository.class);
+        when(repository.findAllByOrderBySpecialistIdAsc()).thenAnswer(invocation -> List.copyOf(specialists));
+        when(repository.findCatalogStamp()).thenAnswer(invocation -> stamp(specialists.size(), lastUpdate));
+        catalog = new SpecialistCatalog(repository,
+                new ServiceMappingSupport(new ModelMapper(), List.of(new SpecialistResponseDtoMapper())),
+                new SimpleMeterRegistry(), rebuilds::add);
+    }
+
+    @Test
+    void pagesInRequestedOrderWithNullsLast() {
+        SpecialistListResponseDto page = catalog.snapshot()
+                .page(PageRequest.of(0, 3, Sort.by(Sort.Direction.ASC, "experienceYears")));
+
+        assertThat(page.getContent()).extracting(SpecialistResponseDto::getSpecialistId).containsExactly(5L, 4L, 2L);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+        assertThat(page.getLastPage()).isFalse();
+
+        SpecialistListResponseDto last = catalog.snapshot()
+                .page(PageRequest.of(1, 3, Sort.by(Sort.Direction.ASC, "experienceYears")));
+        assertThat(last.getContent()).extracting(SpecialistResponseDto::getSpecialistId).containsExactly(1L, 3L);
+        assertThat(last.getLastPage()).isTrue();
+
+        assertThat(SpecialistCatalog.canSort(Sort.by("rating", "createdAt"))).isTrue();
+        assertThat(SpecialistCatalog.canSort(Sort.by("user.firstName"))).isFalse();
+    }
+
+    @Test
+    void rebuildsInTheBackgroundAfterInvalidationAndKeepsTagsForUnchangedData() {
+        SpecialistCatalog.Snapshot first = catalog.snapshot();
+        assertThat(catalog.snapshot()).isSameAs(first);
+        verify(repository, times(1)).findAllByOrderBySpecialistIdAsc();
+
+        // readers keep the current snapshot until the single queued rebuild swaps in the next
+        catalog.invalidate();
+        catalog.invalidate();
+        assertThat(catalog.snapshot()).isSameAs(first);
+        assertThat(rebuilds).hasSize(1);
+        rebuilds.poll().run();
+        SpecialistCatalog.Snapshot rebuilt = catalog.snapshot();
+        assertThat(rebuilt).isNotSameAs(first);
+        // a rebuild that changes nothing hands out the same tags
+        assertThat(rebuilt.eTag()).isEqualTo(first.eTag());
+
+        specialists.get(1).setConsultationFee(BigDecimal.TEN);
+        catalog.invalidate();
+        rebuilds.poll().run();
+        SpecialistCatalog.Snapshot changed = catalog.snapshot();
+        assertThat(changed.eTag()).isNotEqualTo(first.eTag());
+        assertThat(changed.find(2L).orElseThrow().eTag()).isNotEqualTo(first.find(2L).orElseThrow().eTag());
+        assertThat(changed.find(1L).orElseThrow().eTag()).isEqualTo(first.find(1L).orElseThrow().eTag());
+    }
+
+    @Test
+    void reloadsOnlyWhenTheProbeSeesAChange() {
+        SpecialistCatalog.Snapshot first = catalog.snapshot();
+
+        catalog.refresh();
+        assertThat(rebuilds).isEmpty();
+
+        // another node edited a specialist
+        lastUpdate = lastUpdate.plusMinutes(1);
+        catalog.refresh();
+        rebuilds.poll().run();
+        assertThat(catalog.snapshot()).isNotSameAs(first);
+        verify(repository, times(2)).findAllByOrderBySpecialistIdAsc();
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWithNotModified() throws Exception {
+        SpecialistCatalog.Snapshot snapshot = catalog.snapshot();
+        SpecialistService service = mock(SpecialistService.class);
+        when(service.getSpecialists(anyInt(), anyInt(), anyString(), anyString()))
+                .thenAnswer(invocation -> new ETagged<>(snapshot.page(PageRequest.of(0, 10)), snapshot.eTag()));
+        when(service.getSpecialistById(any()))
+                .thenAnswer(invocation -> {
+                    SpecialistCatalog.Entry entry = snapshot.find(invocation.getArgument(0)).orElseThrow();
+                    return new ETagged<>(entry.specialist(), entry.eTag());
+                });
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new SpecialistController(service)).build();
+        String eTag = "W/\"" + snapshot.eTag() + "\"";
+
+        mvc.perform(get("/specialists"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+        mvc.perform(get("/specialists").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/specialists").header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk());
+        mvc.perform(get("/specialists/2").header("If-None-Match", "W/\"" + snapshot.find(2L).orElseThrow().eTag() + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    private static CatalogStamp stamp(long count, LocalDateTime updatedAt) {
+        return new CatalogStamp() {
+            @Override
+            public Long getSpecialists() {
+                return count;
+            }
+
+            @Override
+            public LocalDateTime getSpecialistsUpdatedAt() {
+                return updatedAt;
+            }
+
+            @Override
+            public LocalDateTime getUsersUpdatedAt() {
+                return updatedAt;
+            }
+        };
+    }
+
+    private static Specialist specialist(long id, Integer experienceYears) {
+        User user = new User();
+        user.setUserId(100 + id);
+        user.setFirstName("Vet " + id);
+        Specialist specialist = new Specialist();
+        specialist.setSpecialistId(id);
+        specialist.setUser(user);
+        specialist.setAbout("Specialist number " + id);
+        specialist.setExperienceYears(experienceYears);
+        specialist.setCreatedAt(CREATED.plusDays(id));
+        return specialist;
+    }
+}
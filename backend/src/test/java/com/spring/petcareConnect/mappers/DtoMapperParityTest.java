@@ -0,0 +1,48 @@
+package com.spring.petcareConnect.mappers;
+
+import com.spring.petcareConnect.dtos.appointment.response.AppointmentResponseDto;
+import com.spring.petcareConnect.dtos.forum.response.CommentResponseDto;
+import com.spring.petcareConnect.dtos.forum.response.ForumResponseDto;
+import com.spring.petcareConnect.dtos.pet.response.PetResponseDto;
+import com.spring.petcareConnect.entities.Appointment;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The hand-written mappers must produce the same DTOs the default ModelMapper did.
+ */
+class DtoMapperParityTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    @Test
+    void forumMatchesModelMapper() {
+        assertThat(new ForumResponseDtoMapper().map(MappingFixtures.forum()))
+                .isEqualTo(modelMapper.map(MappingFixtures.forum(), ForumResponseDto.class));
+    }
+
+    @Test
+    void commentMatchesModelMapper() {
+        assertThat(new CommentResponseDtoMapper().map(MappingFixtures.comment()))
+                .isEqualTo(modelMapper.map(MappingFixtures.comment(), CommentResponseDto.class));
+    }
+
+    @Test
+    void petMatchesModelMapper() {
+        assertThat(new PetResponseDtoMapper().map(MappingFixtures.pet()))
+                .isEqualTo(modelMapper.map(MappingFixtures.pet(), PetResponseDto.class));
+    }
+
+    @Test
+    void appointmentMatchesModelMapperExceptSpecialistNames() {
+        Appointment appointment = MappingFixtures.appointment();
+        AppointmentResponseDto expected = modelMapper.map(appointment, AppointmentResponseDto.class);
+        // Specialist names are resolved by AppointmentServiceImpl, not by the mapper
+        expected.setSpecialistFirstName(null);
+        expected.setSpecialistLastName(null);
+
+        assertThat(new AppointmentResponseDtoMapper().map(appointment)).isEqualTo(expected);
+    }
+}
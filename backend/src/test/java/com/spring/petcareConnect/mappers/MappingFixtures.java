@@ -0,0 +1,107 @@
+package com.spring.petcareConnect.mappers;
+
+import com.spring.petcareConnect.entities.*;
+import com.spring.petcareConnect.enums.AppointmentStatus;
+import com.spring.petcareConnect.enums.ForumTag;
+import com.spring.petcareConnect.enums.Gender;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Fully populated entity graphs shared by the mapper tests and benchmarks.
+ */
+public final class MappingFixtures {
+
+    private MappingFixtures() {}
+
+    public static Forum forum() {
+        Forum forum = new Forum();
+        forum.setForumId("665f1c2e9b1e8a3d4c5f6a7b");
+        forum.setUserId(42L);
+        forum.setTitle("Best diet for senior dogs");
+        forum.setContent("My labrador is turning eleven and I would like advice on food.");
+        forum.setTags(Set.of("dogs", "nutrition", "senior"));
+        forum.setCategory(ForumTag.values()[0]);
+        forum.setCommentCount(7);
+        forum.setLikeCount(12);
+        forum.setViewCount(310L);
+        forum.setDeletionReason(null);
+        forum.setCreatedAt(Instant.parse("2026-01-01T10:00:00Z"));
+        forum.setUpdatedAt(Instant.parse("2026-01-02T10:00:00Z"));
+        forum.addLike(7L);
+        return forum;
+    }
+
+    public static Comment comment() {
+        Comment comment = new Comment();
+        comment.setCommentId("665f1c2e9b1e8a3d4c5f6a7c");
+        comment.setForumId("665f1c2e9b1e8a3d4c5f6a7b");
+        comment.setUserId(7L);
+        comment.setText("Try a low-fat kibble and split meals.");
+        comment.setParentId(null);
+        comment.setChildCount(2);
+        comment.setIsEdited(true);
+        comment.setCreatedAt(Instant.parse("2026-01-01T11:00:00Z"));
+        comment.setUpdatedAt(Instant.parse("2026-01-01T12:00:00Z"));
+        comment.addLike(42L);
+        return comment;
+    }
+
+    public static Pet pet() {
+        Species species = new Species();
+        species.setSpeciesId(1L);
+        species.setSpeciesName("Dog");
+
+        Breed breed = new Breed();
+        breed.setBreedId(3L);
+        breed.setBreedName("Labrador");
+        breed.setSpecies(species);
+
+        Pet pet = new Pet();
+        pet.setPetId(11L);
+        pet.setPetName("Bruno");
+        pet.setAge(11);
+        pet.setWeight(31.5);
+        pet.setGender(Gender.values()[0]);
+        pet.setAvatarUrl("https://cdn.example.com/bruno.png");
+        pet.setAvatarPublicId("pets/bruno");
+        pet.setBreed(breed);
+        pet.setPetOwner(owner());
+        return pet;
+    }
+
+    public static Appointment appointment() {
+        User vetUser = new User();
+        vetUser.setUserId(99L);
+        vetUser.setFirstName("Meera");
+        vetUser.setLastName("Iyer");
+        vetUser.setEmail("meera@example.com");
+
+        Specialist specialist = new Specialist();
+        specialist.setSpecialistId(5L);
+        specialist.setUser(vetUser);
+        specialist.setSlotDuration(30);
+
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentId(1001L);
+        appointment.setPetOwner(owner());
+        appointment.setPet(pet());
+        appointment.setSpecialist(specialist);
+        appointment.setAppointmentDate(LocalDateTime.of(2026, 11, 3, 10, 30));
+        appointment.setAppointmentStatus(AppointmentStatus.SCHEDULED);
+        appointment.setNotes("Annual check-up");
+        appointment.setDuration(30);
+        return appointment;
+    }
+
+    private static User owner() {
+        User owner = new User();
+        owner.setUserId(42L);
+        owner.setFirstName("Arjun");
+        owner.setLastName("Rao");
+        owner.setEmail("arjun@example.com");
+        return owner;
+    }
+}
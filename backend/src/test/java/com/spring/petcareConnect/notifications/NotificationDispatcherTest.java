@@ -0,0 +1,137 @@
+package com.spring.petcareConnect.notifications;
+
+import com.spring.petcareConnect.entities.OutboxNotification;
+import com.spring.petcareConnect.entities.User;
+import com.spring.petcareConnect.enums.EmailType;
+import com.spring.petcareConnect.enums.NotificationChannel;
+import com.spring.petcareConnect.enums.OutboxStatus;
+import com.spring.petcareConnect.exceptions.SmsSendException;
+import com.spring.petcareConnect.repositories.jpa.OutboxNotificationRepository;
+import com.spring.petcareConnect.repositories.jpa.UserRepository;
+import com.spring.petcareConnect.services.EmailService;
+import com.spring.petcareConnect.sms.SmsDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTest {
+
+    private final OutboxNotificationRepository repository = mock(OutboxNotificationRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final EmailService emailService = mock(EmailService.class);
+    private final SmsDispatcher smsDispatcher = mock(SmsDispatcher.class);
+    private final NotificationDispatcher dispatcher = new NotificationDispatcher(repository, userRepository,
+            emailService, smsDispatcher, mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+            100, 20, 4, 3, 30, 600, 300, 7);
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(dispatcher.backoff(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(dispatcher.backoff(4)).isEqualTo(Duration.ofSeconds(240));
+        assertThat(dispatcher.backoff(5)).isEqualTo(Duration.ofSeconds(480));
+        assertThat(dispatcher.backoff(6)).isEqualTo(Duration.ofSeconds(600));
+        assertThat(dispatcher.backoff(60)).isEqualTo(Duration.ofSeconds(600));
+    }
+
+    @Test
+    void recordsDeliveriesRetriesAndDeadLetters() {
+        User user = new User();
+        user.setUserId(7L);
+        OutboxNotification email = notification(1L, NotificationChannel.EMAIL, 0);
+        email.setUserId(7L);
+        email.setEmailType(EmailType.VERIFICATION);
+        OutboxNotification failingSms = notification(2L, NotificationChannel.SMS, 0);
+        failingSms.setRecipient("+15550001");
+        OutboxNotification lastTrySms = notification(3L, NotificationChannel.SMS, 2);
+        lastTrySms.setRecipient("+15550002");
+
+        when(repository.claimDue(any(), eq(100))).thenReturn(List.of(1L, 2L, 3L));
+        when(repository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(email, failingSms, lastTrySms));
+        when(userRepository.findAllById(List.of(7L))).thenReturn(List.of(user));
+        when(emailService.sendEmails(List.of(new EmailRequest(user, EmailType.VERIFICATION))))
+                .thenReturn(new EmailBatchResult(1, Map.of()));
+        when(smsDispatcher.submit(any(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new SmsSendException("twilio down")));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.drain();
+
+        verify(emailService).sendEmails(List.of(new EmailRequest(user, EmailType.VERIFICATION)));
+        verify(repository).markSent(eq(List.of(1L)), any());
+        verify(repository).markFailed(eq(2L), eq(OutboxStatus.PENDING), eq(1),
+                argThat(next -> !next.isBefore(before.plusSeconds(30))), eq("twilio down"));
+        verify(repository).markFailed(eq(3L), eq(OutboxStatus.DEAD), eq(3), any(), eq("twilio down"));
+    }
+
+    @Test
+    void mergesAUsersAppointmentNotificationsIntoOneEmailAndOneSms() {
+        User user = new User();
+        user.setUserId(7L);
+        OutboxNotification created = appointmentEmail(1L, 10L, EmailType.APPOINTMENT_CREATED);
+        OutboxNotification cancelled = appointmentEmail(2L, 11L, EmailType.APPOINTMENT_CANCELLED);
+        OutboxNotification firstText = appointmentSms(3L, 10L, "Scheduled for Monday");
+        OutboxNotification secondText = appointmentSms(4L, 11L, "Tuesday cancelled");
+        OutboxNotification verification = notification(5L, NotificationChannel.EMAIL, 0);
+        verification.setUserId(7L);
+        verification.setEmailType(EmailType.VERIFICATION);
+
+        List<NotificationDispatcher.Delivery> deliveries = NotificationDispatcher.digest(
+                List.of(created, cancelled, firstText, secondText, verification), Map.of(7L, user));
+
+        assertThat(deliveries).hasSize(3);
+        assertThat(deliveries).anySatisfy(delivery -> {
+            assertThat(delivery.emailType()).isEqualTo(EmailType.APPOINTMENT_DIGEST);
+            assertThat(delivery.notifications()).containsExactly(created, cancelled);
+        });
+        assertThat(deliveries).anySatisfy(delivery -> {
+            assertThat(delivery.body()).isEqualTo("Scheduled for Monday\nTuesday cancelled");
+            assertThat(delivery.recipient()).isEqualTo("+15550001");
+        });
+        // account emails carry their own tokens and are never merged
+        assertThat(deliveries).anySatisfy(delivery ->
+                assertThat(delivery.notifications()).containsExactly(verification));
+    }
+
+    private static OutboxNotification appointmentEmail(Long id, Long appointmentId, EmailType type) {
+        OutboxNotification notification = notification(id, NotificationChannel.EMAIL, 0);
+        notification.setUserId(7L);
+        notification.setAppointmentId(appointmentId);
+        notification.setEmailType(type);
+        return notification;
+    }
+
+    private static OutboxNotification appointmentSms(Long id, Long appointmentId, String body) {
+        OutboxNotification notification = notification(id, NotificationChannel.SMS, 0);
+        notification.setUserId(7L);
+        notification.setAppointmentId(appointmentId);
+        notification.setRecipient("+15550001");
+        notification.setBody(body);
+        return notification;
+    }
+
+    private static OutboxNotification notification(Long id, NotificationChannel channel, int attempts) {
+        OutboxNotification notification = new OutboxNotification();
+        notification.setNotificationId(id);
+        notification.setChannel(channel);
+        notification.setAttempts(attempts);
+        notification.setNextAttemptAt(LocalDateTime.now());
+        return notification;
+    }
+}
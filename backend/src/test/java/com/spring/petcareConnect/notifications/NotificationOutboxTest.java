@@ -0,0 +1,102 @@
+package com.spring.petcareConnect.notifications;
+
+import com.spring.petcareConnect.entities.OutboxNotification;
+import com.spring.petcareConnect.entities.User;
+import com.spring.petcareConnect.enums.EmailType;
+import com.spring.petcareConnect.enums.NotificationChannel;
+import com.spring.petcareConnect.enums.OutboxStatus;
+import com.spring.petcareConnect.repositories.jpa.OutboxNotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationOutboxTest {
+
+    private final OutboxNotificationRepository repository = mock(OutboxNotificationRepository.class);
+    private final NotificationOutbox outbox = new NotificationOutbox(repository, 120);
+
+    @Test
+    void coalescesSupersededChanges() {
+        assertThat(NotificationOutbox.coalesce(EmailType.APPOINTMENT_CREATED, EmailType.APPOINTMENT_RESCHEDULED))
+                .isEqualTo(EmailType.APPOINTMENT_CREATED);
+        assertThat(NotificationOutbox.coalesce(EmailType.APPOINTMENT_RESCHEDULED, EmailType.APPOINTMENT_UPDATED))
+                .isEqualTo(EmailType.APPOINTMENT_RESCHEDULED);
+        assertThat(NotificationOutbox.coalesce(EmailType.APPOINTMENT_UPDATED, EmailType.APPOINTMENT_RESCHEDULED))
+                .isEqualTo(EmailType.APPOINTMENT_RESCHEDULED);
+        assertThat(NotificationOutbox.coalesce(EmailType.APPOINTMENT_RESCHEDULED, EmailType.APPOINTMENT_CANCELLED))
+                .isEqualTo(EmailType.APPOINTMENT_CANCELLED);
+        assertThat(NotificationOutbox.coalesce(EmailType.APPOINTMENT_CREATED, EmailType.APPOINTMENT_CANCELLED)).isNull();
+    }
+
+    @Test
+    void enumCheckConstraintsListEveryValue() throws NoSuchMethodException {
+        String ddl = OutboxNotificationRepository.class.getMethod("replaceEnumCheckConstraints")
+                .getAnnotation(Query.class).value();
+
+        for (OutboxStatus status : OutboxStatus.values()) {
+            assertThat(ddl).contains("'" + status.name() + "'");
+        }
+        for (EmailType type : EmailType.values()) {
+            assertThat(ddl).contains("'" + type.name() + "'");
+        }
+    }
+
+    @Test
+    void rescheduleWithinTheWindowReplacesTheHeldConfirmation() {
+        User owner = new User();
+        owner.setUserId(7L);
+        LocalDateTime heldUntil = LocalDateTime.now().plusSeconds(60);
+        OutboxNotification heldEmail = held(NotificationChannel.EMAIL, 10L, heldUntil);
+        heldEmail.setEmailType(EmailType.APPOINTMENT_CREATED);
+        OutboxNotification heldSms = held(NotificationChannel.SMS, 10L, heldUntil);
+        OutboxNotification otherAppointment = held(NotificationChannel.EMAIL, 11L, heldUntil.minusSeconds(30));
+        otherAppointment.setEmailType(EmailType.APPOINTMENT_CANCELLED);
+        when(repository.findHeldForUser(eq(7L), any())).thenReturn(List.of(heldEmail, heldSms, otherAppointment));
+
+        outbox.enqueueAppointmentChange(owner, 10L, EmailType.APPOINTMENT_RESCHEDULED, "+15550001",
+                type -> type + " text");
+
+        assertThat(heldEmail.getStatus()).isEqualTo(OutboxStatus.SUPERSEDED);
+        assertThat(heldSms.getStatus()).isEqualTo(OutboxStatus.SUPERSEDED);
+        assertThat(otherAppointment.getStatus()).isEqualTo(OutboxStatus.PENDING);
+
+        ArgumentCaptor<OutboxNotification> saved = ArgumentCaptor.forClass(OutboxNotification.class);
+        verify(repository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues()).allSatisfy(notification ->
+                // due with the owner's earliest held notification, so both go out together
+                assertThat(notification.getNextAttemptAt()).isEqualTo(otherAppointment.getNextAttemptAt()));
+        assertThat(saved.getAllValues().get(0).getEmailType()).isEqualTo(EmailType.APPOINTMENT_CREATED);
+        assertThat(saved.getAllValues().get(1).getBody()).isEqualTo("APPOINTMENT_CREATED text");
+    }
+
+    @Test
+    void cancellingAnUnannouncedBookingSendsNothing() {
+        User owner = new User();
+        owner.setUserId(7L);
+        OutboxNotification heldEmail = held(NotificationChannel.EMAIL, 10L, LocalDateTime.now().plusSeconds(60));
+        heldEmail.setEmailType(EmailType.APPOINTMENT_CREATED);
+        when(repository.findHeldForUser(eq(7L), any())).thenReturn(List.of(heldEmail));
+
+        outbox.enqueueAppointmentChange(owner, 10L, EmailType.APPOINTMENT_CANCELLED, "+15550001",
+                type -> type + " text");
+
+        assertThat(heldEmail.getStatus()).isEqualTo(OutboxStatus.SUPERSEDED);
+        verify(repository, never()).save(any());
+    }
+
+    private static OutboxNotification held(NotificationChannel channel, Long appointmentId, LocalDateTime dueAt) {
+        OutboxNotification notification = new OutboxNotification();
+        notification.setChannel(channel);
+        notification.setUserId(7L);
+        notification.setAppointmentId(appointmentId);
+        notification.setNextAttemptAt(dueAt);
+        return notification;
+    }
+}
@@ -0,0 +1,46 @@
+package com.spring.petcareConnect.reminders;
+
+import com.spring.petcareConnect.entities.Appointment;
+import com.spring.petcareConnect.enums.AppointmentStatus;
+import com.spring.petcareConnect.repositories.jpa.AppointmentRepository;
+import com.spring.petcareConnect.services.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AppointmentReminderQueueTest {
+
+    private static final LocalDateTime APPOINTMENT = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    private final AppointmentReminderQueue queue = new AppointmentReminderQueue(mock(AppointmentRepository.class),
+            mock(NotificationService.class), mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+            new long[]{60, 1440}, 200, 50);
+
+    @Test
+    void walksThroughOffsetsAndSkipsPassedOnes() {
+        assertThat(queue.nextDueAt(APPOINTMENT, APPOINTMENT.minusDays(3))).isEqualTo(APPOINTMENT.minusDays(1));
+        // after the 24h reminder went out the 1h one is next
+        assertThat(queue.nextDueAt(APPOINTMENT, APPOINTMENT.minusDays(1))).isEqualTo(APPOINTMENT.minusHours(1));
+        // booked 5h ahead: the 24h reminder is skipped
+        assertThat(queue.nextDueAt(APPOINTMENT, APPOINTMENT.minusHours(5))).isEqualTo(APPOINTMENT.minusHours(1));
+        assertThat(queue.nextDueAt(APPOINTMENT, APPOINTMENT.minusMinutes(30))).isNull();
+    }
+
+    @Test
+    void inactiveAppointmentsHaveNoReminder() {
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentDate(LocalDateTime.now().plusDays(3));
+        appointment.setAppointmentStatus(AppointmentStatus.SCHEDULED);
+        queue.schedule(appointment);
+        assertThat(appointment.getReminderDueAt()).isEqualTo(appointment.getAppointmentDate().minusDays(1));
+
+        appointment.setAppointmentStatus(AppointmentStatus.CANCELLED);
+        queue.schedule(appointment);
+        assertThat(appointment.getReminderDueAt()).isNull();
+    }
+}
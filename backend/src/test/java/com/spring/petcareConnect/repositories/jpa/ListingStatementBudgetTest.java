@@ -0,0 +1,297 @@
+package com.spring.petcareConnect.repositories.jpa;
+
+import com.spring.petcareConnect.availability.AvailabilityEngine;
+import com.spring.petcareConnect.availability.BookingLockManager;
+import com.spring.petcareConnect.cache.AuthorSummaryCache;
+import com.spring.petcareConnect.cache.SpecialistCatalog;
+import com.spring.petcareConnect.dtos.CursorPageResponseDto;
+import com.spring.petcareConnect.dtos.specialist.request.SpecialistSearchRequestDto;
+import com.spring.petcareConnect.dtos.specialist.response.SpecialistListResponseDto;
+import com.spring.petcareConnect.dtos.specialist.response.SpecialistResponseDto;
+import com.spring.petcareConnect.entities.*;
+import com.spring.petcareConnect.enums.AppointmentStatus;
+import com.spring.petcareConnect.enums.AvailableDay;
+import com.spring.petcareConnect.enums.Gender;
+import com.spring.petcareConnect.enums.RoleName;
+import com.spring.petcareConnect.helpers.PetProfileImageHandler;
+import com.spring.petcareConnect.mappers.AppointmentResponseDtoMapper;
+import com.spring.petcareConnect.mappers.PetResponseDtoMapper;
+import com.spring.petcareConnect.mappers.SpecialistResponseDtoMapper;
+import com.spring.petcareConnect.reminders.AppointmentReminderQueue;
+import com.spring.petcareConnect.security.service.UserDetailsImpl;
+import com.spring.petcareConnect.security.service.UserDetailsServiceImpl;
+import com.spring.petcareConnect.services.NotificationService;
+import com.spring.petcareConnect.services.ServiceMappingSupport;
+import com.spring.petcareConnect.services.SpecialistStatsService;
+import com.spring.petcareConnect.services.UploadImageService;
+import com.spring.petcareConnect.services.impl.AppointmentServiceImpl;
+import com.spring.petcareConnect.services.impl.PetServiceImpl;
+import com.spring.petcareConnect.services.impl.SpecialistServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.hibernate.SpringBeanContainer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Statement budgets for the pet, appointment and specialist endpoints and the lookups behind every
+ * authenticated request, run through the real services and repositories against an in-memory H2
+ * database. Every pet and appointment has its own breed, species and specialist, so a lazy
+ * association walked per row adds one statement per row and breaks the budget.
+ */
+class ListingStatementBudgetTest {
+
+    private static final int ROWS = 50;
+
+    private static final StatementCounter statements = new StatementCounter();
+    private static SessionFactory sessionFactory;
+    private static Long ownerId;
+    private static Long petId;
+    private static Long appointmentId;
+    private static Long specialistId;
+    private static List<Long> specialistUserIds;
+
+    private EntityManager entityManager;
+    private PetServiceImpl petService;
+    private AppointmentServiceImpl appointmentService;
+    private SpecialistServiceImpl specialistService;
+    private UserDetailsServiceImpl userDetailsService;
+    private AuthorSummaryCache authorSummaryCache;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("uploadImageService", mock(UploadImageService.class));
+
+        Configuration configuration = new Configuration()
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:listing-budget;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("jakarta.persistence.validation.mode", "none")
+                .setStatementInspector(statements);
+        configuration.getProperties().put("hibernate.resource.beans.container", new SpringBeanContainer(beanFactory));
+        for (Class<?> entity : List.of(User.class, Role.class, Address.class, OAuthAccount.class, Pet.class,
+                Breed.class, Species.class, Specialist.class, SpecialistStats.class, Appointment.class)) {
+            configuration.addAnnotatedClass(entity);
+        }
+        sessionFactory = configuration.buildSessionFactory();
+        sessionFactory.inTransaction(ListingStatementBudgetTest::seed);
+    }
+
+    @AfterAll
+    static void tearDownDatabase() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        entityManager = sessionFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        JpaRepositoryFactory repositories = new JpaRepositoryFactory(entityManager);
+        UserRepository userRepository = repositories.getRepository(UserRepository.class);
+        PetRepository petRepository = repositories.getRepository(PetRepository.class);
+        SpecialistRepository specialistRepository = repositories.getRepository(SpecialistRepository.class);
+        AppointmentRepository appointmentRepository = repositories.getRepository(AppointmentRepository.class);
+        ServiceMappingSupport mappingSupport = new ServiceMappingSupport(new ModelMapper(),
+                List.of(new PetResponseDtoMapper(), new AppointmentResponseDtoMapper(), new SpecialistResponseDtoMapper()));
+        authorSummaryCache = new AuthorSummaryCache(userRepository, new SimpleMeterRegistry(), 1000, 300);
+
+        petService = new PetServiceImpl(userRepository, repositories.getRepository(BreedRepository.class),
+                petRepository, mappingSupport, mock(PetProfileImageHandler.class));
+        appointmentService = new AppointmentServiceImpl(petRepository, specialistRepository, userRepository,
+                appointmentRepository, mock(NotificationService.class), mappingSupport, authorSummaryCache,
+                mock(AvailabilityEngine.class), mock(BookingLockManager.class),
+                mock(SpecialistStatsService.class), mock(AppointmentReminderQueue.class));
+        specialistService = new SpecialistServiceImpl(specialistRepository, appointmentRepository,
+                mappingSupport, mock(AvailabilityEngine.class), repositories.getRepository(SpecialistStatsRepository.class),
+                new SpecialistCatalog(specialistRepository, mappingSupport, new SimpleMeterRegistry()));
+        userDetailsService = new UserDetailsServiceImpl(userRepository);
+
+        UserDetailsImpl principal = new UserDetailsImpl(ownerId, "owner@petcare.test", "", List.of(),
+                true, true, true, "Olive", "Owner", null, null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+    }
+
+    @Test
+    void petListingsStayWithinBudget() {
+        // page and count
+        assertWithinBudget(2, () -> petService.getAllPetsForUser(0, ROWS, "createdAt", "desc").getPets());
+        assertWithinBudget(1, () -> petService.getAllPetsForUserByCursor(null, ROWS, null, null).getContent());
+        assertWithinBudget(1, () -> List.of(petService.getPetOfUserById(petId)));
+    }
+
+    @Test
+    void appointmentListingsStayWithinBudget() {
+        // page, count, specialist user ids, names from AuthorSummaryCache
+        assertWithinBudget(4, () -> appointmentService.getAllAppointmentsForUser(0, ROWS, "createdAt", "desc").getAppointments());
+        assertWithinBudget(3, () -> appointmentService.getAllAppointmentsForUserByCursor(null, ROWS, null, null).getContent());
+        assertWithinBudget(3, () -> List.of(appointmentService.getAppointmentOfUserById(appointmentId)));
+    }
+
+    @Test
+    void specialistListingsStayWithinBudget() {
+        // the catalog's change stamp and snapshot, then pages and lookups from memory
+        assertWithinBudget(2, () -> specialistService.getSpecialists(0, ROWS, "createdAt", "desc").body().getContent());
+        assertWithinBudget(0, () -> specialistService.getSpecialists(1, 10, "experienceYears", "asc").body().getContent());
+        assertWithinBudget(0, () -> List.of(specialistService.getSpecialistById(specialistId).body()));
+        // page, count, days available of the page
+        assertWithinBudget(3, () -> specialistService.getSpecialists(0, ROWS, "rating", "desc").body().getContent());
+        SpecialistListResponseDto ranked = specialistService.getSpecialists(0, ROWS, "rating", "desc").body();
+        assertThat(ranked.getTotalElements()).isEqualTo(ROWS);
+        assertThat(ranked.getContent()).hasSize(ROWS);
+        assertThat(ranked.getContent()).extracting(SpecialistResponseDto::getAbout).first().isEqualTo("Vet 49");
+    }
+
+    @Test
+    void specialistSearchStaysWithinBudget() {
+        // every other specialist is a dermatologist; fees run 100, 110, ... so 200..400 holds i = 10..30
+        SpecialistSearchRequestDto filters = new SpecialistSearchRequestDto();
+        filters.setSpecialization("DERMA");
+        filters.setLocation("pune");
+        filters.setMinFee(new BigDecimal("200"));
+        filters.setMaxFee(new BigDecimal("400"));
+        filters.setDays(Set.of(AvailableDay.TUESDAY, AvailableDay.WEDNESDAY));
+        filters.setMinExperience(1);
+
+        // window with users, days of the window
+        List<SpecialistResponseDto> found = new ArrayList<>();
+        String cursor = null;
+        do {
+            String after = cursor;
+            CursorPageResponseDto<SpecialistResponseDto> page =
+                    specialistService.searchSpecialists(filters, after, 3, "createdAt", "asc");
+            assertWithinBudget(2, () -> specialistService.searchSpecialists(filters, after, 3, "createdAt", "asc").getContent());
+            found.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // even i from 10 to 30 whose days include Tuesday (i % 6 == 0) or Wednesday (i % 6 == 1),
+        // less 30 with no experience
+        assertThat(found).extracting(SpecialistResponseDto::getAbout)
+                .containsExactly("Vet 12", "Vet 18", "Vet 24");
+        assertThat(found).allSatisfy(specialist -> assertThat(specialist.getFirstName()).startsWith("specialist"));
+    }
+
+    @Test
+    void requestAuthenticationLookupsStayWithinBudget() {
+        // the user behind a bearer token, with its roles
+        assertWithinBudget(1, () -> List.copyOf(userDetailsService.loadUserByUsername("owner@petcare.test").getAuthorities()));
+        // forum and comment author names
+        assertWithinBudget(1, () -> List.copyOf(authorSummaryCache.getAll(specialistUserIds).values()));
+    }
+
+    private void assertWithinBudget(int budget, Supplier<List<?>> endpoint) {
+        entityManager.clear();
+        statements.reset();
+        List<?> rows = endpoint.get();
+        assertThat(rows).isNotEmpty();
+        assertThat(statements.count())
+                .withFailMessage("Expected at most %d statements for %d rows but ran %d:%n%s",
+                        budget, rows.size(), statements.count(), String.join("\n", statements.statements()))
+                .isLessThanOrEqualTo(budget);
+    }
+
+    private static void seed(org.hibernate.Session session) {
+        Role userRole = role(RoleName.ROLE_USER);
+        Role specialistRole = role(RoleName.ROLE_SPECIALIST);
+        session.persist(userRole);
+        session.persist(specialistRole);
+        User owner = user("owner", userRole);
+        session.persist(owner);
+        ownerId = owner.getUserId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        specialistUserIds = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Species species = new Species();
+            species.setSpeciesName("Species " + i);
+            session.persist(species);
+            Breed breed = new Breed();
+            breed.setBreedName("Breed " + i);
+            breed.setSpecies(species);
+            session.persist(breed);
+
+            Pet pet = new Pet();
+            pet.setPetName("Pet " + i);
+            pet.setGender(Gender.FEMALE);
+            pet.setBreed(breed);
+            pet.setPetOwner(owner);
+            session.persist(pet);
+
+            User specialistUser = user("specialist" + i, userRole, specialistRole);
+            session.persist(specialistUser);
+            specialistUserIds.add(specialistUser.getUserId());
+            Specialist specialist = new Specialist();
+            specialist.setUser(specialistUser);
+            specialist.setAbout("Vet " + i);
+            specialist.setSpecialization(i % 2 == 0 ? "Veterinary Dermatology" : "Small Animal Surgery");
+            specialist.setLocation("Pune Clinic " + i);
+            specialist.setConsultationFee(BigDecimal.valueOf(100 + 10L * i));
+            specialist.setExperienceYears(i % 10);
+            specialist.setDaysAvailable(EnumSet.of(AvailableDay.MONDAY, AvailableDay.values()[1 + i % 6]));
+            session.persist(specialist);
+            SpecialistStats stats = new SpecialistStats();
+            stats.setSpecialist(specialist);
+            stats.setAverageRating(i % 5);
+            stats.setUpdatedAt(start);
+            session.persist(stats);
+
+            Appointment appointment = new Appointment();
+            appointment.setPetOwner(owner);
+            appointment.setPet(pet);
+            appointment.setSpecialist(specialist);
+            appointment.setAppointmentDate(start.plusHours(i));
+            appointment.setAppointmentStatus(AppointmentStatus.values()[0]);
+            appointment.setDuration(30);
+            session.persist(appointment);
+
+            petId = pet.getPetId();
+            appointmentId = appointment.getAppointmentId();
+            specialistId = specialist.getSpecialistId();
+        }
+    }
+
+    private static Role role(RoleName name) {
+        Role role = new Role();
+        role.setRoleName(name);
+        return role;
+    }
+
+    private static User user(String name, Role... roles) {
+        User user = new User();
+        user.setRoles(new HashSet<>(List.of(roles)));
+        user.setFirstName(name);
+        user.setLastName("Test");
+        user.setEmail(name + "@petcare.test");
+        user.setPassword("secret");
+        return user;
+    }
+}
@@ -0,0 +1,33 @@
+package com.spring.petcareConnect.repositories.jpa;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every SQL statement Hibernate prepares, so a test can hold a code path to a
+ * statement budget and print what it actually ran when it goes over.
+ */
+class StatementCounter implements StatementInspector {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    void reset() {
+        statements.clear();
+    }
+
+    int count() {
+        return statements.size();
+    }
+
+    List<String> statements() {
+        return List.copyOf(statements);
+    }
+}
@@ -0,0 +1,174 @@
+package com.spring.petcareConnect.repositories.mongo;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.spring.petcareConnect.cache.ForumCounterBuffer;
+import com.spring.petcareConnect.entities.Comment;
+import com.spring.petcareConnect.entities.Forum;
+import com.spring.petcareConnect.repositories.mongo.ForumCounterOperations.CounterDelta;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mongodb.MongoDBContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hundreds of parallel likers against one document: counters must match the set exactly,
+ * and buffered counters must survive concurrent flushes without loss or double counting.
+ * Requires Docker; skipped otherwise.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ForumCounterOperationsConcurrencyTest {
+
+    private static final int LIKERS = 500;
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static ForumCounterOperations operations;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoClients.create(MONGO.getConnectionString());
+        mongoTemplate = new MongoTemplate(client, "counter-test");
+        operations = new ForumCounterOperationsImpl(mongoTemplate);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void parallelForumLikesAreCountedExactlyOnce() throws Exception {
+        Forum forum = mongoTemplate.insert(newForum());
+        String forumId = forum.getForumId();
+
+        // every user likes twice; only the first attempt may succeed
+        int succeeded = runInParallel(2 * LIKERS, i -> operations.addForumLike(forumId, i % LIKERS + 1));
+        assertThat(succeeded).isEqualTo(LIKERS);
+        assertForumCounters(forumId, LIKERS);
+
+        // half the users unlike, again racing duplicates
+        int removed = runInParallel(LIKERS, i -> operations.removeForumLike(forumId, i % (LIKERS / 2) + 1));
+        assertThat(removed).isEqualTo(LIKERS / 2);
+        assertForumCounters(forumId, LIKERS / 2);
+    }
+
+    @Test
+    void parallelCommentLikesAreCountedExactlyOnce() throws Exception {
+        Comment comment = new Comment();
+        comment.setForumId("forum-1");
+        comment.setUserId(1L);
+        comment.setText("concurrency");
+        String commentId = mongoTemplate.insert(comment).getCommentId();
+
+        int succeeded = runInParallel(2 * LIKERS, i -> operations.addCommentLike(commentId, i % LIKERS + 1));
+        assertThat(succeeded).isEqualTo(LIKERS);
+
+        Comment reloaded = mongoTemplate.findById(commentId, Comment.class);
+        assertThat(reloaded.getLikeCount()).isEqualTo(LIKERS);
+        assertThat(reloaded.getLikedByUsers()).hasSize(LIKERS);
+    }
+
+    @Test
+    void commentCountNeverGoesNegative() throws Exception {
+        String forumId = mongoTemplate.insert(newForum()).getForumId();
+
+        runInParallel(LIKERS, i -> operations.applyCounterDeltas(List.of(new CounterDelta(forumId, 0, 1))) > 0);
+        // more deletions flushed than comments ever counted, e.g. a delta re-queued after a failed flush
+        runInParallel(2 * LIKERS, i -> operations.applyCounterDeltas(List.of(new CounterDelta(forumId, 1, -1))) > 0);
+
+        Forum reloaded = mongoTemplate.findById(forumId, Forum.class);
+        assertThat(reloaded.getCommentCount()).isZero();
+        assertThat(reloaded.getViewCount()).isEqualTo(2L * LIKERS);
+    }
+
+    @Test
+    void bufferedViewsAndCommentsAreFlushedExactly() throws Exception {
+        String forumId = mongoTemplate.insert(newForum()).getForumId();
+        ForumRepository repository = mock(ForumRepository.class);
+        when(repository.applyCounterDeltas(anyCollection()))
+                .thenAnswer(invocation -> operations.applyCounterDeltas(invocation.getArgument(0)));
+        ForumCounterBuffer buffer = new ForumCounterBuffer(repository, new SimpleMeterRegistry(), 1000);
+
+        // flush concurrently with writers: every increment must land in exactly one flush
+        runInParallel(10 * LIKERS, i -> {
+            buffer.recordView(forumId);
+            if (i % 10 == 0) {
+                buffer.recordCommentDelta(forumId, 1);
+            }
+            if (i % 100 == 0) {
+                buffer.flush();
+            }
+            return true;
+        });
+        buffer.drain();
+
+        Forum reloaded = mongoTemplate.findById(forumId, Forum.class);
+        assertThat(reloaded.getViewCount()).isEqualTo(10L * LIKERS);
+        assertThat(reloaded.getCommentCount()).isEqualTo(LIKERS);
+    }
+
+    @Test
+    void missingDocumentIsReportedAsNoMatch() {
+        assertThat(operations.addForumLike("missing", 1L)).isFalse();
+        assertThat(operations.removeCommentLike("missing", 1L)).isFalse();
+    }
+
+    private void assertForumCounters(String forumId, int expected) {
+        Forum reloaded = mongoTemplate.findById(forumId, Forum.class);
+        assertThat(reloaded.getLikeCount()).isEqualTo(expected);
+        assertThat(reloaded.getLikedByUsers()).hasSize(expected);
+    }
+
+    private static Forum newForum() {
+        Forum forum = new Forum();
+        forum.setUserId(1L);
+        forum.setTitle("Concurrency test");
+        forum.setContent("Forum document used by the counter concurrency test");
+        return forum;
+    }
+
+    private static int runInParallel(int tasks, LongPredicate action) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(64)) {
+            List<Future<Boolean>> results = new ArrayList<>(tasks);
+            for (int i = 0; i < tasks; i++) {
+                long index = i;
+                Callable<Boolean> task = () -> {
+                    start.await();
+                    return action.test(index);
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.spring.petcareConnect.search;
+
+import com.spring.petcareConnect.entities.Forum;
+import com.spring.petcareConnect.enums.ForumSearchMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ForumSearchIndexTest {
+
+    private ForumSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ForumSearchIndex(mock(MongoTemplate.class), new SimpleMeterRegistry(), ForumSearchMode.INDEX);
+        index.index(forum("f1", "Puppy vaccine schedule", "When should my puppy get the rabies vaccine?", List.of("health"), 1));
+        index.index(forum("f2", "Grooming tips", "Brushing helps with vaccine anxiety at the vet", List.of("grooming"), 2));
+        index.index(forum("f3", "Kitten diet", "Wet or dry food for a kitten?", List.of("nutrition", "health"), 3));
+    }
+
+    @Test
+    void ranksTitleMatchesAboveContentMatches() {
+        ForumSearchIndex.SearchResult result = index.search("Vaccine", List.of(), 0, 10);
+
+        assertThat(result.forumIds()).containsExactly("f1", "f2");
+        assertThat(result.total()).isEqualTo(2);
+    }
+
+    @Test
+    void requiresEveryTermAndOneOfTheTags() {
+        assertThat(index.search("puppy rabies", List.of(), 0, 10).forumIds()).containsExactly("f1");
+        assertThat(index.search("vaccine", List.of("grooming"), 0, 10).forumIds()).containsExactly("f2");
+        assertThat(index.search("kitten", List.of("grooming"), 0, 10).total()).isZero();
+    }
+
+    @Test
+    void updatesAndRemovalsAreVisibleImmediately() {
+        index.index(forum("f3", "Kitten vaccine", "First shots", List.of("health"), 3));
+        index.remove("f1");
+
+        ForumSearchIndex.SearchResult result = index.search("vaccine", List.of(), 0, 10);
+        assertThat(result.forumIds()).containsExactly("f3", "f2");
+        assertThat(index.search("diet", List.of(), 0, 10).total()).isZero();
+        assertThat(index.stats().getDeadDocuments()).isEqualTo(2);
+    }
+
+    @Test
+    void pagesByOffsetAndLimit() {
+        ForumSearchIndex.SearchResult page = index.search("vaccine", List.of(), 1, 1);
+
+        assertThat(page.forumIds()).containsExactly("f2");
+        assertThat(page.total()).isEqualTo(2);
+    }
+
+    private static Forum forum(String id, String title, String content, List<String> tags, long createdAt) {
+        Forum forum = new Forum();
+        forum.setForumId(id);
+        forum.setTitle(title);
+        forum.setContent(content);
+        forum.setTags(tags);
+        forum.setCreatedAt(Instant.ofEpochSecond(createdAt));
+        return forum;
+    }
+}
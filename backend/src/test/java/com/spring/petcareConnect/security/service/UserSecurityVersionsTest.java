@@ -0,0 +1,92 @@
+package com.spring.petcareConnect.security.service;
+
+import com.spring.petcareConnect.entities.User;
+import com.spring.petcareConnect.repositories.jpa.UserRepository;
+import com.spring.petcareConnect.repositories.jpa.UserRepository.UserSecurityState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class UserSecurityVersionsTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserSecurityVersions versions = new UserSecurityVersions(userRepository, new SimpleMeterRegistry(), 100, 300, 3600);
+
+    @Test
+    void checksTokensAgainstThePersistedState() {
+        when(userRepository.findSecurityStateByUserId(1L)).thenReturn(Optional.of(state(3, false)));
+        when(userRepository.findSecurityStateByUserId(2L)).thenReturn(Optional.of(state(0, true)));
+        when(userRepository.findSecurityStateByUserId(3L)).thenReturn(Optional.empty());
+
+        assertThat(versions.isCurrent(1L, 3)).isTrue();
+        // issued before a demotion persisted by another node or before a restart
+        assertThat(versions.isCurrent(1L, 2)).isFalse();
+        // locked
+        assertThat(versions.isCurrent(2L, 0)).isFalse();
+        // deleted
+        assertThat(versions.isCurrent(3L, 0)).isFalse();
+        // one lookup per user while cached
+        verify(userRepository, times(1)).findSecurityStateByUserId(1L);
+    }
+
+    @Test
+    void bumpTakesEffectOnceTheSaveCommits() {
+        when(userRepository.findSecurityStateByUserId(1L)).thenReturn(Optional.of(state(0, false)));
+        assertThat(versions.isCurrent(1L, 0)).isTrue();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            versions.bump(user(1L));
+            assertThat(versions.isCurrent(1L, 0)).isTrue();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(versions.isCurrent(1L, 0)).isFalse();
+    }
+
+    @Test
+    void rolledBackBumpIsNeverEnforced() {
+        when(userRepository.findSecurityStateByUserId(1L)).thenReturn(Optional.of(state(0, false)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            User user = user(1L);
+            versions.bump(user);
+            assertThat(user.getSecurityVersion()).isEqualTo(1);
+        } finally {
+            // rolled back: afterCommit never runs
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // the persisted version is still 0, so tokens issued at it keep working
+        assertThat(versions.isCurrent(1L, 0)).isTrue();
+    }
+
+    private static User user(Long userId) {
+        User user = new User();
+        user.setUserId(userId);
+        return user;
+    }
+
+    private static UserSecurityState state(long version, boolean locked) {
+        return new UserSecurityState() {
+            @Override
+            public Long getSecurityVersion() {
+                return version;
+            }
+
+            @Override
+            public Boolean getAccountLocked() {
+                return locked;
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.spring.petcareConnect.services.impl;
+
+import com.spring.petcareConnect.availability.AvailabilityEngine;
+import com.spring.petcareConnect.availability.BookingLockManager;
+import com.spring.petcareConnect.cache.AuthorSummaryCache;
+import com.spring.petcareConnect.dtos.appointment.request.AppointmentRequestDto;
+import com.spring.petcareConnect.dtos.appointment.response.AppointmentConflictDto;
+import com.spring.petcareConnect.dtos.appointment.response.AppointmentResponseDto;
+import com.spring.petcareConnect.entities.Appointment;
+import com.spring.petcareConnect.entities.Pet;
+import com.spring.petcareConnect.entities.Specialist;
+import com.spring.petcareConnect.entities.User;
+import com.spring.petcareConnect.enums.AppointmentStatus;
+import com.spring.petcareConnect.exceptions.ConflictException;
+import com.spring.petcareConnect.reminders.AppointmentReminderQueue;
+import com.spring.petcareConnect.repositories.jpa.AppointmentRepository;
+import com.spring.petcareConnect.repositories.jpa.PetRepository;
+import com.spring.petcareConnect.repositories.jpa.SpecialistRepository;
+import com.spring.petcareConnect.repositories.jpa.UserRepository;
+import com.spring.petcareConnect.security.service.UserDetailsImpl;
+import com.spring.petcareConnect.services.NotificationService;
+import com.spring.petcareConnect.services.ServiceMappingSupport;
+import com.spring.petcareConnect.services.SpecialistStatsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AppointmentServiceImplTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final AvailabilityEngine availabilityEngine = mock(AvailabilityEngine.class);
+    private final BookingLockManager bookingLockManager = mock(BookingLockManager.class);
+    private final AppointmentRequestDto request = new AppointmentRequestDto(3L, 5L, START, AppointmentStatus.SCHEDULED, null);
+    private AppointmentServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setUserId(1L);
+        Pet pet = new Pet();
+        pet.setPetId(3L);
+        Specialist specialist = new Specialist();
+        specialist.setSpecialistId(5L);
+        specialist.setUser(new User());
+        specialist.setSlotDuration(30);
+        specialist.setWorkingHoursStart(LocalTime.of(9, 0));
+        specialist.setWorkingHoursEnd(LocalTime.of(17, 0));
+
+        UserRepository userRepository = mock(UserRepository.class);
+        PetRepository petRepository = mock(PetRepository.class);
+        SpecialistRepository specialistRepository = mock(SpecialistRepository.class);
+        ServiceMappingSupport mappingSupport = mock(ServiceMappingSupport.class);
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+        when(petRepository.findByPetIdAndPetOwner(3L, owner)).thenReturn(Optional.of(pet));
+        when(specialistRepository.findById(5L)).thenReturn(Optional.of(specialist));
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mappingSupport.mapToDto(any(), eq(AppointmentResponseDto.class))).thenReturn(new AppointmentResponseDto());
+
+        // the day's bitmap says the slot is taken
+        AvailabilityEngine.Reservation taken = mock(AvailabilityEngine.Reservation.class);
+        when(taken.outcome()).thenReturn(AvailabilityEngine.Outcome.TAKEN);
+        when(availabilityEngine.reserve(specialist, START, START.plusMinutes(30))).thenReturn(taken);
+
+        service = new AppointmentServiceImpl(petRepository, specialistRepository, userRepository, appointmentRepository,
+                mock(NotificationService.class), mappingSupport, mock(AuthorSummaryCache.class), availabilityEngine,
+                bookingLockManager, mock(SpecialistStatsService.class), mock(AppointmentReminderQueue.class));
+
+        UserDetailsImpl principal = new UserDetailsImpl(1L, "owner@petcare.test", "", List.of(),
+                true, true, true, "Olive", "Owner", null, null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void takenSlotConfirmedByTheDatabaseIsRejectedBeforeLocking() {
+        when(appointmentRepository.findConflicts(5L, 3L, START, START.plusMinutes(30), null))
+                .thenReturn(new AppointmentConflictDto(true, false));
+
+        assertThatThrownBy(() -> service.createAppointment(request)).isInstanceOf(ConflictException.class);
+        verifyNoInteractions(bookingLockManager);
+        verify(appointmentRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void staleTakenSlotIsBookedAndTheDayReRead() {
+        // e.g. cancelled on another node
+        when(appointmentRepository.findConflicts(5L, 3L, START, START.plusMinutes(30), null))
+                .thenReturn(new AppointmentConflictDto(false, false));
+
+        service.createAppointment(request);
+
+        verify(availabilityEngine).invalidate(5L, START.toLocalDate());
+        verify(bookingLockManager).lockSpecialist(5L);
+        verify(appointmentRepository).saveAndFlush(any(Appointment.class));
+    }
+}
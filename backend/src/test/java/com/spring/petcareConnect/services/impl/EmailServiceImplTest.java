@@ -0,0 +1,85 @@
+package com.spring.petcareConnect.services.impl;
+
+import com.spring.petcareConnect.entities.User;
+import com.spring.petcareConnect.enums.EmailType;
+import com.spring.petcareConnect.notifications.EmailBatchResult;
+import com.spring.petcareConnect.notifications.EmailRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmailServiceImplTest {
+
+    private JavaMailSender mailSender;
+    private TemplateEngine templateEngine;
+    private EmailServiceImpl service;
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mailSender = mock(JavaMailSender.class);
+        templateEngine = mock(TemplateEngine.class);
+        Session session = Session.getInstance(new Properties());
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(session));
+        when(templateEngine.process(eq("email-template"), any(IContext.class))).thenReturn("<p>hello</p>");
+        doAnswer(invocation -> {
+            Object[] messages = invocation.getArguments();
+            batchSizes.add(messages.length);
+            for (Object argument : messages) {
+                MimeMessage message = (MimeMessage) argument;
+                if (message.getAllRecipients()[0].toString().startsWith("bounce")) {
+                    throw new MailSendException(Map.of(message, new MessagingException("mailbox unavailable")));
+                }
+            }
+            return null;
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        service = new EmailServiceImpl(mailSender, templateEngine, new SimpleMeterRegistry(), 2, 2);
+        ReflectionTestUtils.setField(service, "frontendUrl", "http://localhost:5173");
+        ReflectionTestUtils.setField(service, "fromAddress", "noreply@petcare.test");
+        service.init();
+    }
+
+    @Test
+    void sendsInBatchesAndReportsFailuresByIndex() {
+        List<EmailRequest> requests = IntStream.range(0, 5)
+                .mapToObj(i -> new EmailRequest(user(i == 3 ? "bounce@petcare.test" : "user" + i + "@petcare.test"),
+                        EmailType.APPOINTMENT_REMINDER))
+                .toList();
+
+        EmailBatchResult result = service.sendEmails(requests);
+
+        assertThat(batchSizes).containsExactlyInAnyOrder(2, 2, 1);
+        assertThat(result.sent()).isEqualTo(4);
+        assertThat(result.failures()).containsOnlyKeys(3);
+        // the template was parsed once at startup, then only evaluated per message
+        verify(templateEngine, times(6)).process(eq("email-template"), any(IContext.class));
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setUserId((long) email.hashCode());
+        user.setEmail(email);
+        user.setFirstName("Sam");
+        return user;
+    }
+}
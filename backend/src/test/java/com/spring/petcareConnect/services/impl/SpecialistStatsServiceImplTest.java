@@ -0,0 +1,77 @@
+package com.spring.petcareConnect.services.impl;
+
+import com.spring.petcareConnect.availability.AvailabilityEngine;
+import com.spring.petcareConnect.cache.SpecialistCatalog;
+import com.spring.petcareConnect.entities.Specialist;
+import com.spring.petcareConnect.enums.AppointmentStatus;
+import com.spring.petcareConnect.repositories.jpa.SpecialistRepository;
+import com.spring.petcareConnect.repositories.jpa.SpecialistStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SpecialistStatsServiceImplTest {
+
+    private SpecialistStatsRepository repository;
+    private AvailabilityEngine availabilityEngine;
+    private SpecialistStatsServiceImpl service;
+    private Specialist specialist;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(SpecialistStatsRepository.class);
+        availabilityEngine = mock(AvailabilityEngine.class);
+        service = new SpecialistStatsServiceImpl(repository, mock(SpecialistRepository.class), availabilityEngine,
+                mock(SpecialistCatalog.class), 14);
+        specialist = new Specialist();
+        specialist.setSpecialistId(7L);
+    }
+
+    @Test
+    void bookingCountsAsUpcomingAndRefreshesNextSlot() {
+        LocalDateTime next = LocalDateTime.of(2030, 1, 7, 10, 0);
+        when(availabilityEngine.nextFreeSlot(eq(specialist), any(LocalDateTime.class), eq(14))).thenReturn(next);
+
+        service.recordBooked(specialist, AppointmentStatus.SCHEDULED);
+
+        verify(repository).applyDelta(7L, 1, 1, 0, 0, 0, 0);
+        verify(repository).updateNextFreeSlot(7L, next);
+    }
+
+    @Test
+    void bookingCountsInTheBucketOfItsSavedStatus() {
+        service.recordBooked(specialist, AppointmentStatus.COMPLETED);
+        service.recordBooked(specialist, AppointmentStatus.CANCELLED);
+
+        verify(repository).applyDelta(7L, 1, 0, 1, 0, 0, 0);
+        verify(repository).applyDelta(7L, 1, 0, 0, 1, 0, 0);
+    }
+
+    @Test
+    void statusChangesMoveCountsBetweenBuckets() {
+        service.recordStatusChange(specialist, AppointmentStatus.RESCHEDULED, AppointmentStatus.CANCELLED);
+        service.recordStatusChange(specialist, AppointmentStatus.SCHEDULED, AppointmentStatus.COMPLETED);
+        // both active: nothing to count, only the next slot moves
+        service.recordStatusChange(specialist, AppointmentStatus.SCHEDULED, AppointmentStatus.RESCHEDULED);
+
+        verify(repository).applyDelta(7L, 0, -1, 0, 1, 0, 0);
+        verify(repository).applyDelta(7L, 0, -1, 1, 0, 0, 0);
+        verify(repository, times(2)).applyDelta(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        verify(repository, times(3)).updateNextFreeSlot(eq(7L), any());
+    }
+
+    @Test
+    void reRatingReplacesThePreviousRating() {
+        service.recordRating(7L, null, 4);
+        service.recordRating(7L, 4, 2);
+        service.recordRating(7L, 2, 2);
+
+        verify(repository).applyDelta(7L, 0, 0, 0, 0, 4, 1);
+        verify(repository).applyDelta(7L, 0, 0, 0, 0, -2, 0);
+        verify(repository, times(2)).syncSpecialistRating(7L);
+    }
+}
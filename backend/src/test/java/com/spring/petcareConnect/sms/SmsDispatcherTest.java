@@ -0,0 +1,142 @@
+package com.spring.petcareConnect.sms;
+
+import com.spring.petcareConnect.exceptions.SmsSendException;
+import com.spring.petcareConnect.services.impl.SmsServiceImpl;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the dispatcher and SmsServiceImpl against a local stand-in of Twilio's Messages API.
+ */
+class SmsDispatcherTest {
+
+    private static final String ACCOUNT_SID = "AC00000000000000000000000000000000";
+    private static final String INVALID_NUMBER = "+15550000000";
+
+    private final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+    private HttpServer twilio;
+    private SmsServiceImpl smsService;
+    private SmsDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        twilio = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        twilio.createContext("/2010-04-01/Accounts/" + ACCOUNT_SID + "/Messages.json", this::createMessage);
+        twilio.start();
+        smsService = new SmsServiceImpl(ACCOUNT_SID, "token", "+15551230000",
+                "http://127.0.0.1:" + twilio.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        twilio.stop(0);
+    }
+
+    @Test
+    void otpOvertakesQueuedNotifications() {
+        dispatcher = new SmsDispatcher(smsService, new SimpleMeterRegistry(), 1, 20, 1, 10, 100);
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            sends.add(dispatcher.submit(SmsPriority.NOTIFICATION, "+15550000100", "reminder " + i));
+        }
+        sends.add(dispatcher.submit(SmsPriority.OTP, "+15550000200", "otp"));
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(delivered).hasSize(11);
+        // at most the reminders already taken by the worker go out before it
+        assertThat(delivered.indexOf("otp")).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void pacesCallsToTheConfiguredRate() {
+        dispatcher = new SmsDispatcher(smsService, new SimpleMeterRegistry(), 4, 20, 1, 10, 100);
+        long started = System.nanoTime();
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            sends.add(dispatcher.submit(SmsPriority.NOTIFICATION, "+15550000100", "message " + i));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+
+        // one token up front, then 20 per second
+        assertThat((System.nanoTime() - started) / 1_000_000).isGreaterThanOrEqualTo(450);
+    }
+
+    @Test
+    void reportsProviderErrorsAndFullQueues() {
+        dispatcher = new SmsDispatcher(smsService, new SimpleMeterRegistry(), 1, 0.5, 1, 1, 1);
+
+        CompletableFuture<Void> invalid = dispatcher.submit(SmsPriority.OTP, INVALID_NUMBER, "otp");
+        assertThatThrownBy(invalid::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(SmsSendException.class);
+
+        // the bucket is empty for the next two seconds, so the single slot stays taken
+        dispatcher.submit(SmsPriority.NOTIFICATION, "+15550000100", "first");
+        assertThatThrownBy(() -> dispatcher.submit(SmsPriority.NOTIFICATION, "+15550000100", "second"))
+                .isInstanceOf(SmsSendException.class);
+    }
+
+    @Test
+    void tokenBucketRefillsAtTheConfiguredRate() {
+        AtomicLong now = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 2, now::get);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+        now.addAndGet(100_000_000);
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+        // never more than the burst
+        now.addAndGet(10_000_000_000L);
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    private void createMessage(HttpExchange exchange) throws IOException {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).split("&")) {
+            String[] parts = pair.split("=", 2);
+            form.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        String response;
+        int status;
+        if (INVALID_NUMBER.equals(form.get("To"))) {
+            status = 400;
+            response = "{\"code\": 21211, \"message\": \"Invalid 'To' Phone Number\", \"status\": 400}";
+        } else {
+            delivered.add(form.get("Body"));
+            status = 201;
+            response = "{\"sid\": \"SM" + "0".repeat(32) + "\", \"status\": \"queued\", \"to\": \"" + form.get("To") + "\"}";
+        }
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
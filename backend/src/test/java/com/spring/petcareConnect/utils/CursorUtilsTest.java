@@ -0,0 +1,49 @@
+package com.spring.petcareConnect.utils;
+
+import com.spring.petcareConnect.exceptions.APIException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorUtilsTest {
+
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "forumId"));
+
+    @Test
+    void roundTripsKeysAndTheirTypes() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdAt", Instant.parse("2025-03-01T10:15:30.123Z"));
+        keys.put("forumId", "65f1c0ffee");
+        keys.put("appointmentDate", LocalDateTime.of(2025, 3, 1, 9, 30));
+        keys.put("petId", 42L);
+
+        String cursor = CursorUtils.encode(ScrollPosition.forward(keys), SORT);
+        ScrollPosition decoded = CursorUtils.decode(cursor, SORT);
+
+        assertThat(decoded).isInstanceOf(KeysetScrollPosition.class);
+        assertThat(((KeysetScrollPosition) decoded).getKeys()).containsExactlyEntriesOf(keys);
+    }
+
+    @Test
+    void missingCursorStartsFromTheBeginning() {
+        assertThat(CursorUtils.decode(null, SORT).isInitial()).isTrue();
+        assertThat(CursorUtils.encode(ScrollPosition.keyset(), SORT)).isNull();
+    }
+
+    @Test
+    void rejectsCursorsFromAnotherSortOrGarbage() {
+        String cursor = CursorUtils.encode(ScrollPosition.forward(Map.of("forumId", "a")), SORT);
+
+        assertThatThrownBy(() -> CursorUtils.decode(cursor, Sort.by("forumId"))).isInstanceOf(APIException.class);
+        assertThatThrownBy(() -> CursorUtils.decode("not-a-cursor", SORT)).isInstanceOf(APIException.class);
+    }
+}